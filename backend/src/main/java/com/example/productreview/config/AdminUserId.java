@@ -0,0 +1,14 @@
+package com.example.productreview.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * The caller's Clerk user id, for endpoints restricted to the ids in {@code clerk.auth.admin-user-ids}.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AdminUserId {
+}
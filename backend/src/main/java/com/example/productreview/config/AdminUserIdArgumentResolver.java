@@ -0,0 +1,46 @@
+package com.example.productreview.config;
+
+import com.example.productreview.exception.UnauthorizedException;
+import org.springframework.core.MethodParameter;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * Refuses the request with 403 unless the verified Clerk user is a configured administrator. Without
+ * Clerk authentication there is no verified user, so every request is refused.
+ */
+@Component
+public class AdminUserIdArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private final ClerkAuthProperties authProperties;
+
+    public AdminUserIdArgumentResolver(ClerkAuthProperties authProperties) {
+        this.authProperties = authProperties;
+    }
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(AdminUserId.class)
+                && String.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter,
+                                  ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest,
+                                  WebDataBinderFactory binderFactory) {
+        Object authenticatedClerkUserId = webRequest.getAttribute(
+                ClerkAuthenticationFilter.AUTHENTICATED_CLERK_USER_ID_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+
+        if (!(authenticatedClerkUserId instanceof String clerkUserId)
+                || !authProperties.getAdminUserIds().contains(clerkUserId)) {
+            throw new UnauthorizedException("Administrator access required");
+        }
+        return clerkUserId;
+    }
+}
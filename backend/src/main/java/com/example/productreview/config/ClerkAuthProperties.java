@@ -13,6 +13,7 @@ public class ClerkAuthProperties {
     private boolean enabled = true;
     private String verificationKey = "";
     private List<String> authorizedParties = new ArrayList<>();
+    private List<String> adminUserIds = new ArrayList<>();
 
     public boolean isEnabled() {
         return enabled;
@@ -37,4 +38,12 @@ public class ClerkAuthProperties {
     public void setAuthorizedParties(List<String> authorizedParties) {
         this.authorizedParties = authorizedParties;
     }
+
+    public List<String> getAdminUserIds() {
+        return adminUserIds;
+    }
+
+    public void setAdminUserIds(List<String> adminUserIds) {
+        this.adminUserIds = adminUserIds;
+    }
 }
@@ -0,0 +1,12 @@
+package com.example.productreview.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables background maintenance jobs such as catalog statistics reconciliation.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -10,13 +10,17 @@ import java.util.List;
 public class WebMvcConfig implements WebMvcConfigurer {
 
     private final AuthenticatedUserIdArgumentResolver authenticatedUserIdArgumentResolver;
+    private final AdminUserIdArgumentResolver adminUserIdArgumentResolver;
 
-    public WebMvcConfig(AuthenticatedUserIdArgumentResolver authenticatedUserIdArgumentResolver) {
+    public WebMvcConfig(AuthenticatedUserIdArgumentResolver authenticatedUserIdArgumentResolver,
+                        AdminUserIdArgumentResolver adminUserIdArgumentResolver) {
         this.authenticatedUserIdArgumentResolver = authenticatedUserIdArgumentResolver;
+        this.adminUserIdArgumentResolver = adminUserIdArgumentResolver;
     }
 
     @Override
     public void addArgumentResolvers(List<HandlerMethodArgumentResolver> resolvers) {
         resolvers.add(authenticatedUserIdArgumentResolver);
+        resolvers.add(adminUserIdArgumentResolver);
     }
 }
@@ -1,11 +1,22 @@
 package com.example.productreview.controller;
 
+import com.example.productreview.config.AdminUserId;
 import com.example.productreview.config.AuthenticatedUserId;
 import com.example.productreview.dto.ChatRequest;
+import com.example.productreview.dto.CursorPage;
 import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.dto.ProductSuggestionDTO;
+import com.example.productreview.dto.RatingTrendDTO;
 import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.dto.ReviewImportStatus;
+import com.example.productreview.dto.ReviewSummaryDTO;
+import com.example.productreview.dto.SlicePage;
 import com.example.productreview.exception.ValidationException;
 import com.example.productreview.service.ProductService;
+import com.example.productreview.service.RatingTrendService;
+import com.example.productreview.service.ReviewExportService;
+import com.example.productreview.service.ReviewImportJobs;
+import com.example.productreview.service.ReviewIngestionService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -19,12 +30,26 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
+import java.util.regex.Pattern;
 
 @RestController
 @RequestMapping("/api/v1/products")
@@ -32,21 +57,49 @@ public class ProductController {
 
     private static final Logger log = LoggerFactory.getLogger(ProductController.class);
     private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
+    private static final int MAX_TREND_DAYS = 365;
     private static final Set<String> ALLOWED_REVIEW_SORT_FIELDS = Set.of(
-            "createdAt", "rating", "reviewerName", "helpfulCount");
+            "helpfulness", "createdAt", "rating", "reviewerName", "helpfulCount");
     private static final Set<String> ALLOWED_PRODUCT_SORT_FIELDS = Set.of(
             "name", "price", "averageRating", "reviewCount");
+    private static final Set<String> ALLOWED_REVIEW_CURSOR_SORT_FIELDS = Set.of(
+            "helpfulness", "createdAt", "rating", "helpfulCount");
+    private static final String HELPFULNESS_SCORE = "helpfulnessScore";
+    private static final Pattern IMPORT_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
 
     private final ProductService productService;
+    private final ReviewIngestionService reviewIngestionService;
+    private final ReviewExportService reviewExportService;
+    private final ReviewImportJobs reviewImportJobs;
+    private final RatingTrendService ratingTrendService;
 
-    public ProductController(ProductService productService) {
+    public ProductController(ProductService productService,
+                             ReviewIngestionService reviewIngestionService,
+                             ReviewExportService reviewExportService,
+                             ReviewImportJobs reviewImportJobs,
+                             RatingTrendService ratingTrendService) {
         this.productService = productService;
+        this.reviewIngestionService = reviewIngestionService;
+        this.reviewExportService = reviewExportService;
+        this.reviewImportJobs = reviewImportJobs;
+        this.ratingTrendService = ratingTrendService;
     }
 
     private void validatePagination(int page, int size) {
         if (page < 0) {
             throw new ValidationException("Page index must not be negative");
         }
+        validatePageSize(size);
+    }
+
+    private void validateRating(Integer rating) {
+        if (rating != null && (rating < 1 || rating > 5)) {
+            throw new ValidationException("Rating must be between 1 and 5");
+        }
+    }
+
+    private void validatePageSize(int size) {
         if (size < 1) {
             throw new ValidationException("Page size must be at least 1");
         }
@@ -55,9 +108,9 @@ public class ProductController {
         }
     }
 
-    private void validateRating(Integer rating) {
-        if (rating != null && (rating < 1 || rating > 5)) {
-            throw new ValidationException("Rating must be between 1 and 5");
+    private void validateTrendDays(int days) {
+        if (days < 1 || days > MAX_TREND_DAYS) {
+            throw new ValidationException("Days must be between 1 and " + MAX_TREND_DAYS);
         }
     }
 
@@ -83,6 +136,57 @@ public class ProductController {
         return ResponseEntity.ok(productService.getGlobalStats(category, search));
     }
 
+    @Operation(
+            tags = "Products",
+            summary = "Get the catalog-wide rating trend",
+            description = "Returns the number of reviews and their average rating for each of the last 'days' days "
+                    + "(today included) across all products, read from daily rollups.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Trend returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid number of days")
+    })
+    @GetMapping("/trend")
+    public ResponseEntity<RatingTrendDTO> getCatalogTrend(
+            @Parameter(description = "Number of days, today included (1-365)", example = "30")
+            @RequestParam(defaultValue = "30") int days) {
+        validateTrendDays(days);
+        return ResponseEntity.ok(ratingTrendService.getCatalogTrend(days));
+    }
+
+    @Operation(
+            tags = "Products",
+            summary = "Get category facet counts",
+            description = "Returns the number of matching products per category for the current search in a single call.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Facet counts returned successfully")
+    })
+    @GetMapping("/facets")
+    public ResponseEntity<Map<String, Object>> getCategoryFacets(
+            @Parameter(description = "Search products by name and description", example = "Pro")
+            @RequestParam(required = false) String search) {
+        return ResponseEntity.ok(productService.getCategoryFacets(search));
+    }
+
+    @Operation(
+            tags = "Products",
+            summary = "Suggest product names",
+            description = "Typeahead for the search box: products with a name word starting with the query, most reviewed first.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Suggestions returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid limit")
+    })
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggestionDTO>> suggestProducts(
+            @Parameter(description = "What the user has typed so far", example = "iph")
+            @RequestParam(required = false) String q,
+            @Parameter(description = "Maximum number of suggestions (1-20)", example = "8")
+            @RequestParam(defaultValue = "8") int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS) {
+            throw new ValidationException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        }
+        return ResponseEntity.ok(productService.suggestProducts(q, limit));
+    }
+
     @Operation(
             tags = "Products",
             summary = "List all products",
@@ -101,13 +205,54 @@ public class ProductController {
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size (1-100)", example = "10")
             @RequestParam(defaultValue = "10") int size,
-            @Parameter(description = "Sort field and direction (e.g. name,asc or price,desc)", example = "name,asc")
-            @RequestParam(defaultValue = "name,asc") String sort) {
+            @Parameter(description = "Sort field and direction (e.g. name,asc or price,desc). "
+                    + "Defaults to name,asc; search results without an explicit sort are ranked by relevance.", example = "name,asc")
+            @RequestParam(required = false) String sort) {
 
         validatePagination(page, size);
 
         log.info("getAllProducts called with category: {}, search: {}, sort: {}", category, search, sort);
 
+        return ResponseEntity.ok(productService.getAllProducts(category, search, productPageable(search, page, size, sort)));
+    }
+
+    @Operation(
+            tags = "Products",
+            summary = "List products as a slice",
+            description = "Same listing as the paged endpoint, returned in a compact envelope. The total is served "
+                    + "from a cache invalidated on writes instead of a COUNT query per request.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of products returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
+    })
+    @GetMapping("/slice")
+    public ResponseEntity<SlicePage<ProductDTO>> getProductSlice(
+            @Parameter(description = "Filter by category name", example = "Electronics")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Search products by name (case-insensitive)", example = "iPhone")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Page index (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-100)", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field and direction (e.g. name,asc or price,desc). "
+                    + "Defaults to name,asc; search results without an explicit sort are ranked by relevance.", example = "name,asc")
+            @RequestParam(required = false) String sort) {
+
+        validatePagination(page, size);
+
+        return ResponseEntity.ok(productService.getProductSlice(category, search, productPageable(search, page, size, sort)));
+    }
+
+    private Pageable productPageable(String search, int page, int size, String sort) {
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+        if (sort == null || sort.isBlank()) {
+            if (hasSearch) {
+                return PageRequest.of(page, size);
+            }
+            sort = "name,asc";
+        }
+
         String[] sortParams = sort.split(",");
         String sortField = sortParams[0];
         validateSortField(sortField, ALLOWED_PRODUCT_SORT_FIELDS);
@@ -119,12 +264,45 @@ public class ProductController {
         Sort.Order order = new Sort.Order(direction, sortField);
         if (sortField.equalsIgnoreCase("name")) {
             order = order.ignoreCase();
-            log.info("Applying case-insensitive sorting for name field");
         }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(order));
+        return PageRequest.of(page, size, Sort.by(order));
+    }
+
+    @Operation(
+            tags = "Products",
+            summary = "Scroll products with a cursor",
+            description = "Returns products in keyset order without counting totals. Pass the returned nextCursor "
+                    + "to fetch the following page; deep pages cost the same as the first one.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of products returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or page size")
+    })
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<ProductDTO>> scrollProducts(
+            @Parameter(description = "Filter by category name", example = "Electronics")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Not supported for cursor pagination; use the paged listing to search")
+            @RequestParam(required = false) String search,
+            @Parameter(description = "Cursor returned by the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field and direction (e.g. name,asc or price,desc)", example = "name,asc")
+            @RequestParam(defaultValue = "name,asc") String sort) {
+
+        validatePageSize(size);
+        if (search != null && !search.isBlank()) {
+            throw new ValidationException("Search results are ranked by relevance and cannot be scrolled with a cursor");
+        }
+
+        String[] sortParams = sort.split(",");
+        String sortField = sortParams[0].trim();
+        validateSortField(sortField, ALLOWED_PRODUCT_SORT_FIELDS);
+        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
 
-        return ResponseEntity.ok(productService.getAllProducts(category, search, pageable));
+        return ResponseEntity.ok(productService.scrollProducts(category, sortField, direction, cursor, size));
     }
 
     @Operation(
@@ -142,10 +320,63 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductDTOById(id));
     }
 
+    @Operation(
+            tags = "Products",
+            summary = "Get a product's AI review summary",
+            description = "Returns the current AI review summary without waiting for generation. A PENDING or STALE "
+                    + "status means a new summary is being generated; poll with If-None-Match to get 304 until it "
+                    + "changes.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Summary returned successfully"),
+            @ApiResponse(responseCode = "304", description = "Summary unchanged since the given ETag"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @GetMapping("/{id}/summary")
+    public ResponseEntity<ReviewSummaryDTO> getReviewSummary(
+            @Parameter(description = "Product ID", example = "1")
+            @PathVariable Long id,
+            WebRequest webRequest) {
+        ReviewSummaryDTO summary = productService.getReviewSummary(id);
+        String etag = "\"" + Integer.toHexString(
+                Objects.hash(summary.getStatus(), summary.getSummary(), summary.getGeneratedAt())) + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache());
+        if ("PENDING".equals(summary.getStatus()) || "STALE".equals(summary.getStatus())) {
+            response.header(HttpHeaders.RETRY_AFTER, "2");
+        }
+        return response.body(summary);
+    }
+
+    @Operation(
+            tags = "Products",
+            summary = "Get a product's rating trend",
+            description = "Returns the number of reviews and their average rating for each of the last 'days' days "
+                    + "(today included), read from daily rollups, for rating-over-time charts.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Trend returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid number of days"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @GetMapping("/{id}/trend")
+    public ResponseEntity<RatingTrendDTO> getProductTrend(
+            @Parameter(description = "Product ID", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Number of days, today included (1-365)", example = "30")
+            @RequestParam(defaultValue = "30") int days) {
+        validateTrendDays(days);
+        return ResponseEntity.ok(ratingTrendService.getProductTrend(id, days));
+    }
+
     @Operation(
             tags = "Reviews",
             summary = "List reviews for a product",
-            description = "Returns a paginated list of reviews for a given product, with optional rating filter and sorting.")
+            description = "Returns a paginated list of reviews for a given product, with optional rating filter and sorting. "
+                    + "With q, only reviews whose comment contains every word are returned, newest first, with the "
+                    + "matching words marked in highlights.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Page of reviews returned successfully"),
             @ApiResponse(responseCode = "400", description = "Invalid pagination parameters"),
@@ -157,16 +388,56 @@ public class ProductController {
             @PathVariable Long id,
             @Parameter(description = "Filter by star rating (1-5)", example = "5")
             @RequestParam(required = false) Integer rating,
+            @Parameter(description = "Search within the review comments", example = "battery")
+            @RequestParam(required = false) String q,
             @Parameter(description = "Page index (0-based)", example = "0")
             @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size (1-100)", example = "10")
             @RequestParam(defaultValue = "10") int size,
-            @Parameter(description = "Sort field and direction", example = "createdAt,desc")
-            @RequestParam(defaultValue = "createdAt,desc") String sort) {
+            @Parameter(description = "Sort field and direction. Defaults to helpfulness,desc, most helpful first "
+                    + "by helpful votes weighed against review age. Ignored with q", example = "helpfulness,desc")
+            @RequestParam(defaultValue = "helpfulness,desc") String sort) {
 
         validatePagination(page, size);
         validateRating(rating);
 
+        Pageable pageable = reviewPageable(page, size, sort);
+        if (q != null && !q.isBlank()) {
+            return ResponseEntity.ok(productService.searchReviews(id, rating, q, pageable));
+        }
+        return ResponseEntity.ok(productService.getReviewsByProductId(id, rating, pageable));
+    }
+
+    @Operation(
+            tags = "Reviews",
+            summary = "List reviews for a product as a slice",
+            description = "Same listing as the paged endpoint, returned in a compact envelope. The total comes from "
+                    + "the product's review count and rating breakdown instead of a COUNT query.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of reviews returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid pagination parameters")
+    })
+    @GetMapping("/{id}/reviews/slice")
+    public ResponseEntity<SlicePage<ReviewDTO>> getReviewSlice(
+            @Parameter(description = "Product ID", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Filter by star rating (1-5)", example = "5")
+            @RequestParam(required = false) Integer rating,
+            @Parameter(description = "Page index (0-based)", example = "0")
+            @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size (1-100)", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field and direction. Defaults to helpfulness,desc, most helpful first "
+                    + "by helpful votes weighed against review age", example = "helpfulness,desc")
+            @RequestParam(defaultValue = "helpfulness,desc") String sort) {
+
+        validatePagination(page, size);
+        validateRating(rating);
+
+        return ResponseEntity.ok(productService.getReviewSlice(id, rating, reviewPageable(page, size, sort)));
+    }
+
+    private Pageable reviewPageable(int page, int size, String sort) {
         String[] sortParams = sort.split(",");
         String sortField = sortParams[0];
         validateSortField(sortField, ALLOWED_REVIEW_SORT_FIELDS);
@@ -174,33 +445,175 @@ public class ProductController {
         Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc")
                 ? Sort.Direction.DESC : Sort.Direction.ASC;
 
+        if (sortField.equals("helpfulness")) {
+            // Matches the (product_id, helpfulness_score, id) index, so the page is one range scan
+            return PageRequest.of(page, size, Sort.by(direction, HELPFULNESS_SCORE, "id"));
+        }
+
         Sort.Order order = new Sort.Order(direction, sortField);
         if (sortField.equalsIgnoreCase("reviewerName")) {
             order = order.ignoreCase();
         }
 
-        Pageable pageable = PageRequest.of(page, size, Sort.by(order));
+        return PageRequest.of(page, size, Sort.by(order));
+    }
 
-        return ResponseEntity.ok(productService.getReviewsByProductId(id, rating, pageable));
+    @Operation(
+            tags = "Reviews",
+            summary = "Scroll reviews for a product with a cursor",
+            description = "Returns reviews in keyset order without counting totals. Pass the returned nextCursor "
+                    + "to fetch the following page.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page of reviews returned successfully"),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor, sort or page size")
+    })
+    @GetMapping("/{id}/reviews/scroll")
+    public ResponseEntity<CursorPage<ReviewDTO>> scrollReviews(
+            @Parameter(description = "Product ID", example = "1")
+            @PathVariable Long id,
+            @Parameter(description = "Filter by star rating (1-5)", example = "5")
+            @RequestParam(required = false) Integer rating,
+            @Parameter(description = "Cursor returned by the previous page; omit for the first page")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Page size (1-100)", example = "10")
+            @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field and direction (helpfulness, createdAt, rating or helpfulCount)", example = "createdAt,desc")
+            @RequestParam(defaultValue = "createdAt,desc") String sort) {
+
+        validatePageSize(size);
+        validateRating(rating);
+
+        String[] sortParams = sort.split(",");
+        String sortField = sortParams[0].trim();
+        validateSortField(sortField, ALLOWED_REVIEW_CURSOR_SORT_FIELDS);
+        Sort.Direction direction = sortParams.length > 1 && sortParams[1].equalsIgnoreCase("desc")
+                ? Sort.Direction.DESC : Sort.Direction.ASC;
+        if (sortField.equals("helpfulness")) {
+            sortField = HELPFULNESS_SCORE;
+        }
+
+        return ResponseEntity.ok(productService.scrollReviews(id, rating, sortField, direction, cursor, size));
     }
 
     @Operation(
             tags = "Reviews",
             summary = "Submit a review",
-            description = "Creates a new review for the specified product and updates the product's rating statistics.")
+            description = "Creates a new review for the specified product and updates the product's rating statistics. "
+                    + "In write-behind ingestion mode the review is queued and written shortly after; the response is "
+                    + "202 without a review id.")
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "Review created successfully"),
+            @ApiResponse(responseCode = "202", description = "Review accepted for write-behind ingestion"),
             @ApiResponse(responseCode = "400", description = "Invalid review data"),
-            @ApiResponse(responseCode = "404", description = "Product not found")
+            @ApiResponse(responseCode = "404", description = "Product not found"),
+            @ApiResponse(responseCode = "429", description = "Ingestion queue is full, retry after the Retry-After delay"),
+            @ApiResponse(responseCode = "503", description = "Ingestion is starting, stopping or cannot journal")
     })
     @PostMapping("/{id}/reviews")
     public ResponseEntity<ReviewDTO> addReview(
             @Parameter(description = "Product ID", example = "1")
             @PathVariable Long id,
             @Valid @RequestBody ReviewDTO reviewDTO) {
+        if (reviewIngestionService.isWriteBehind()) {
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(reviewIngestionService.enqueue(id, reviewDTO));
+        }
         return ResponseEntity.ok(productService.addReview(id, reviewDTO));
     }
 
+    @Operation(
+            tags = "Reviews",
+            summary = "Export reviews as NDJSON",
+            description = "Administrators only. Streams every matching review, one JSON object per line in id "
+                    + "order, for one product, one category or the whole catalog. Use this instead of paging "
+                    + "through the review listing for bulk pulls.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reviews streamed as application/x-ndjson"),
+            @ApiResponse(responseCode = "400", description = "Both productId and category given, or an empty date range"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an administrator"),
+            @ApiResponse(responseCode = "404", description = "Product not found")
+    })
+    @GetMapping(value = "/reviews/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportReviews(
+            @Parameter(hidden = true)
+            @AdminUserId String adminUserId,
+            @Parameter(description = "Only reviews of this product", example = "1")
+            @RequestParam(required = false) Long productId,
+            @Parameter(description = "Only reviews of products in this category", example = "Electronics")
+            @RequestParam(required = false) String category,
+            @Parameter(description = "Created at or after (ISO date-time)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Created before (ISO date-time)", example = "2025-01-01T00:00:00")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        String scopeCategory = category == null || category.isBlank() || category.equalsIgnoreCase("All")
+                ? null : category;
+        if (productId != null && scopeCategory != null) {
+            throw new ValidationException("Use either productId or category, not both");
+        }
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new ValidationException("'from' must be before 'to'");
+        }
+        if (productId != null) {
+            // Fail with 404 before the response is committed
+            productService.getProductById(productId);
+        }
+        StreamingResponseBody body = out -> reviewExportService.exportReviews(productId, scopeCategory, from, to, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @Operation(
+            tags = "Reviews",
+            summary = "Import reviews from NDJSON",
+            description = "Administrators only. Bulk-loads reviews, one JSON object with a productId per line, "
+                    + "validated like a single submission and written in batches. The body is received and the "
+                    + "import queued; poll the returned Location for its state and the per-line errors. Product "
+                    + "statistics and AI summaries are refreshed once per product at the end. If an import fails, "
+                    + "send the same body with the same importId to resume after the last committed line.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Import queued"),
+            @ApiResponse(responseCode = "400", description = "Invalid importId, or that import is already queued or running"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an administrator")
+    })
+    @PostMapping(value = "/reviews/import", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ReviewImportStatus> importReviews(
+            @Parameter(hidden = true)
+            @AdminUserId String adminUserId,
+            @Parameter(description = "Identifies the import for resuming (letters, digits, '.', '_', '-'); "
+                    + "a new one is assigned when omitted", example = "partner-2026-10")
+            @RequestParam(required = false) String importId,
+            InputStream body) throws IOException {
+        if (importId == null || importId.isBlank()) {
+            importId = UUID.randomUUID().toString();
+        } else if (!IMPORT_ID.matcher(importId).matches()) {
+            throw new ValidationException("importId must be 1-64 letters, digits, '.', '_' or '-'");
+        }
+        log.info("Review import {} submitted by {}", importId, adminUserId);
+        ReviewImportStatus status = reviewImportJobs.submit(importId, body);
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/v1/products/reviews/import/" + importId))
+                .body(status);
+    }
+
+    @Operation(
+            tags = "Reviews",
+            summary = "Get the state of a review import",
+            description = "Administrators only. Returns QUEUED, RUNNING, SUCCEEDED with the import result, or FAILED "
+                    + "with the error.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Import state returned"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an administrator"),
+            @ApiResponse(responseCode = "404", description = "No import with this id since the server started")
+    })
+    @GetMapping("/reviews/import/{importId}")
+    public ResponseEntity<ReviewImportStatus> getImportStatus(
+            @Parameter(hidden = true)
+            @AdminUserId String adminUserId,
+            @Parameter(description = "Import identifier", example = "partner-2026-10")
+            @PathVariable String importId) {
+        return ResponseEntity.ok(reviewImportJobs.status(importId));
+    }
+
     @Operation(
             tags = "Reviews",
             summary = "Toggle helpful vote on a review",
@@ -234,6 +647,35 @@ public class ProductController {
         return ResponseEntity.ok(productService.getUserVotedReviewIds(userId));
     }
 
+    @Operation(
+            tags = "Reviews",
+            summary = "Look up the user's votes on specific reviews",
+            description = "Returns which of the given reviews, or which reviews of the given product, the current user "
+                    + "has marked as helpful. Use this to show vote state on one page instead of downloading the "
+                    + "user's whole voting history.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Voted review IDs within the requested scope returned"),
+            @ApiResponse(responseCode = "400", description = "Neither or both of productId and reviewIds given, or too many review IDs")
+    })
+    @SecurityRequirement(name = "bearerAuth")
+    @GetMapping("/reviews/votes")
+    public ResponseEntity<List<Long>> lookupUserVotes(
+            @Parameter(description = "Product whose reviews to check", example = "1")
+            @RequestParam(required = false) Long productId,
+            @Parameter(description = "Review IDs to check (at most 100)", example = "1,2,3")
+            @RequestParam(required = false) List<Long> reviewIds,
+            @Parameter(hidden = true)
+            @AuthenticatedUserId String userId) {
+        boolean hasReviewIds = reviewIds != null && !reviewIds.isEmpty();
+        if ((productId == null) == !hasReviewIds) {
+            throw new ValidationException("Exactly one of productId or reviewIds is required");
+        }
+        if (hasReviewIds && reviewIds.size() > MAX_PAGE_SIZE) {
+            throw new ValidationException("At most " + MAX_PAGE_SIZE + " review IDs can be checked at once");
+        }
+        return ResponseEntity.ok(productService.getUserVotedReviewIds(userId, productId, reviewIds));
+    }
+
     @Operation(
             tags = "AI",
             summary = "Chat about a product",
@@ -0,0 +1,64 @@
+package com.example.productreview.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "One page of a cursor-paginated listing, without totals")
+public class CursorPage<T> {
+
+    @Schema(description = "Items of this page")
+    private List<T> content;
+
+    @Schema(description = "Number of items on this page", example = "10")
+    private int size;
+
+    @Schema(description = "Opaque cursor to pass as 'cursor' to fetch the next page; null on the last page",
+            example = "cHJpY2V8QVNDfDEyfDk5OS45OQ")
+    private String nextCursor;
+
+    @Schema(description = "Whether another page follows", example = "true")
+    private boolean hasNext;
+
+    public CursorPage() {
+    }
+
+    public CursorPage(List<T> content, String nextCursor) {
+        this.content = content;
+        this.size = content.size();
+        this.nextCursor = nextCursor;
+        this.hasNext = nextCursor != null;
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+}
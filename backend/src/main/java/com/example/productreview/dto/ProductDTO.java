@@ -1,7 +1,9 @@
 package com.example.productreview.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 
+import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
 
@@ -38,9 +40,21 @@ public class ProductDTO {
     @Schema(description = "AI-generated review summary (only on single product detail)", example = "Users praise the premium design and camera quality...")
     private String aiSummary;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "State of aiSummary on single product detail: READY, STALE (a newer one is being generated), "
+            + "PENDING (poll /products/{id}/summary) or NONE", example = "READY")
+    private String aiSummaryStatus;
+
     public ProductDTO() {
     }
 
+    /**
+     * Listing projection; categories are attached separately.
+     */
+    public ProductDTO(Long id, String name, String description, Double price, String imageUrl, Double averageRating, Integer reviewCount) {
+        this(id, name, description, new HashSet<>(), price, imageUrl, averageRating, reviewCount, null, null);
+    }
+
     public ProductDTO(Long id, String name, String description, Set<String> categories, Double price, String imageUrl, Double averageRating, Integer reviewCount, Map<Integer, Long> ratingBreakdown, String aiSummary) {
         this.id = id;
         this.name = name;
@@ -133,4 +147,12 @@ public class ProductDTO {
     public void setAiSummary(String aiSummary) {
         this.aiSummary = aiSummary;
     }
+
+    public String getAiSummaryStatus() {
+        return aiSummaryStatus;
+    }
+
+    public void setAiSummaryStatus(String aiSummaryStatus) {
+        this.aiSummaryStatus = aiSummaryStatus;
+    }
 }
@@ -0,0 +1,37 @@
+package com.example.productreview.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Typeahead suggestion for the search box")
+public class ProductSuggestionDTO {
+
+    @Schema(description = "Unique product identifier", example = "1")
+    private Long id;
+
+    @Schema(description = "Product name", example = "iPhone 15 Pro")
+    private String name;
+
+    public ProductSuggestionDTO() {
+    }
+
+    public ProductSuggestionDTO(Long id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
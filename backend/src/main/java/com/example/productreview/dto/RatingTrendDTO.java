@@ -0,0 +1,137 @@
+package com.example.productreview.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Schema(description = "Daily review counts and average ratings over a window of days, oldest first")
+public class RatingTrendDTO {
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Product the trend belongs to; absent for the catalog-wide trend", example = "1")
+    private Long productId;
+
+    @Schema(description = "First day of the window", example = "2026-01-15")
+    private LocalDate from;
+
+    @Schema(description = "Last day of the window (today)", example = "2026-02-13")
+    private LocalDate to;
+
+    @Schema(description = "Reviews created in the window", example = "42")
+    private long reviewCount;
+
+    @Schema(description = "Average rating of the reviews in the window; null when there were none", example = "4.31")
+    private Double averageRating;
+
+    @Schema(description = "One point per day of the window, including days without reviews")
+    private List<Point> points;
+
+    public RatingTrendDTO() {
+    }
+
+    public RatingTrendDTO(Long productId, LocalDate from, LocalDate to, long reviewCount, Double averageRating,
+                          List<Point> points) {
+        this.productId = productId;
+        this.from = from;
+        this.to = to;
+        this.reviewCount = reviewCount;
+        this.averageRating = averageRating;
+        this.points = points;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public LocalDate getFrom() {
+        return from;
+    }
+
+    public void setFrom(LocalDate from) {
+        this.from = from;
+    }
+
+    public LocalDate getTo() {
+        return to;
+    }
+
+    public void setTo(LocalDate to) {
+        this.to = to;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public Double getAverageRating() {
+        return averageRating;
+    }
+
+    public void setAverageRating(Double averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public List<Point> getPoints() {
+        return points;
+    }
+
+    public void setPoints(List<Point> points) {
+        this.points = points;
+    }
+
+    @Schema(description = "Reviews created on one day")
+    public static class Point {
+
+        @Schema(description = "Day", example = "2026-02-13")
+        private LocalDate date;
+
+        @Schema(description = "Reviews created that day", example = "3")
+        private long reviewCount;
+
+        @Schema(description = "Average rating of that day's reviews; null when there were none", example = "4.67")
+        private Double averageRating;
+
+        public Point() {
+        }
+
+        public Point(LocalDate date, long reviewCount, Double averageRating) {
+            this.date = date;
+            this.reviewCount = reviewCount;
+            this.averageRating = averageRating;
+        }
+
+        public LocalDate getDate() {
+            return date;
+        }
+
+        public void setDate(LocalDate date) {
+            this.date = date;
+        }
+
+        public long getReviewCount() {
+            return reviewCount;
+        }
+
+        public void setReviewCount(long reviewCount) {
+            this.reviewCount = reviewCount;
+        }
+
+        public Double getAverageRating() {
+            return averageRating;
+        }
+
+        public void setAverageRating(Double averageRating) {
+            this.averageRating = averageRating;
+        }
+    }
+}
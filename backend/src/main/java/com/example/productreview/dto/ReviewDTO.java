@@ -1,8 +1,10 @@
 package com.example.productreview.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.*;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Schema(description = "Review data for submission and display")
 public class ReviewDTO {
@@ -35,6 +37,16 @@ public class ReviewDTO {
     @Schema(description = "Associated product ID", example = "1", accessMode = Schema.AccessMode.READ_ONLY)
     private Long productId;
 
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Character ranges [start, end) of comment words matching the search query; only set when searching",
+            example = "[[0, 7]]", accessMode = Schema.AccessMode.READ_ONLY)
+    private List<int[]> highlights;
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    @Schema(description = "Earlier review whose comment this one nearly duplicates; only set for flagged reviews",
+            example = "42", accessMode = Schema.AccessMode.READ_ONLY)
+    private Long duplicateOfReviewId;
+
     public ReviewDTO() {
     }
 
@@ -103,4 +115,20 @@ public class ReviewDTO {
     public void setProductId(Long productId) {
         this.productId = productId;
     }
+
+    public List<int[]> getHighlights() {
+        return highlights;
+    }
+
+    public void setHighlights(List<int[]> highlights) {
+        this.highlights = highlights;
+    }
+
+    public Long getDuplicateOfReviewId() {
+        return duplicateOfReviewId;
+    }
+
+    public void setDuplicateOfReviewId(Long duplicateOfReviewId) {
+        this.duplicateOfReviewId = duplicateOfReviewId;
+    }
 }
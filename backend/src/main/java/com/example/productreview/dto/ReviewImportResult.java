@@ -0,0 +1,150 @@
+package com.example.productreview.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "Outcome of a bulk review import")
+public class ReviewImportResult {
+
+    @Schema(description = "Import identifier; send it again with the same file to resume", example = "partner-2026-10")
+    private String importId;
+
+    @Schema(description = "Lines read from the request body, including skipped ones", example = "120000")
+    private long linesRead;
+
+    @Schema(description = "Lines skipped because an earlier attempt of this import already committed them", example = "100000")
+    private long linesSkipped;
+
+    @Schema(description = "Reviews written by this request", example = "19980")
+    private long imported;
+
+    @Schema(description = "Lines rejected by this request", example = "20")
+    private long failed;
+
+    @Schema(description = "Reviews written across every attempt of this import", example = "119950")
+    private long totalImported;
+
+    @Schema(description = "Lines rejected across every attempt of this import", example = "50")
+    private long totalFailed;
+
+    @Schema(description = "Products whose statistics and summary were refreshed", example = "12")
+    private int productsUpdated;
+
+    @Schema(description = "Rejected lines of this request, capped at reviews.import.max-reported-errors")
+    private List<LineError> errors = new ArrayList<>();
+
+    public ReviewImportResult() {
+    }
+
+    public ReviewImportResult(String importId) {
+        this.importId = importId;
+    }
+
+    @Schema(description = "A rejected import line")
+    public static class LineError {
+
+        @Schema(description = "1-based line number in the request body", example = "42")
+        private long line;
+
+        @Schema(description = "Why the line was rejected", example = "Rating must be at most 5")
+        private String message;
+
+        public LineError() {
+        }
+
+        public LineError(long line, String message) {
+            this.line = line;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public void setLine(long line) {
+            this.line = line;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public long getLinesRead() {
+        return linesRead;
+    }
+
+    public void setLinesRead(long linesRead) {
+        this.linesRead = linesRead;
+    }
+
+    public long getLinesSkipped() {
+        return linesSkipped;
+    }
+
+    public void setLinesSkipped(long linesSkipped) {
+        this.linesSkipped = linesSkipped;
+    }
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void setImported(long imported) {
+        this.imported = imported;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public void setFailed(long failed) {
+        this.failed = failed;
+    }
+
+    public long getTotalImported() {
+        return totalImported;
+    }
+
+    public void setTotalImported(long totalImported) {
+        this.totalImported = totalImported;
+    }
+
+    public long getTotalFailed() {
+        return totalFailed;
+    }
+
+    public void setTotalFailed(long totalFailed) {
+        this.totalFailed = totalFailed;
+    }
+
+    public int getProductsUpdated() {
+        return productsUpdated;
+    }
+
+    public void setProductsUpdated(int productsUpdated) {
+        this.productsUpdated = productsUpdated;
+    }
+
+    public List<LineError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<LineError> errors) {
+        this.errors = errors;
+    }
+}
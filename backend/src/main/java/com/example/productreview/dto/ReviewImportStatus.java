@@ -0,0 +1,70 @@
+package com.example.productreview.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "State of a background review import")
+public class ReviewImportStatus {
+
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED;
+
+        public boolean isFinished() {
+            return this == SUCCEEDED || this == FAILED;
+        }
+    }
+
+    @Schema(description = "Import identifier; submit the same file with it again to resume", example = "partner-2026-10")
+    private String importId;
+
+    @Schema(description = "QUEUED, RUNNING, SUCCEEDED or FAILED", example = "RUNNING")
+    private State state;
+
+    @Schema(description = "Outcome once SUCCEEDED")
+    private ReviewImportResult result;
+
+    @Schema(description = "Why the import stopped once FAILED; committed lines are kept and skipped on resume",
+            example = "Connection refused")
+    private String error;
+
+    public ReviewImportStatus() {
+    }
+
+    public ReviewImportStatus(String importId, State state, ReviewImportResult result, String error) {
+        this.importId = importId;
+        this.state = state;
+        this.result = result;
+        this.error = error;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public void setState(State state) {
+        this.state = state;
+    }
+
+    public ReviewImportResult getResult() {
+        return result;
+    }
+
+    public void setResult(ReviewImportResult result) {
+        this.result = result;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
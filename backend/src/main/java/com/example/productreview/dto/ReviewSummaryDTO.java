@@ -0,0 +1,65 @@
+package com.example.productreview.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "AI-generated review summary of a product and whether it is up to date")
+public class ReviewSummaryDTO {
+
+    @Schema(description = "Product ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "READY (current), STALE (older summary, a newer one is being generated), "
+            + "PENDING (being generated) or NONE (no reviews to summarize)", example = "READY")
+    private String status;
+
+    @Schema(description = "Summary text; null while PENDING or when NONE",
+            example = "Users praise the premium design and camera quality...")
+    private String summary;
+
+    @Schema(description = "When the summary was generated", example = "2026-02-13T14:30:00")
+    private LocalDateTime generatedAt;
+
+    public ReviewSummaryDTO() {
+    }
+
+    public ReviewSummaryDTO(Long productId, String status, String summary, LocalDateTime generatedAt) {
+        this.productId = productId;
+        this.status = status;
+        this.summary = summary;
+        this.generatedAt = generatedAt;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public void setProductId(Long productId) {
+        this.productId = productId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public void setSummary(String summary) {
+        this.summary = summary;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    public void setGeneratedAt(LocalDateTime generatedAt) {
+        this.generatedAt = generatedAt;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.productreview.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+@Schema(description = "One page of a listing with its total, without Spring's pageable/sort metadata")
+public class SlicePage<T> {
+
+    @Schema(description = "Items of this page")
+    private List<T> content;
+
+    @Schema(description = "Page index (0-based)", example = "0")
+    private int page;
+
+    @Schema(description = "Requested page size", example = "10")
+    private int size;
+
+    @Schema(description = "Whether another page follows", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Total number of matching items", example = "24")
+    private long totalElements;
+
+    @Schema(description = "Total number of pages", example = "3")
+    private int totalPages;
+
+    public SlicePage() {
+    }
+
+    public SlicePage(Slice<T> slice, long totalElements) {
+        this.content = slice.getContent();
+        this.page = slice.getNumber();
+        this.size = slice.getSize();
+        this.hasNext = slice.hasNext();
+        this.totalElements = totalElements;
+        this.totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+    }
+
+    public static <T> SlicePage<T> of(Page<T> page) {
+        return new SlicePage<>(page, page.getTotalElements());
+    }
+
+    public List<T> getContent() {
+        return content;
+    }
+
+    public void setContent(List<T> content) {
+        this.content = content;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public boolean isHasNext() {
+        return hasNext;
+    }
+
+    public void setHasNext(boolean hasNext) {
+        this.hasNext = hasNext;
+    }
+
+    public long getTotalElements() {
+        return totalElements;
+    }
+
+    public void setTotalElements(long totalElements) {
+        this.totalElements = totalElements;
+    }
+
+    public int getTotalPages() {
+        return totalPages;
+    }
+
+    public void setTotalPages(int totalPages) {
+        this.totalPages = totalPages;
+    }
+}
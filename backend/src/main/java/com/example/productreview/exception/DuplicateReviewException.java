@@ -0,0 +1,8 @@
+package com.example.productreview.exception;
+
+public class DuplicateReviewException extends RuntimeException {
+
+    public DuplicateReviewException(Long duplicateOfReviewId) {
+        super("Review is a near-duplicate of review " + duplicateOfReviewId);
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.productreview.model;
 
+import com.example.productreview.search.ProductIndexingListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -7,11 +8,19 @@ import jakarta.validation.constraints.PositiveOrZero;
 
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+    @Index(name = "idx_product_name_id", columnList = "name, id"),
+    @Index(name = "idx_product_price_id", columnList = "price, id"),
+    @Index(name = "idx_product_rating_id", columnList = "average_rating, id"),
+    @Index(name = "idx_product_review_count_id", columnList = "review_count, id")
+})
+@EntityListeners(ProductIndexingListener.class)
 public class Product {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -39,6 +48,34 @@ public class Product {
     private Double averageRating = 0.0;
     private Integer reviewCount = 0;
 
+    // Per-star review counters and rating sum, maintained by ProductRepository.applyReviewRating
+    @Column(nullable = false)
+    private Integer oneStarCount = 0;
+    @Column(nullable = false)
+    private Integer twoStarCount = 0;
+    @Column(nullable = false)
+    private Integer threeStarCount = 0;
+    @Column(nullable = false)
+    private Integer fourStarCount = 0;
+    @Column(nullable = false)
+    private Integer fiveStarCount = 0;
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    // Reviews mentioning each summary theme, maintained by ProductRepository.applyThemeMentions
+    @Column(nullable = false)
+    private Integer qualityMentions = 0;
+    @Column(nullable = false)
+    private Integer performanceMentions = 0;
+    @Column(nullable = false)
+    private Integer designMentions = 0;
+    @Column(nullable = false)
+    private Integer priceMentions = 0;
+    @Column(nullable = false)
+    private Integer batteryMentions = 0;
+    @Column(nullable = false)
+    private Integer bugMentions = 0;
+
     @OneToMany(mappedBy = "product", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<Review> reviews = new ArrayList<>();
 
@@ -121,6 +158,60 @@ public class Product {
         this.reviewCount = reviewCount;
     }
 
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    /**
+     * Review counts keyed by star rating 1 to 5, read from the counters.
+     */
+    public Map<Integer, Long> getRatingBreakdown() {
+        Map<Integer, Long> breakdown = new LinkedHashMap<>();
+        breakdown.put(1, (long) oneStarCount);
+        breakdown.put(2, (long) twoStarCount);
+        breakdown.put(3, (long) threeStarCount);
+        breakdown.put(4, (long) fourStarCount);
+        breakdown.put(5, (long) fiveStarCount);
+        return breakdown;
+    }
+
+    /**
+     * In-memory counterpart of {@code applyReviewRating}, for callers that already hold the entity.
+     */
+    public void recordRating(int rating) {
+        switch (rating) {
+            case 1 -> oneStarCount++;
+            case 2 -> twoStarCount++;
+            case 3 -> threeStarCount++;
+            case 4 -> fourStarCount++;
+            case 5 -> fiveStarCount++;
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5: " + rating);
+        }
+        ratingSum += rating;
+        reviewCount = (reviewCount != null ? reviewCount : 0) + 1;
+        averageRating = Math.round(ratingSum * 10.0 / reviewCount) / 10.0;
+    }
+
+    /**
+     * Theme mention counters in {@code ReviewProfile.Theme} order.
+     */
+    public int[] getThemeMentions() {
+        return new int[]{qualityMentions, performanceMentions, designMentions, priceMentions, batteryMentions,
+                bugMentions};
+    }
+
+    /**
+     * In-memory counterpart of {@code applyThemeMentions}, for callers that already hold the entity.
+     */
+    public void recordThemeMentions(int[] mentions) {
+        qualityMentions += mentions[0];
+        performanceMentions += mentions[1];
+        designMentions += mentions[2];
+        priceMentions += mentions[3];
+        batteryMentions += mentions[4];
+        bugMentions += mentions[5];
+    }
+
     public List<Review> getReviews() {
         return reviews;
     }
@@ -0,0 +1,81 @@
+package com.example.productreview.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last generated AI review summary of a product, with the review count watermark it was generated from, so
+ * summaries survive restarts and are only regenerated once enough new reviews have arrived.
+ */
+@Entity
+@Table(name = "product_summaries")
+public class ProductSummary {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Column(length = 4000)
+    private String summary;
+
+    @Column(nullable = false)
+    private Integer reviewCount = 0;
+
+    @Column(nullable = false)
+    private LocalDateTime generatedAt = LocalDateTime.now();
+
+    // Star counts the summary text was generated from; unlike the watermark, these only move on regeneration
+    @Column(nullable = false)
+    private Integer oneStarCount = 0;
+    @Column(nullable = false)
+    private Integer twoStarCount = 0;
+    @Column(nullable = false)
+    private Integer threeStarCount = 0;
+    @Column(nullable = false)
+    private Integer fourStarCount = 0;
+    @Column(nullable = false)
+    private Integer fiveStarCount = 0;
+
+    public ProductSummary() {
+    }
+
+    public ProductSummary(Long productId, String summary, int reviewCount, LocalDateTime generatedAt,
+                          int[] starCounts) {
+        this.productId = productId;
+        this.summary = summary;
+        this.reviewCount = reviewCount;
+        this.generatedAt = generatedAt;
+        this.oneStarCount = starCounts[0];
+        this.twoStarCount = starCounts[1];
+        this.threeStarCount = starCounts[2];
+        this.fourStarCount = starCounts[3];
+        this.fiveStarCount = starCounts[4];
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public String getSummary() {
+        return summary;
+    }
+
+    public Integer getReviewCount() {
+        return reviewCount;
+    }
+
+    public LocalDateTime getGeneratedAt() {
+        return generatedAt;
+    }
+
+    /**
+     * Review counts for star ratings 1 to 5 when the summary was generated.
+     */
+    public int[] getStarCounts() {
+        return new int[]{oneStarCount, twoStarCount, threeStarCount, fourStarCount, fiveStarCount};
+    }
+}
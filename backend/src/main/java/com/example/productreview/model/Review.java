@@ -1,15 +1,25 @@
 package com.example.productreview.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 
 @Entity
 @Table(name = "reviews", indexes = {
     @Index(name = "idx_review_product", columnList = "product_id"),
     @Index(name = "idx_review_rating", columnList = "rating"),
-    @Index(name = "idx_review_product_rating", columnList = "product_id, rating")
+    @Index(name = "idx_review_product_rating", columnList = "product_id, rating"),
+    @Index(name = "idx_review_product_created_id", columnList = "product_id, created_at, id"),
+    @Index(name = "idx_review_product_helpful_id", columnList = "product_id, helpful_count, id"),
+    @Index(name = "idx_review_product_rating_created_id", columnList = "product_id, rating, created_at, id"),
+    @Index(name = "idx_review_product_helpfulness_id", columnList = "product_id, helpfulness_score DESC, id DESC")
 })
 public class Review {
+
+    public static final long HELPFULNESS_DECADE_SECONDS = 90L * 24 * 60 * 60;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -17,7 +27,19 @@ public class Review {
     private String reviewerName;
     private String comment;
     private Integer rating;
+    // Only changed by HelpfulVoteCounter's delta updates, so saving a stale entity cannot overwrite votes
+    @Column(updatable = false)
     private Integer helpfulCount = 0;
+    // See helpfulnessScore(int, LocalDateTime); set on insert, then shifted with helpfulCount by HelpfulVoteCounter
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("0")
+    private Double helpfulnessScore = 0.0;
+    // MinHash signature of the comment, see ReviewDuplicateIndex; empty when the comment is too short to sign
+    @Column(updatable = false, length = 256)
+    private byte[] minhashSignature;
+    // Earlier review this one nearly duplicates, set on insert or by the duplicate index catch-up
+    @Column(updatable = false)
+    private Long duplicateOfReviewId;
     private LocalDateTime createdAt;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -43,6 +65,19 @@ public class Review {
         if (helpfulCount == null) {
             helpfulCount = 0;
         }
+        helpfulnessScore = helpfulnessScore(helpfulCount, createdAt);
+    }
+
+    /**
+     * "Most helpful" ranking score: {@code log10(1 + helpful votes)} plus the creation time in units of
+     * {@link #HELPFULNESS_DECADE_SECONDS}. A review needs ten times the votes (plus one) of a review written
+     * 90 days later to stay above it, so old reviews with a few votes sink as newer ones are voted up, and
+     * unvoted reviews rank newest first. The time term is fixed at creation, so the ordering decays without
+     * ever rewriting scores; votes only move the log term.
+     */
+    public static double helpfulnessScore(int helpfulCount, LocalDateTime createdAt) {
+        long createdSeconds = createdAt != null ? createdAt.toEpochSecond(ZoneOffset.UTC) : 0;
+        return Math.log10(1 + Math.max(helpfulCount, 0)) + (double) createdSeconds / HELPFULNESS_DECADE_SECONDS;
     }
 
     public Long getId() {
@@ -85,6 +120,30 @@ public class Review {
         this.helpfulCount = helpfulCount;
     }
 
+    public Double getHelpfulnessScore() {
+        return helpfulnessScore;
+    }
+
+    public void setHelpfulnessScore(Double helpfulnessScore) {
+        this.helpfulnessScore = helpfulnessScore;
+    }
+
+    public byte[] getMinhashSignature() {
+        return minhashSignature;
+    }
+
+    public void setMinhashSignature(byte[] minhashSignature) {
+        this.minhashSignature = minhashSignature;
+    }
+
+    public Long getDuplicateOfReviewId() {
+        return duplicateOfReviewId;
+    }
+
+    public void setDuplicateOfReviewId(Long duplicateOfReviewId) {
+        this.duplicateOfReviewId = duplicateOfReviewId;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
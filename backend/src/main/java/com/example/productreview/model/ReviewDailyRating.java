@@ -0,0 +1,94 @@
+package com.example.productreview.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Number and rating sum of one product's reviews created on one day. Review writers add to it in the same
+ * transaction as the review, so rating trends read one row per day instead of every review.
+ */
+@Entity
+@IdClass(ReviewDailyRating.Key.class)
+@Table(name = "review_daily_ratings", indexes = {
+    @Index(name = "idx_review_daily_ratings_date", columnList = "review_date")
+})
+public class ReviewDailyRating {
+
+    @Id
+    @Column(name = "product_id")
+    private Long productId;
+
+    @Id
+    @Column(name = "review_date")
+    private LocalDate reviewDate;
+
+    @Column(nullable = false)
+    private Long reviewCount = 0L;
+
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    public ReviewDailyRating() {
+    }
+
+    public ReviewDailyRating(Long productId, LocalDate reviewDate, long reviewCount, long ratingSum) {
+        this.productId = productId;
+        this.reviewDate = reviewDate;
+        this.reviewCount = reviewCount;
+        this.ratingSum = ratingSum;
+    }
+
+    public Long getProductId() {
+        return productId;
+    }
+
+    public LocalDate getReviewDate() {
+        return reviewDate;
+    }
+
+    public Long getReviewCount() {
+        return reviewCount;
+    }
+
+    public Long getRatingSum() {
+        return ratingSum;
+    }
+
+    public static class Key implements Serializable {
+
+        private Long productId;
+        private LocalDate reviewDate;
+
+        public Key() {
+        }
+
+        public Key(Long productId, LocalDate reviewDate) {
+            this.productId = productId;
+            this.reviewDate = reviewDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key other)) {
+                return false;
+            }
+            return Objects.equals(productId, other.productId) && Objects.equals(reviewDate, other.reviewDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(productId, reviewDate);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.productreview.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of a bulk review import, committed together with each batch so a re-sent import resumes
+ * right after the last line that made it into the database.
+ */
+@Entity
+@Table(name = "review_import_checkpoints")
+public class ReviewImportCheckpoint {
+
+    @Id
+    @Column(name = "import_id", length = 64)
+    private String importId;
+
+    @Column(nullable = false)
+    private Long committedLine = 0L;
+
+    @Column(nullable = false)
+    private Long importedCount = 0L;
+
+    @Column(nullable = false)
+    private Long failedCount = 0L;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    public ReviewImportCheckpoint() {
+    }
+
+    public ReviewImportCheckpoint(String importId, long committedLine, long importedCount, long failedCount) {
+        this.importId = importId;
+        this.committedLine = committedLine;
+        this.importedCount = importedCount;
+        this.failedCount = failedCount;
+    }
+
+    public String getImportId() {
+        return importId;
+    }
+
+    public void setImportId(String importId) {
+        this.importId = importId;
+    }
+
+    public Long getCommittedLine() {
+        return committedLine;
+    }
+
+    public void setCommittedLine(Long committedLine) {
+        this.committedLine = committedLine;
+    }
+
+    public Long getImportedCount() {
+        return importedCount;
+    }
+
+    public void setImportedCount(Long importedCount) {
+        this.importedCount = importedCount;
+    }
+
+    public Long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(Long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.productreview.repository;
+
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+/**
+ * Keyset ("seek") predicates and orderings shared by the cursor-paginated listings.
+ * Rows are ordered by the sort field and then by id, so {@code (key, id)} uniquely positions a page
+ * and each page is a range scan on a {@code (key, id)} index instead of an OFFSET.
+ */
+public final class KeysetSpecifications {
+
+    private KeysetSpecifications() {
+    }
+
+    public static Sort keysetSort(String field, Sort.Direction direction) {
+        Sort.Order order = new Sort.Order(direction, field);
+        if (field.equals("name")) {
+            order = order.ignoreCase();
+        }
+        return Sort.by(order, new Sort.Order(direction, "id"));
+    }
+
+    /**
+     * Matches rows strictly after the row with the given sort key and id in the keyset order.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T> Specification<T> after(String field, Sort.Direction direction, Comparable<?> lastValue, long lastId) {
+        return (root, query, cb) -> {
+            boolean ascending = direction.isAscending();
+            Path<Long> id = root.get("id");
+
+            Expression key = root.get(field);
+            Expression value = cb.literal(lastValue);
+            if (field.equals("name")) {
+                key = cb.lower(key);
+                value = cb.lower(value);
+            }
+
+            Predicate beyondKey = ascending ? cb.greaterThan(key, value) : cb.lessThan(key, value);
+            Predicate beyondId = ascending ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+            return cb.or(beyondKey, cb.and(cb.equal(key, value), beyondId));
+        };
+    }
+}
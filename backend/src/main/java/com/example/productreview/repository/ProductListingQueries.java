@@ -0,0 +1,18 @@
+package com.example.productreview.repository;
+
+import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.model.Product;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Listing reads whose filter and order are only known at runtime, such as keyset pages. Like the
+ * {@link ProductRepository#LISTING_PROJECTION} queries they build {@link ProductDTO}s straight from the row;
+ * categories are attached separately.
+ */
+public interface ProductListingQueries {
+
+    List<ProductDTO> findListing(Specification<Product> spec, Sort sort, int limit);
+}
@@ -0,0 +1,37 @@
+package com.example.productreview.repository;
+
+import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.List;
+
+class ProductListingQueriesImpl implements ProductListingQueries {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ProductDTO> findListing(Specification<Product> spec, Sort sort, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductDTO> query = cb.createQuery(ProductDTO.class);
+        Root<Product> root = query.from(Product.class);
+        query.select(cb.construct(ProductDTO.class, root.get("id"), root.get("name"), root.get("description"),
+                root.get("price"), root.get("imageUrl"), root.get("averageRating"), root.get("reviewCount")));
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+}
@@ -1,29 +1,63 @@
 package com.example.productreview.repository;
 
+import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.dto.ProductSuggestionDTO;
 import com.example.productreview.model.Product;
-import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product>,
+        ProductListingQueries {
     
-    @Query("SELECT p FROM Product p WHERE :category MEMBER OF p.categories")
-    Page<Product> findByCategory(@Param("category") String category, Pageable pageable);
-    
-    @Query("SELECT p FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    Page<Product> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
-    
-    @Query("SELECT p FROM Product p WHERE :category MEMBER OF p.categories AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    Page<Product> findByCategoryAndNameContainingIgnoreCase(@Param("category") String category, @Param("name") String name, Pageable pageable);
+    // Listing reads build ProductDTO straight from the row; categories are attached by one batched query
+    String LISTING_PROJECTION = "SELECT new com.example.productreview.dto.ProductDTO("
+            + "p.id, p.name, p.description, p.price, p.imageUrl, p.averageRating, p.reviewCount) FROM Product p";
+
+    @Query(LISTING_PROJECTION)
+    Slice<ProductDTO> findListingBy(Pageable pageable);
+
+    @Query(LISTING_PROJECTION + " WHERE :category MEMBER OF p.categories")
+    Slice<ProductDTO> findListingByCategory(@Param("category") String category, Pageable pageable);
+
+    @Query(LISTING_PROJECTION + " WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Slice<ProductDTO> findListingByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+
+    @Query(LISTING_PROJECTION + " WHERE :category MEMBER OF p.categories AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Slice<ProductDTO> findListingByCategoryAndNameContainingIgnoreCase(@Param("category") String category, @Param("name") String name, Pageable pageable);
+
+    @Query(LISTING_PROJECTION + " WHERE p.id > :afterId ORDER BY p.id")
+    List<ProductDTO> findListingAfterId(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query(LISTING_PROJECTION + " WHERE p.id IN :ids")
+    List<ProductDTO> findListingByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.example.productreview.dto.ProductSuggestionDTO(p.id, p.name) FROM Product p "
+            + "WHERE LOWER(p.name) LIKE LOWER(CONCAT(:prefix, '%')) ORDER BY p.reviewCount DESC, p.name")
+    List<ProductSuggestionDTO> findSuggestions(@Param("prefix") String prefix, Pageable pageable);
+
+    @Query("SELECT p.id, c FROM Product p JOIN p.categories c WHERE p.id IN :ids")
+    List<Object[]> findCategoriesByProductIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE :category MEMBER OF p.categories")
+    long countInCategory(@Param("category") String category);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE :category MEMBER OF p.categories AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    long countInCategoryMatchingName(@Param("category") String category, @Param("name") String name);
+
+    @Query("SELECT p.reviewCount FROM Product p WHERE p.id = :id")
+    Optional<Integer> findReviewCountById(@Param("id") Long id);
 
     @Query("SELECT SUM(p.reviewCount), AVG(p.averageRating), COUNT(p) FROM Product p")
     List<Object[]> getGlobalStats();
@@ -37,9 +71,64 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT SUM(p.reviewCount), AVG(p.averageRating), COUNT(p) FROM Product p WHERE :category MEMBER OF p.categories AND LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Object[]> getCategoryAndSearchStats(@Param("category") String category, @Param("name") String name);
 
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT p FROM Product p WHERE p.id = :id")
-    Optional<Product> findByIdForUpdate(@Param("id") Long id);
+    @Query("SELECT COUNT(p), SUM(p.reviewCount), SUM(p.averageRating) FROM Product p")
+    List<Object[]> sumCatalogTotals();
+
+    @Query("SELECT c, COUNT(p), SUM(p.reviewCount), SUM(p.averageRating) FROM Product p JOIN p.categories c GROUP BY c")
+    List<Object[]> sumCatalogTotalsByCategory();
+
+    @Query("SELECT c, COUNT(p) FROM Product p JOIN p.categories c GROUP BY c")
+    List<Object[]> countByCategory();
+
+    @Query("SELECT c, COUNT(p) FROM Product p JOIN p.categories c WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%')) GROUP BY c")
+    List<Object[]> countByCategoryMatchingName(@Param("name") String name);
+
+    @Query("SELECT COUNT(p) FROM Product p WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    long countByNameContainingIgnoreCase(@Param("name") String name);
+
+    /**
+     * Adds one review of the given rating to the product's counters in a single atomic statement, without
+     * reading or locking the row first. Returns the rows updated.
+     */
+    default int applyReviewRating(Long id, int rating) {
+        return applyReviewRatings(id, 1, rating, rating == 1 ? 1 : 0, rating == 2 ? 1 : 0,
+                rating == 3 ? 1 : 0, rating == 4 ? 1 : 0, rating == 5 ? 1 : 0);
+    }
+
+    /**
+     * Adds a batch of reviews, given as per-star counts, to the product's counters. Right-hand sides see
+     * the pre-update values.
+     */
+    @Modifying
+    @Query("UPDATE Product p SET p.reviewCount = p.reviewCount + :count, p.ratingSum = p.ratingSum + :ratingSum, "
+            + "p.oneStarCount = p.oneStarCount + :one, p.twoStarCount = p.twoStarCount + :two, "
+            + "p.threeStarCount = p.threeStarCount + :three, p.fourStarCount = p.fourStarCount + :four, "
+            + "p.fiveStarCount = p.fiveStarCount + :five, "
+            + "p.averageRating = ROUND((p.ratingSum + :ratingSum) * 1.0 / (p.reviewCount + :count), 1) "
+            + "WHERE p.id = :id")
+    int applyReviewRatings(@Param("id") Long id, @Param("count") int count, @Param("ratingSum") long ratingSum,
+                           @Param("one") int one, @Param("two") int two, @Param("three") int three,
+                           @Param("four") int four, @Param("five") int five);
+
+    /**
+     * Adds theme mentions, given in {@code ReviewProfile.Theme} order, to the product's counters.
+     */
+    default int applyThemeMentions(Long id, int[] mentions) {
+        return applyThemeMentions(id, mentions[0], mentions[1], mentions[2], mentions[3], mentions[4], mentions[5]);
+    }
+
+    @Modifying
+    @Query("UPDATE Product p SET p.qualityMentions = p.qualityMentions + :quality, "
+            + "p.performanceMentions = p.performanceMentions + :performance, "
+            + "p.designMentions = p.designMentions + :design, p.priceMentions = p.priceMentions + :price, "
+            + "p.batteryMentions = p.batteryMentions + :battery, p.bugMentions = p.bugMentions + :bugs "
+            + "WHERE p.id = :id")
+    int applyThemeMentions(@Param("id") Long id, @Param("quality") int quality, @Param("performance") int performance,
+                           @Param("design") int design, @Param("price") int price, @Param("battery") int battery,
+                           @Param("bugs") int bugs);
+
+    @Query("SELECT p.reviewCount, p.averageRating FROM Product p WHERE p.id = :id")
+    List<Object[]> findReviewStatsById(@Param("id") Long id);
 
     // ✨ New method for paged find by IDs
     Page<Product> findByIdIn(List<Long> ids, Pageable pageable);
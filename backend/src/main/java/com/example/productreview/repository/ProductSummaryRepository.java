@@ -0,0 +1,7 @@
+package com.example.productreview.repository;
+
+import com.example.productreview.model.ProductSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProductSummaryRepository extends JpaRepository<ProductSummary, Long> {
+}
@@ -0,0 +1,30 @@
+package com.example.productreview.repository;
+
+import com.example.productreview.model.ReviewDailyRating;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ReviewDailyRatingRepository extends JpaRepository<ReviewDailyRating, ReviewDailyRating.Key> {
+
+    List<ReviewDailyRating> findByProductIdAndReviewDateBetweenOrderByReviewDate(Long productId, LocalDate from,
+                                                                                 LocalDate to);
+
+    @Query("SELECT d.reviewDate, SUM(d.reviewCount), SUM(d.ratingSum) FROM ReviewDailyRating d "
+            + "WHERE d.reviewDate BETWEEN :from AND :to GROUP BY d.reviewDate")
+    List<Object[]> sumByDay(@Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    @Modifying
+    @Query(value = "DELETE FROM review_daily_ratings", nativeQuery = true)
+    int deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO review_daily_ratings (product_id, review_date, review_count, rating_sum) "
+            + "SELECT product_id, CAST(created_at AS DATE), COUNT(*), SUM(rating) FROM reviews "
+            + "WHERE created_at IS NOT NULL GROUP BY product_id, CAST(created_at AS DATE)", nativeQuery = true)
+    int insertFromReviews();
+}
@@ -0,0 +1,7 @@
+package com.example.productreview.repository;
+
+import com.example.productreview.model.ReviewImportCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ReviewImportCheckpointRepository extends JpaRepository<ReviewImportCheckpoint, String> {
+}
@@ -4,17 +4,18 @@ import com.example.productreview.model.Review;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Long> {
+public interface ReviewRepository extends JpaRepository<Review, Long>, JpaSpecificationExecutor<Review> {
 
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT r FROM Review r WHERE r.id = :id")
@@ -26,9 +27,6 @@ public interface ReviewRepository extends JpaRepository<Review, Long> {
     @Query("SELECT r FROM Review r WHERE r.product.id = :productId AND (:rating IS NULL OR r.rating = :rating)")
     Page<Review> findByProductIdAndRating(@Param("productId") Long productId, @Param("rating") Integer rating, Pageable pageable);
 
-    @Query("SELECT r.rating, COUNT(r) FROM Review r WHERE r.product.id = :productId GROUP BY r.rating")
-    List<Object[]> findRatingCountsByProductId(@Param("productId") Long productId);
-
-    @Query("SELECT COUNT(r), AVG(r.rating) FROM Review r WHERE r.product.id = :productId")
-    List<Object[]> getReviewStats(@Param("productId") Long productId);
+    @Query("SELECT r FROM Review r WHERE r.product.id = :productId AND (:rating IS NULL OR r.rating = :rating)")
+    Slice<Review> findSliceByProductIdAndRating(@Param("productId") Long productId, @Param("rating") Integer rating, Pageable pageable);
 }
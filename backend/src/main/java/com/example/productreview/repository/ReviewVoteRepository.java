@@ -2,8 +2,10 @@ package com.example.productreview.repository;
 
 import com.example.productreview.model.ReviewVote;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
 import java.util.List;
 
@@ -13,4 +15,20 @@ public interface ReviewVoteRepository extends JpaRepository<ReviewVote, Long> {
 
     @Query("SELECT v.review.id FROM ReviewVote v WHERE v.userId = :userId")
     List<Long> findReviewIdsByUserId(@Param("userId") String userId);
+
+    @Query("SELECT v.review.id FROM ReviewVote v WHERE v.userId = :userId AND v.review.product.id = :productId")
+    List<Long> findReviewIdsByUserIdAndProductId(@Param("userId") String userId, @Param("productId") Long productId);
+
+    /**
+     * Records a vote in its own transaction; a second vote by the same user fails on the unique constraint.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO review_votes (user_id, review_id) VALUES (:userId, :reviewId)", nativeQuery = true)
+    int insertVote(@Param("userId") String userId, @Param("reviewId") Long reviewId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ReviewVote v WHERE v.userId = :userId AND v.review.id = :reviewId")
+    int deleteVote(@Param("userId") String userId, @Param("reviewId") Long reviewId);
 }
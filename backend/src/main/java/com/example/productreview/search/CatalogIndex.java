@@ -0,0 +1,30 @@
+package com.example.productreview.search;
+
+import java.util.Collection;
+
+/**
+ * An in-memory structure derived from the product catalog.
+ * {@link ProductCatalog} rebuilds every registered index at startup and forwards committed product writes.
+ */
+public interface CatalogIndex {
+
+    /**
+     * {@code @Order} of indexes holding catalog data; they see each write first.
+     */
+    int DATA_ORDER = 0;
+
+    /**
+     * {@code @Order} of caches derived from the data indexes, invalidated only once those reflect the write.
+     */
+    int CACHE_ORDER = 100;
+
+    void rebuild(Collection<ProductDocument> documents);
+
+    /**
+     * @param previous the document before the write, or {@code null} for a newly created product
+     * @param current  the committed document
+     */
+    void upsert(ProductDocument previous, ProductDocument current);
+
+    void remove(ProductDocument previous);
+}
@@ -0,0 +1,161 @@
+package com.example.productreview.search;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Running product/review/rating totals, globally and per category, so unfiltered and category
+ * stats are lookups instead of aggregate scans. Fed by committed catalog writes, which include the
+ * product stats updated by {@code addReview}, and reconciled against the database by
+ * {@link CatalogStatisticsReconciler}.
+ */
+@Component
+@Order(CatalogIndex.DATA_ORDER)
+public class CatalogStatistics implements CatalogIndex {
+
+    public record Totals(long products, long reviews, double ratingSum) {
+
+        public static final Totals EMPTY = new Totals(0, 0, 0.0);
+
+        public double averageRating() {
+            return products > 0 ? ratingSum / products : 0.0;
+        }
+
+        Totals plus(ProductDocument document) {
+            return new Totals(products + 1, reviews + document.reviewCount(), ratingSum + document.averageRating());
+        }
+
+        Totals minus(ProductDocument document) {
+            return new Totals(products - 1, reviews - document.reviewCount(), ratingSum - document.averageRating());
+        }
+    }
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Totals> byCategory = new HashMap<>();
+    private Totals global = Totals.EMPTY;
+    private long version;
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            byCategory.clear();
+            global = Totals.EMPTY;
+            documents.forEach(this::add);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDocument previous, ProductDocument current) {
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                subtract(previous);
+            }
+            add(current);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ProductDocument previous) {
+        lock.writeLock().lock();
+        try {
+            subtract(previous);
+            version++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Totals global() {
+        lock.readLock().lock();
+        try {
+            return global;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Totals category(String category) {
+        lock.readLock().lock();
+        try {
+            return byCategory.getOrDefault(category, Totals.EMPTY);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Counter bumped by every write; lets a reconciliation detect writes that raced with its database read.
+     */
+    public long version() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the running totals with freshly aggregated ones, unless a write was applied since
+     * {@code expectedVersion} was read.
+     *
+     * @return whether the totals were replaced
+     */
+    public boolean replaceIfUnchanged(long expectedVersion, Totals newGlobal, Map<String, Totals> newByCategory) {
+        lock.writeLock().lock();
+        try {
+            if (version != expectedVersion) {
+                return false;
+            }
+            global = newGlobal;
+            byCategory.clear();
+            byCategory.putAll(newByCategory);
+            version++;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    Map<String, Totals> categories() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(byCategory);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductDocument document) {
+        global = global.plus(document);
+        for (String category : document.categories()) {
+            byCategory.merge(category, Totals.EMPTY.plus(document), (a, b) -> a.plus(document));
+        }
+    }
+
+    private void subtract(ProductDocument document) {
+        global = global.minus(document);
+        for (String category : document.categories()) {
+            Totals remaining = byCategory.getOrDefault(category, Totals.EMPTY).minus(document);
+            if (remaining.products() <= 0) {
+                byCategory.remove(category);
+            } else {
+                byCategory.put(category, remaining);
+            }
+        }
+    }
+}
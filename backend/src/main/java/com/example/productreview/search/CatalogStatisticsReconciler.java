@@ -0,0 +1,82 @@
+package com.example.productreview.search;
+
+import com.example.productreview.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Periodically re-aggregates the catalog totals from the database and replaces the running
+ * {@link CatalogStatistics} when they drifted, e.g. after writes that bypassed the entity listener.
+ */
+@Component
+public class CatalogStatisticsReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogStatisticsReconciler.class);
+    private static final double RATING_TOLERANCE = 1e-6;
+
+    private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final CatalogStatistics statistics;
+
+    public CatalogStatisticsReconciler(ProductRepository productRepository,
+                                       ProductCatalog productCatalog,
+                                       CatalogStatistics statistics) {
+        this.productRepository = productRepository;
+        this.productCatalog = productCatalog;
+        this.statistics = statistics;
+    }
+
+    @Scheduled(initialDelayString = "${catalog.stats.reconcile-interval-ms:300000}",
+            fixedDelayString = "${catalog.stats.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        if (!productCatalog.isReady()) {
+            return;
+        }
+        long version = statistics.version();
+
+        CatalogStatistics.Totals global = productRepository.sumCatalogTotals().stream()
+                .findFirst()
+                .map(CatalogStatisticsReconciler::toTotals)
+                .orElse(CatalogStatistics.Totals.EMPTY);
+        Map<String, CatalogStatistics.Totals> byCategory = new HashMap<>();
+        for (Object[] row : productRepository.sumCatalogTotalsByCategory()) {
+            byCategory.put((String) row[0], toTotals(new Object[]{row[1], row[2], row[3]}));
+        }
+
+        if (matches(statistics.global(), global) && matches(statistics.categories(), byCategory)) {
+            return;
+        }
+        if (statistics.replaceIfUnchanged(version, global, byCategory)) {
+            log.warn("Catalog statistics drifted from the database and were reconciled: {}", global);
+        } else {
+            log.debug("Catalog statistics changed during reconciliation; retrying on the next run");
+        }
+    }
+
+    private static CatalogStatistics.Totals toTotals(Object[] row) {
+        return new CatalogStatistics.Totals(
+                row[0] != null ? ((Number) row[0]).longValue() : 0L,
+                row[1] != null ? ((Number) row[1]).longValue() : 0L,
+                row[2] != null ? ((Number) row[2]).doubleValue() : 0.0);
+    }
+
+    private static boolean matches(Map<String, CatalogStatistics.Totals> running,
+                                   Map<String, CatalogStatistics.Totals> actual) {
+        if (!running.keySet().equals(actual.keySet())) {
+            return false;
+        }
+        return actual.entrySet().stream().allMatch(e -> matches(running.get(e.getKey()), e.getValue()));
+    }
+
+    private static boolean matches(CatalogStatistics.Totals running, CatalogStatistics.Totals actual) {
+        return running.products() == actual.products()
+                && running.reviews() == actual.reviews()
+                && Math.abs(running.ratingSum() - actual.ratingSum()) < RATING_TOLERANCE;
+    }
+}
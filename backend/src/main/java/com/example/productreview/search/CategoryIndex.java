@@ -0,0 +1,164 @@
+package com.example.productreview.search;
+
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Category to compressed bitmap of product ids, built from the product categories collection.
+ * Lets category filters, stats and facet counts run as bitmap intersections instead of
+ * joins against {@code product_categories}.
+ */
+@Component
+@Order(CatalogIndex.DATA_ORDER)
+public class CategoryIndex implements CatalogIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, RoaringBitmap> bitmaps = new HashMap<>();
+    private final RoaringBitmap allProducts = new RoaringBitmap();
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            bitmaps.clear();
+            allProducts.clear();
+            for (ProductDocument document : documents) {
+                add(document);
+            }
+            bitmaps.values().forEach(RoaringBitmap::runOptimize);
+            allProducts.runOptimize();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDocument previous, ProductDocument current) {
+        if (previous != null && previous.categories().equals(current.categories())) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (previous != null) {
+                delete(previous);
+            }
+            add(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ProductDocument previous) {
+        lock.writeLock().lock();
+        try {
+            delete(previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean contains(String category, long productId) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = bitmaps.get(category);
+            return bitmap != null && bitmap.contains(toInt(productId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the product ids in the category, safe to use after the lock is released.
+     */
+    public RoaringBitmap members(String category) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = bitmaps.get(category);
+            return bitmap != null ? bitmap.clone() : new RoaringBitmap();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RoaringBitmap allProducts() {
+        lock.readLock().lock();
+        try {
+            return allProducts.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int count(String category) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap bitmap = bitmaps.get(category);
+            return bitmap != null ? bitmap.getCardinality() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Per-category number of products among the candidates, sorted by category name.
+     * Categories without any candidate are omitted.
+     */
+    public Map<String, Long> facetCounts(RoaringBitmap candidates) {
+        lock.readLock().lock();
+        try {
+            Map<String, Long> counts = new TreeMap<>();
+            for (Map.Entry<String, RoaringBitmap> entry : bitmaps.entrySet()) {
+                long count = RoaringBitmap.andCardinality(entry.getValue(), candidates);
+                if (count > 0) {
+                    counts.put(entry.getKey(), count);
+                }
+            }
+            return counts;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void add(ProductDocument document) {
+        int id = toInt(document.id());
+        allProducts.add(id);
+        for (String category : document.categories()) {
+            bitmaps.computeIfAbsent(category, k -> new RoaringBitmap()).add(id);
+        }
+    }
+
+    private void delete(ProductDocument document) {
+        int id = toInt(document.id());
+        allProducts.remove(id);
+        for (String category : document.categories()) {
+            RoaringBitmap bitmap = bitmaps.get(category);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(category);
+                }
+            }
+        }
+    }
+
+    public static int toInt(long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    public static RoaringBitmap toBitmap(long[] productIds) {
+        RoaringBitmap bitmap = new RoaringBitmap();
+        for (long id : productIds) {
+            bitmap.add(toInt(id));
+        }
+        return bitmap;
+    }
+}
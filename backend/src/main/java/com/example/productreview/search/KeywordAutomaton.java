@@ -0,0 +1,149 @@
+package com.example.productreview.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Case-insensitive substring matching of many keywords in one scan of the text (Aho-Corasick).
+ * <p>
+ * Keywords are grouped, and {@link #match} returns a bitmask with bit {@code i} set when the text contains a
+ * keyword of group {@code i}, the same answer as {@code text.toLowerCase().contains(keyword)} for each keyword
+ * but without the lower-cased copy or one pass per keyword. The automaton is a dense transition table over
+ * the keywords' characters; any other character sends the scan back to the start.
+ */
+public final class KeywordAutomaton {
+
+    public static final int MAX_GROUPS = Long.SIZE;
+
+    private static final int ASCII = 128;
+
+    // Alphabet index of each ASCII character, either case, -1 for characters no keyword contains
+    private final int[] alphabet = new int[ASCII];
+    // Both indexed by row, the state's offset in the table, so the scan needs no multiplication
+    private final int[] transitions;
+    private final long[] outputs;
+
+    /**
+     * @param groups keywords of each group; keywords must be lower-case ASCII
+     */
+    public KeywordAutomaton(String[]... groups) {
+        if (groups.length > MAX_GROUPS) {
+            throw new IllegalArgumentException("At most " + MAX_GROUPS + " keyword groups are supported");
+        }
+        Arrays.fill(alphabet, -1);
+        int size = 0;
+        for (String[] group : groups) {
+            for (String keyword : group) {
+                if (keyword.isEmpty()) {
+                    throw new IllegalArgumentException("Keywords must not be empty");
+                }
+                for (int i = 0; i < keyword.length(); i++) {
+                    char c = keyword.charAt(i);
+                    if (c >= ASCII || Character.toLowerCase(c) != c) {
+                        throw new IllegalArgumentException("Keywords must be lower-case ASCII: " + keyword);
+                    }
+                    if (alphabet[c] < 0) {
+                        alphabet[c] = size++;
+                        alphabet[Character.toUpperCase(c)] = alphabet[c];
+                    }
+                }
+            }
+        }
+
+        // Trie of the keywords, -1 marking missing edges
+        List<int[]> edges = new ArrayList<>();
+        List<Long> matches = new ArrayList<>();
+        edges.add(newState(size));
+        matches.add(0L);
+        for (int group = 0; group < groups.length; group++) {
+            for (String keyword : groups[group]) {
+                int state = 0;
+                for (int i = 0; i < keyword.length(); i++) {
+                    int symbol = alphabet[keyword.charAt(i)];
+                    if (edges.get(state)[symbol] < 0) {
+                        edges.get(state)[symbol] = edges.size();
+                        edges.add(newState(size));
+                        matches.add(0L);
+                    }
+                    state = edges.get(state)[symbol];
+                }
+                matches.set(state, matches.get(state) | (1L << group));
+            }
+        }
+
+        // Breadth-first, fill missing edges from the failure state and inherit its matches
+        int states = edges.size();
+        int[] next = new int[states * size];
+        long[] found = new long[states];
+        int[] failure = new int[states];
+        Queue<Integer> queue = new ArrayDeque<>();
+        for (int symbol = 0; symbol < size; symbol++) {
+            int child = edges.get(0)[symbol];
+            if (child < 0) {
+                next[symbol] = 0;
+            } else {
+                next[symbol] = child;
+                queue.add(child);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            found[state] = matches.get(state) | found[failure[state]];
+            for (int symbol = 0; symbol < size; symbol++) {
+                int child = edges.get(state)[symbol];
+                int fallback = next[failure[state] * size + symbol];
+                if (child < 0) {
+                    next[state * size + symbol] = fallback;
+                } else {
+                    next[state * size + symbol] = child;
+                    failure[child] = fallback;
+                    queue.add(child);
+                }
+            }
+        }
+
+        this.transitions = new int[states * size];
+        this.outputs = new long[Math.max(1, states * size)];
+        for (int state = 0; state < states; state++) {
+            outputs[state * size] = found[state];
+            for (int symbol = 0; symbol < size; symbol++) {
+                transitions[state * size + symbol] = next[state * size + symbol] * size;
+            }
+        }
+    }
+
+    /**
+     * Bitmask of the groups with a keyword occurring in the text, ignoring case; 0 for null.
+     */
+    public long match(String text) {
+        if (text == null) {
+            return 0;
+        }
+        long found = 0;
+        int row = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= ASCII) {
+                // Rare: non-ASCII characters that lower-case to ASCII, like the Kelvin sign
+                c = Character.toLowerCase(c);
+            }
+            int symbol = c < ASCII ? alphabet[c] : -1;
+            if (symbol < 0) {
+                row = 0;
+                continue;
+            }
+            row = transitions[row + symbol];
+            found |= outputs[row];
+        }
+        return found;
+    }
+
+    private static int[] newState(int alphabetSize) {
+        int[] state = new int[alphabetSize];
+        Arrays.fill(state, -1);
+        return state;
+    }
+}
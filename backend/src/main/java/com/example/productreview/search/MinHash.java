@@ -0,0 +1,92 @@
+package com.example.productreview.search;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * MinHash signatures over the character shingles of normalized text. The fraction of positions at which two
+ * signatures agree estimates the Jaccard similarity of the texts' shingle sets.
+ * <p>
+ * The hash functions are fixed, so signatures stored in the database stay comparable across restarts.
+ */
+public final class MinHash {
+
+    public static final int NUM_HASHES = 64;
+    public static final int SHINGLE_LENGTH = 5;
+
+    private static final int[] SEEDS = new int[NUM_HASHES];
+
+    static {
+        for (int i = 0; i < NUM_HASHES; i++) {
+            SEEDS[i] = mix(0x7F4A7C15 + i * 0x9E3779B9);
+        }
+    }
+
+    private MinHash() {
+    }
+
+    /**
+     * Lower-cased words separated by single spaces, so punctuation, case and spacing do not count as changes.
+     */
+    public static String normalize(String text) {
+        return String.join(" ", Tokenizer.tokenize(text));
+    }
+
+    /**
+     * Signature of already normalized text; text shorter than one shingle is hashed as a single shingle.
+     */
+    public static int[] signature(String normalized) {
+        int[] signature = new int[NUM_HASHES];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+        int shingles = Math.max(1, normalized.length() - SHINGLE_LENGTH + 1);
+        for (int start = 0; start < shingles; start++) {
+            int end = Math.min(normalized.length(), start + SHINGLE_LENGTH);
+            int shingle = 0;
+            for (int i = start; i < end; i++) {
+                shingle = 31 * shingle + normalized.charAt(i);
+            }
+            for (int h = 0; h < NUM_HASHES; h++) {
+                int value = mix(shingle ^ SEEDS[h]);
+                if (value < signature[h]) {
+                    signature[h] = value;
+                }
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * Estimated Jaccard similarity of the shingle sets behind two signatures.
+     */
+    public static double similarity(int[] a, int offsetA, int[] b, int offsetB) {
+        int equal = 0;
+        for (int h = 0; h < NUM_HASHES; h++) {
+            if (a[offsetA + h] == b[offsetB + h]) {
+                equal++;
+            }
+        }
+        return (double) equal / NUM_HASHES;
+    }
+
+    public static byte[] encode(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(NUM_HASHES * Integer.BYTES);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] decode(byte[] bytes) {
+        int[] signature = new int[NUM_HASHES];
+        ByteBuffer.wrap(bytes).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    // Murmur3 finalizer
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        h *= 0xC2B2AE35;
+        h ^= h >>> 16;
+        return h;
+    }
+}
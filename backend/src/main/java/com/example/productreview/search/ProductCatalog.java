@@ -0,0 +1,150 @@
+package com.example.productreview.search;
+
+import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.model.Product;
+import com.example.productreview.repository.ProductRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Snapshot of every product held in memory, plus the registered {@link CatalogIndex}es derived from it.
+ * Rebuilt once the application is ready and kept current by {@link ProductIndexingListener}; writes made
+ * inside a transaction are only applied after it commits.
+ */
+@Component
+public class ProductCatalog {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductCatalog.class);
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ProductRepository productRepository;
+    private final List<CatalogIndex> indexes;
+    private final Map<Long, ProductDocument> documents = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    public ProductCatalog(ProductRepository productRepository, List<CatalogIndex> indexes) {
+        this.productRepository = productRepository;
+        this.indexes = indexes;
+    }
+
+    /**
+     * Loads the catalog in id order through the listing projection, with one batched categories query per
+     * batch, so no product entity, with its eagerly fetched categories, is materialized.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        long start = System.currentTimeMillis();
+        List<ProductDocument> loaded = new ArrayList<>();
+
+        List<ProductDTO> batch;
+        long afterId = 0;
+        do {
+            batch = productRepository.findListingAfterId(afterId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Map<Long, ProductDTO> byId = new HashMap<>();
+            batch.forEach(product -> byId.put(product.getId(), product));
+            for (Object[] row : productRepository.findCategoriesByProductIdIn(byId.keySet())) {
+                byId.get((Long) row[0]).getCategories().add((String) row[1]);
+            }
+            batch.forEach(product -> loaded.add(ProductDocument.from(product)));
+            afterId = batch.get(batch.size() - 1).getId();
+        } while (batch.size() == REBUILD_BATCH_SIZE);
+
+        documents.clear();
+        loaded.forEach(document -> documents.put(document.id(), document));
+        for (CatalogIndex index : indexes) {
+            index.rebuild(Collections.unmodifiableList(loaded));
+        }
+        ready = true;
+
+        log.info("Product catalog rebuilt: {} products, {} indexes in {} ms",
+                loaded.size(), indexes.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public ProductDocument get(long id) {
+        return documents.get(id);
+    }
+
+    public Collection<ProductDocument> documents() {
+        return Collections.unmodifiableCollection(documents.values());
+    }
+
+    public void productSaved(Product product) {
+        ProductDocument document = ProductDocument.from(product);
+        afterCommit(() -> apply(document));
+    }
+
+    /**
+     * Applies review counters written with a bulk update, which the entity listener does not see.
+     */
+    public void reviewStatsChanged(long id, int reviewCount, double averageRating) {
+        afterCommit(() -> applyReviewStats(id, reviewCount, averageRating));
+    }
+
+    public void productRemoved(Long id) {
+        afterCommit(() -> applyRemoval(id));
+    }
+
+    private synchronized void apply(ProductDocument document) {
+        ProductDocument previous = documents.put(document.id(), document);
+        for (CatalogIndex index : indexes) {
+            index.upsert(previous, document);
+        }
+    }
+
+    private synchronized void applyReviewStats(long id, int reviewCount, double averageRating) {
+        ProductDocument previous = documents.get(id);
+        // Reviews are only ever added, so a lower count is a commit that finished out of order
+        if (previous == null || previous.reviewCount() > reviewCount) {
+            return;
+        }
+        apply(previous.withReviewStats(reviewCount, averageRating));
+    }
+
+    private synchronized void applyRemoval(Long id) {
+        ProductDocument previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (CatalogIndex index : indexes) {
+            index.remove(previous);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
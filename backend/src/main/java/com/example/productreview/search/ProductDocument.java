@@ -0,0 +1,54 @@
+package com.example.productreview.search;
+
+import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.model.Product;
+
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the product fields the in-memory catalog indexes need.
+ */
+public record ProductDocument(
+        long id,
+        String name,
+        String description,
+        Set<String> categories,
+        double price,
+        double averageRating,
+        int reviewCount) {
+
+    public static ProductDocument from(Product product) {
+        return new ProductDocument(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getCategories() != null ? Set.copyOf(product.getCategories()) : Set.of(),
+                product.getPrice() != null ? product.getPrice() : 0.0,
+                product.getAverageRating() != null ? product.getAverageRating() : 0.0,
+                product.getReviewCount() != null ? product.getReviewCount() : 0
+        );
+    }
+
+    public static ProductDocument from(ProductDTO product) {
+        return new ProductDocument(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getCategories() != null ? Set.copyOf(product.getCategories()) : Set.of(),
+                product.getPrice() != null ? product.getPrice() : 0.0,
+                product.getAverageRating() != null ? product.getAverageRating() : 0.0,
+                product.getReviewCount() != null ? product.getReviewCount() : 0
+        );
+    }
+
+    public ProductDocument withReviewStats(int newReviewCount, double newAverageRating) {
+        return new ProductDocument(id, name, description, categories, price, newAverageRating, newReviewCount);
+    }
+
+    public boolean sameText(ProductDocument other) {
+        return other != null
+                && Objects.equals(name, other.name)
+                && Objects.equals(description, other.description);
+    }
+}
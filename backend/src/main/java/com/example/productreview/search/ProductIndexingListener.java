@@ -0,0 +1,31 @@
+package com.example.productreview.search;
+
+import com.example.productreview.model.Product;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * JPA entity listener forwarding product writes to the in-memory {@link ProductCatalog}.
+ * Instantiated by Hibernate through Spring's bean container, so the catalog is resolved lazily.
+ */
+public class ProductIndexingListener {
+
+    private final ObjectProvider<ProductCatalog> catalog;
+
+    public ProductIndexingListener(ObjectProvider<ProductCatalog> catalog) {
+        this.catalog = catalog;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSaved(Product product) {
+        catalog.ifAvailable(c -> c.productSaved(product));
+    }
+
+    @PostRemove
+    public void onRemoved(Product product) {
+        catalog.ifAvailable(c -> c.productRemoved(product.getId()));
+    }
+}
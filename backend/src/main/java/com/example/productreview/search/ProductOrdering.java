@@ -0,0 +1,47 @@
+package com.example.productreview.search;
+
+import org.springframework.data.domain.Sort;
+
+import java.util.Comparator;
+
+/**
+ * Translates a product listing {@link Sort} into a comparator over catalog documents,
+ * matching the database ordering (case-insensitive names) with the product id as tie-breaker.
+ * The id follows the direction of the first order, as in the keyset listings, so a descending
+ * listing is exactly the ascending one reversed.
+ */
+public final class ProductOrdering {
+
+    private ProductOrdering() {
+    }
+
+    public static Comparator<ProductDocument> comparator(Sort sort) {
+        Comparator<ProductDocument> comparator = null;
+        boolean descending = false;
+        for (Sort.Order order : sort) {
+            if (comparator == null) {
+                descending = order.isDescending();
+            }
+            Comparator<ProductDocument> next = field(order.getProperty());
+            if (order.isDescending()) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<ProductDocument> byId = Comparator.comparingLong(ProductDocument::id);
+        if (descending) {
+            byId = byId.reversed();
+        }
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+    private static Comparator<ProductDocument> field(String property) {
+        return switch (property) {
+            case "name" -> Comparator.comparing(ProductDocument::name, String.CASE_INSENSITIVE_ORDER);
+            case "price" -> Comparator.comparingDouble(ProductDocument::price);
+            case "averageRating" -> Comparator.comparingDouble(ProductDocument::averageRating);
+            case "reviewCount" -> Comparator.comparingInt(ProductDocument::reviewCount);
+            default -> throw new IllegalArgumentException("Unsupported product sort field: " + property);
+        };
+    }
+}
@@ -0,0 +1,587 @@
+package com.example.productreview.search;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * In-memory BM25 inverted index over product name and description.
+ * Name tokens are weighted higher than description tokens, and the last query token is
+ * prefix-expanded while the user is still typing it. All query tokens must match.
+ * <p>
+ * Like the {@code LIKE '%x%'} scan it replaces, a token of three or more characters also matches words that
+ * merely contain it ("phone" finds "iPhone"). Those words are found through the vocabulary's trigram index
+ * and score below whole-word and prefix matches; shorter tokens only match whole words or prefixes.
+ * <p>
+ * In fuzzy mode each token also matches vocabulary terms within a small edit distance. Candidate terms
+ * come from a trigram index over the vocabulary and only the best {@link #MAX_FUZZY_CANDIDATES} of them
+ * are verified with a bounded Damerau-Levenshtein check, so a misspelled query costs a fixed amount of work.
+ */
+@Component
+@Order(CatalogIndex.DATA_ORDER)
+public class ProductSearchIndex implements CatalogIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+    static final int NAME_WEIGHT = 3;
+    static final int MAX_PREFIX_EXPANSIONS = 64;
+    static final int MAX_FUZZY_CANDIDATES = 128;
+    static final float FUZZY_PENALTY = 0.5f;
+    static final float INFIX_PENALTY = 0.75f;
+    private static final int GRAM = 3;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Postings> postings = new TreeMap<>();
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private long[] ordinalIds = new long[1024];
+    private int[] lengths = new int[1024];
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+    private int nextOrdinal;
+    private long totalLength;
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            termsByGram.clear();
+            ordinals.clear();
+            ordinalIds = new long[Math.max(1024, documents.size())];
+            lengths = new int[ordinalIds.length];
+            freeCount = 0;
+            nextOrdinal = 0;
+            totalLength = 0;
+            for (ProductDocument document : documents) {
+                add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDocument previous, ProductDocument current) {
+        lock.writeLock().lock();
+        try {
+            if (current.sameText(previous) && ordinals.containsKey(current.id())) {
+                return;
+            }
+            delete(current.id(), previous);
+            add(current);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ProductDocument previous) {
+        lock.writeLock().lock();
+        try {
+            delete(previous.id(), previous);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns every product matching all query tokens, scored with BM25.
+     *
+     * @param filter optional predicate on product id applied to the matches, may be {@code null}
+     */
+    public SearchHits search(String query, LongPredicate filter) {
+        return search(query, filter, false);
+    }
+
+    /**
+     * Same as {@link #search(String, LongPredicate)}, additionally matching terms within a few typos of each
+     * query token when {@code fuzzy} is set. Typo matches score below exact ones.
+     */
+    public SearchHits search(String query, LongPredicate filter, boolean fuzzy) {
+        List<String> tokens = Tokenizer.tokenize(query);
+        if (tokens.isEmpty()) {
+            return SearchHits.empty();
+        }
+        boolean prefixLast = Tokenizer.endsWithPartialToken(query);
+
+        lock.readLock().lock();
+        try {
+            int docCount = ordinals.size();
+            if (docCount == 0) {
+                return SearchHits.empty();
+            }
+            float avgLength = (float) totalLength / docCount;
+
+            List<ScoredOrdinals> groups = new ArrayList<>(tokens.size());
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefix = prefixLast && i == tokens.size() - 1;
+                ScoredOrdinals group = scoreGroup(tokens.get(i), prefix, fuzzy, docCount, avgLength);
+                if (group.size == 0) {
+                    return SearchHits.empty();
+                }
+                groups.add(group);
+            }
+
+            groups.sort(Comparator.comparingInt(g -> g.size));
+            ScoredOrdinals result = groups.get(0);
+            for (int i = 1; i < groups.size() && result.size > 0; i++) {
+                result = result.intersect(groups.get(i));
+            }
+
+            long[] ids = new long[result.size];
+            float[] scores = new float[result.size];
+            int count = 0;
+            for (int i = 0; i < result.size; i++) {
+                long id = ordinalIds[result.ordinals[i]];
+                if (filter == null || filter.test(id)) {
+                    ids[count] = id;
+                    scores[count] = result.scores[i];
+                    count++;
+                }
+            }
+            return new SearchHits(ids, scores, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private ScoredOrdinals scoreGroup(String token, boolean prefix, boolean fuzzy, int docCount, float avgLength) {
+        List<Expansion> expansions = new ArrayList<>();
+        if (prefix) {
+            for (Postings candidate : postings.subMap(token, true, token + Character.MAX_VALUE, true).values()) {
+                expansions.add(new Expansion(candidate, 1f));
+                if (expansions.size() == MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+            }
+        } else {
+            Postings exact = postings.get(token);
+            if (exact != null) {
+                expansions.add(new Expansion(exact, 1f));
+            }
+        }
+        for (String term : infixTerms(token, prefix)) {
+            expansions.add(new Expansion(postings.get(term), INFIX_PENALTY));
+        }
+        if (fuzzy) {
+            for (Map.Entry<String, Integer> match : fuzzyTerms(token, prefix).entrySet()) {
+                float boost = (float) Math.pow(FUZZY_PENALTY, match.getValue());
+                expansions.add(new Expansion(postings.get(match.getKey()), boost));
+            }
+        }
+
+        if (expansions.isEmpty()) {
+            return ScoredOrdinals.EMPTY;
+        }
+        if (expansions.size() == 1) {
+            return score(expansions.get(0), docCount, avgLength);
+        }
+        return mergeMax(expansions, docCount, avgLength);
+    }
+
+    private ScoredOrdinals score(Expansion expansion, int docCount, float avgLength) {
+        Postings list = expansion.postings();
+        float idf = idf(list.size, docCount);
+        int[] ords = Arrays.copyOf(list.ordinals, list.size);
+        float[] scores = new float[list.size];
+        for (int i = 0; i < list.size; i++) {
+            scores[i] = expansion.boost() * termScore(idf, list.freqs[i], lengths[ords[i]], avgLength);
+        }
+        return new ScoredOrdinals(ords, scores, list.size);
+    }
+
+    /**
+     * K-way merge of prefix and typo expansions; a document matching several expansions keeps its best one
+     * so a short prefix doesn't inflate scores.
+     */
+    private ScoredOrdinals mergeMax(List<Expansion> expansions, int docCount, float avgLength) {
+        int total = 0;
+        float[] idfs = new float[expansions.size()];
+        for (int i = 0; i < expansions.size(); i++) {
+            total += expansions.get(i).postings().size;
+            idfs[i] = idf(expansions.get(i).postings().size, docCount);
+        }
+
+        int[] cursors = new int[expansions.size()];
+        PriorityQueue<Integer> queue = new PriorityQueue<>(expansions.size(),
+                Comparator.comparingInt(i -> expansions.get(i).postings().ordinals[cursors[i]]));
+        for (int i = 0; i < expansions.size(); i++) {
+            if (expansions.get(i).postings().size > 0) {
+                queue.add(i);
+            }
+        }
+
+        int[] ords = new int[total];
+        float[] scores = new float[total];
+        int size = 0;
+        while (!queue.isEmpty()) {
+            int listIndex = queue.poll();
+            Expansion expansion = expansions.get(listIndex);
+            Postings list = expansion.postings();
+            int position = cursors[listIndex];
+            int ordinal = list.ordinals[position];
+            float score = expansion.boost() * termScore(idfs[listIndex], list.freqs[position], lengths[ordinal], avgLength);
+
+            if (size > 0 && ords[size - 1] == ordinal) {
+                scores[size - 1] = Math.max(scores[size - 1], score);
+            } else {
+                ords[size] = ordinal;
+                scores[size] = score;
+                size++;
+            }
+
+            cursors[listIndex]++;
+            if (cursors[listIndex] < list.size) {
+                queue.add(listIndex);
+            }
+        }
+        return new ScoredOrdinals(ords, scores, size);
+    }
+
+    /**
+     * Vocabulary terms containing the token other than the token itself and, when {@code prefix} already
+     * expanded them, the terms starting with it. Candidates share every trigram of the bare token; the
+     * shortest {@link #MAX_PREFIX_EXPANSIONS} are kept.
+     */
+    private List<String> infixTerms(String token, boolean prefix) {
+        if (token.length() < GRAM) {
+            return List.of();
+        }
+        Set<String> smallest = null;
+        for (int i = 0; i + GRAM <= token.length(); i++) {
+            Set<String> terms = termsByGram.get(token.substring(i, i + GRAM));
+            if (terms == null) {
+                return List.of();
+            }
+            if (smallest == null || terms.size() < smallest.size()) {
+                smallest = terms;
+            }
+        }
+
+        List<String> matches = new ArrayList<>();
+        for (String term : smallest) {
+            int position = term.indexOf(token);
+            if (position > 0 || (position == 0 && !prefix && term.length() > token.length())) {
+                matches.add(term);
+            }
+        }
+        matches.sort(Comparator.comparingInt(String::length).thenComparing(Comparator.naturalOrder()));
+        return matches.size() > MAX_PREFIX_EXPANSIONS ? matches.subList(0, MAX_PREFIX_EXPANSIONS) : matches;
+    }
+
+    /**
+     * Vocabulary terms one or two edits away from the token, mapped to their distance. With {@code prefix}
+     * the token is compared against the start of each term instead of the whole term.
+     */
+    private Map<String, Integer> fuzzyTerms(String token, boolean prefix) {
+        int maxEdits = maxEdits(token.length());
+        if (maxEdits == 0) {
+            return Map.of();
+        }
+
+        Set<String> grams = grams(token, prefix);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null) {
+                for (String term : terms) {
+                    shared.merge(term, 1, Integer::sum);
+                }
+            }
+        }
+
+        // An edit touches at most GRAM + 1 trigrams (a transposition spans two positions)
+        int required = Math.max(1, grams.size() - (GRAM + 1) * maxEdits);
+        List<Map.Entry<String, Integer>> candidates = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : shared.entrySet()) {
+            int lengthGap = entry.getKey().length() - token.length();
+            boolean lengthOk = prefix ? lengthGap >= -maxEdits : Math.abs(lengthGap) <= maxEdits;
+            if (entry.getValue() >= required && lengthOk) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+
+        Map<String, Integer> matches = new HashMap<>();
+        for (int i = 0; i < candidates.size() && i < MAX_FUZZY_CANDIDATES; i++) {
+            String term = candidates.get(i).getKey();
+            int distance = boundedDistance(token, term, maxEdits, prefix);
+            if (distance > 0 && distance <= maxEdits) {
+                matches.put(term, distance);
+            }
+        }
+        return matches;
+    }
+
+    static int maxEdits(int length) {
+        if (length < 3) {
+            return 0;
+        }
+        return length <= 5 ? 1 : 2;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions) between {@code a} and
+     * {@code b}, or between {@code a} and the closest prefix of {@code b} when {@code prefixOfB} is set.
+     * Gives up and returns {@code max + 1} as soon as every alignment exceeds {@code max}.
+     */
+    static int boundedDistance(String a, String b, int max, boolean prefixOfB) {
+        int n = a.length();
+        int m = prefixOfB ? Math.min(b.length(), n + max) : b.length();
+        if (!prefixOfB && Math.abs(n - m) > max) {
+            return max + 1;
+        }
+
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        if (!prefixOfB) {
+            return Math.min(previous[m], max + 1);
+        }
+        int best = max + 1;
+        for (int j = Math.max(0, n - max); j <= m; j++) {
+            best = Math.min(best, previous[j]);
+        }
+        return best;
+    }
+
+    /**
+     * Distinct trigrams of a term padded with {@code $}; a prefix is left open at the end.
+     */
+    static Set<String> grams(String term, boolean prefix) {
+        String padded = "$" + term + (prefix ? "" : "$");
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static float idf(int documentFrequency, int docCount) {
+        return (float) Math.log(1.0 + (docCount - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private static float termScore(float idf, int tf, int length, float avgLength) {
+        float norm = K1 * (1 - B + B * length / avgLength);
+        return idf * (tf * (K1 + 1)) / (tf + norm);
+    }
+
+    private void add(ProductDocument document) {
+        Map<String, Integer> frequencies = termFrequencies(document);
+        if (frequencies.isEmpty()) {
+            return;
+        }
+
+        int ordinal = allocateOrdinal();
+        ordinals.put(document.id(), ordinal);
+        ordinalIds[ordinal] = document.id();
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            postings.computeIfAbsent(entry.getKey(), this::newTerm).add(ordinal, entry.getValue());
+            length += entry.getValue();
+        }
+        lengths[ordinal] = length;
+        totalLength += length;
+    }
+
+    private void delete(long id, ProductDocument previous) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        if (previous != null) {
+            for (String term : termFrequencies(previous).keySet()) {
+                removePosting(term, ordinal);
+            }
+        } else {
+            // Text of the stale entry is unknown, so fall back to scanning every term
+            for (String term : new ArrayList<>(postings.keySet())) {
+                removePosting(term, ordinal);
+            }
+        }
+        totalLength -= lengths[ordinal];
+        lengths[ordinal] = 0;
+        releaseOrdinal(ordinal);
+    }
+
+    private void removePosting(String term, int ordinal) {
+        Postings list = postings.get(term);
+        if (list != null && list.remove(ordinal) && list.size == 0) {
+            postings.remove(term);
+            for (String gram : grams(term, false)) {
+                Set<String> terms = termsByGram.get(gram);
+                if (terms != null && terms.remove(term) && terms.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    private Postings newTerm(String term) {
+        for (String gram : grams(term, false)) {
+            termsByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(term);
+        }
+        return new Postings();
+    }
+
+    private int allocateOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        if (nextOrdinal == ordinalIds.length) {
+            ordinalIds = Arrays.copyOf(ordinalIds, ordinalIds.length * 2);
+            lengths = Arrays.copyOf(lengths, lengths.length * 2);
+        }
+        return nextOrdinal++;
+    }
+
+    private void releaseOrdinal(int ordinal) {
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeOrdinals.length * 2);
+        }
+        freeOrdinals[freeCount++] = ordinal;
+    }
+
+    static Map<String, Integer> termFrequencies(ProductDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : Tokenizer.tokenize(document.name())) {
+            frequencies.merge(token, NAME_WEIGHT, Integer::sum);
+        }
+        for (String token : Tokenizer.tokenize(document.description())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+        return frequencies;
+    }
+
+    private record Expansion(Postings postings, float boost) {
+    }
+
+    /**
+     * Posting list kept sorted by ordinal so lists can be merged and intersected linearly.
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void add(int ordinal, int freq) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position >= 0) {
+                freqs[position] = freq;
+                return;
+            }
+            position = -position - 1;
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            System.arraycopy(ordinals, position, ordinals, position + 1, size - position);
+            System.arraycopy(freqs, position, freqs, position + 1, size - position);
+            ordinals[position] = ordinal;
+            freqs[position] = freq;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (position < 0) {
+                return false;
+            }
+            System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+            System.arraycopy(freqs, position + 1, freqs, position, size - position - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /**
+     * Ordinals sorted ascending with their accumulated scores.
+     */
+    private static final class ScoredOrdinals {
+        static final ScoredOrdinals EMPTY = new ScoredOrdinals(new int[0], new float[0], 0);
+
+        final int[] ordinals;
+        final float[] scores;
+        final int size;
+
+        ScoredOrdinals(int[] ordinals, float[] scores, int size) {
+            this.ordinals = ordinals;
+            this.scores = scores;
+            this.size = size;
+        }
+
+        /**
+         * Intersects with a (usually larger) list by binary-searching each of our ordinals
+         * from the last match position onwards.
+         */
+        ScoredOrdinals intersect(ScoredOrdinals other) {
+            int[] ords = new int[size];
+            float[] merged = new float[size];
+            int count = 0;
+            int from = 0;
+            for (int i = 0; i < size && from < other.size; i++) {
+                int position = Arrays.binarySearch(other.ordinals, from, other.size, ordinals[i]);
+                if (position >= 0) {
+                    ords[count] = ordinals[i];
+                    merged[count] = scores[i] + other.scores[position];
+                    count++;
+                    from = position + 1;
+                } else {
+                    from = -position - 1;
+                }
+            }
+            return new ScoredOrdinals(ords, merged, count);
+        }
+    }
+}
@@ -0,0 +1,459 @@
+package com.example.productreview.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Typeahead over normalized product names, ranked by review count.
+ * <p>
+ * Every word start of every name is an entry, kept in one array sorted by the name suffix it starts, so
+ * a prefix maps to a contiguous entry range found by binary search. A max segment tree over the entry
+ * weights returns the top-k products of that range without scanning it. Names live in a single
+ * {@code char[]} and entries are two {@code int}s, which keeps the structure at a few dozen bytes per entry.
+ * <p>
+ * Review count changes are point updates of the tree. Renamed and new products go to a small pending list
+ * that is scanned per query and folded into a fresh snapshot once it grows past {@link #MAX_PENDING}.
+ */
+@Component
+@Order(CatalogIndex.DATA_ORDER)
+public class ProductSuggestIndex implements CatalogIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSuggestIndex.class);
+    static final int MAX_PENDING = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Snapshot snapshot = Snapshot.build(List.of());
+    private final Map<Long, Pending> pending = new HashMap<>();
+
+    private record Pending(long id, String key, int weight) {
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        List<Pending> products = new ArrayList<>(documents.size());
+        for (ProductDocument document : documents) {
+            products.add(new Pending(document.id(), normalize(document.name()), document.reviewCount()));
+        }
+        Snapshot built = Snapshot.build(products);
+
+        lock.writeLock().lock();
+        try {
+            snapshot = built;
+            pending.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggest index built: {} products, {} entries, ~{} bytes per entry",
+                built.productCount(), built.entryCount(), built.bytesPerEntry());
+    }
+
+    @Override
+    public void upsert(ProductDocument previous, ProductDocument current) {
+        String key = normalize(current.name());
+        lock.writeLock().lock();
+        try {
+            Pending queued = pending.get(current.id());
+            if (queued != null) {
+                pending.put(current.id(), new Pending(current.id(), key, current.reviewCount()));
+                return;
+            }
+            int ordinal = snapshot.ordinal(current.id());
+            if (ordinal >= 0 && snapshot.hasKey(ordinal, key)) {
+                snapshot.setWeight(ordinal, current.reviewCount());
+                return;
+            }
+            if (ordinal >= 0) {
+                snapshot.setWeight(ordinal, Snapshot.REMOVED);
+            }
+            pending.put(current.id(), new Pending(current.id(), key, current.reviewCount()));
+            if (pending.size() > MAX_PENDING) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ProductDocument previous) {
+        lock.writeLock().lock();
+        try {
+            pending.remove(previous.id());
+            int ordinal = snapshot.ordinal(previous.id());
+            if (ordinal >= 0) {
+                snapshot.setWeight(ordinal, Snapshot.REMOVED);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of up to {@code limit} products with a name word starting with the query, most reviewed first.
+     */
+    public long[] suggest(String query, int limit) {
+        String prefix = normalizeQuery(query);
+        if (prefix.isEmpty() || limit <= 0) {
+            return new long[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Pending> matches = new ArrayList<>();
+            for (Pending candidate : pending.values()) {
+                if (matchesWordPrefix(candidate.key(), prefix)) {
+                    matches.add(candidate);
+                }
+            }
+            snapshot.top(prefix, limit, matches);
+
+            return matches.stream()
+                    .sorted(Comparator.comparingInt(Pending::weight).reversed().thenComparing(Pending::key))
+                    .limit(limit)
+                    .mapToLong(Pending::id)
+                    .toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long bytesPerEntry() {
+        lock.readLock().lock();
+        try {
+            return snapshot.bytesPerEntry();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void compact() {
+        List<Pending> products = snapshot.liveProducts();
+        products.addAll(pending.values());
+        snapshot = Snapshot.build(products);
+        pending.clear();
+    }
+
+    static String normalize(String name) {
+        return String.join(" ", Tokenizer.tokenize(name));
+    }
+
+    /**
+     * A trailing separator in the query means the last word is complete, so it must not match longer words.
+     */
+    static String normalizeQuery(String query) {
+        String normalized = normalize(query);
+        return normalized.isEmpty() || Tokenizer.endsWithPartialToken(query) ? normalized : normalized + " ";
+    }
+
+    private static boolean matchesWordPrefix(String key, String prefix) {
+        String padded = key + " ";
+        for (int start = 0; start < key.length(); start = key.indexOf(' ', start) + 1) {
+            if (padded.startsWith(prefix, start)) {
+                return true;
+            }
+            if (key.indexOf(' ', start) < 0) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Immutable entry order over the names of a set of products, with mutable weights.
+     */
+    static final class Snapshot {
+
+        static final int REMOVED = -1;
+
+        private final long[] ids;
+        private final int[] nameStart;
+        private final char[] names;
+        private final int[] weights;
+        private final int[] entryProduct;
+        private final int[] entryOffset;
+        private final int[] productEntryStart;
+        private final int[] productEntries;
+        private final int leaves;
+        private final int[] tree;
+
+        private Snapshot(long[] ids, int[] nameStart, char[] names, int[] weights,
+                         int[] entryProduct, int[] entryOffset, int[] productEntryStart, int[] productEntries) {
+            this.ids = ids;
+            this.nameStart = nameStart;
+            this.names = names;
+            this.weights = weights;
+            this.entryProduct = entryProduct;
+            this.entryOffset = entryOffset;
+            this.productEntryStart = productEntryStart;
+            this.productEntries = productEntries;
+            this.leaves = Integer.highestOneBit(Math.max(1, entryProduct.length - 1)) << 1;
+            this.tree = new int[2 * leaves];
+            Arrays.fill(tree, REMOVED);
+            for (int i = 0; i < entryProduct.length; i++) {
+                tree[leaves + i] = weights[entryProduct[i]];
+            }
+            for (int node = leaves - 1; node > 0; node--) {
+                tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+            }
+        }
+
+        static Snapshot build(List<Pending> products) {
+            Pending[] sorted = products.toArray(new Pending[0]);
+            Arrays.sort(sorted, Comparator.comparingLong(Pending::id));
+
+            int productCount = sorted.length;
+            long[] ids = new long[productCount];
+            int[] weights = new int[productCount];
+            int[] nameStart = new int[productCount + 1];
+            StringBuilder names = new StringBuilder();
+            int entryCount = 0;
+            for (int p = 0; p < productCount; p++) {
+                ids[p] = sorted[p].id();
+                weights[p] = sorted[p].weight();
+                nameStart[p] = names.length();
+                String key = sorted[p].key();
+                names.append(key);
+                for (int i = 0; i < key.length(); i++) {
+                    if (i == 0 || key.charAt(i - 1) == ' ') {
+                        entryCount++;
+                    }
+                }
+            }
+            nameStart[productCount] = names.length();
+            char[] chars = names.toString().toCharArray();
+
+            int[] entryProduct = new int[entryCount];
+            int[] entryOffset = new int[entryCount];
+            int[] productEntryStart = new int[productCount + 1];
+            int e = 0;
+            for (int p = 0; p < productCount; p++) {
+                productEntryStart[p] = e;
+                for (int i = nameStart[p]; i < nameStart[p + 1]; i++) {
+                    if (i == nameStart[p] || chars[i - 1] == ' ') {
+                        entryProduct[e] = p;
+                        entryOffset[e] = i;
+                        e++;
+                    }
+                }
+            }
+            productEntryStart[productCount] = e;
+
+            int[] order = new int[entryCount];
+            for (int i = 0; i < entryCount; i++) {
+                order[i] = i;
+            }
+            sortEntries(order, new int[entryCount], 0, entryCount, chars, entryProduct, entryOffset, nameStart);
+
+            int[] sortedProduct = new int[entryCount];
+            int[] sortedOffset = new int[entryCount];
+            int[] productEntries = new int[entryCount];
+            int[] cursor = Arrays.copyOf(productEntryStart, productCount);
+            for (int position = 0; position < entryCount; position++) {
+                int entry = order[position];
+                sortedProduct[position] = entryProduct[entry];
+                sortedOffset[position] = entryOffset[entry];
+                productEntries[cursor[entryProduct[entry]]++] = position;
+            }
+
+            return new Snapshot(ids, nameStart, chars, weights,
+                    sortedProduct, sortedOffset, productEntryStart, productEntries);
+        }
+
+        int productCount() {
+            return ids.length;
+        }
+
+        int entryCount() {
+            return entryProduct.length;
+        }
+
+        int ordinal(long id) {
+            int ordinal = Arrays.binarySearch(ids, id);
+            return ordinal >= 0 && weights[ordinal] != REMOVED ? ordinal : -1;
+        }
+
+        boolean hasKey(int ordinal, String key) {
+            int start = nameStart[ordinal];
+            if (nameStart[ordinal + 1] - start != key.length()) {
+                return false;
+            }
+            for (int i = 0; i < key.length(); i++) {
+                if (names[start + i] != key.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void setWeight(int ordinal, int weight) {
+            weights[ordinal] = weight;
+            for (int i = productEntryStart[ordinal]; i < productEntryStart[ordinal + 1]; i++) {
+                int node = leaves + productEntries[i];
+                tree[node] = weight;
+                for (node >>= 1; node > 0; node >>= 1) {
+                    tree[node] = Math.max(tree[2 * node], tree[2 * node + 1]);
+                }
+            }
+        }
+
+        List<Pending> liveProducts() {
+            List<Pending> live = new ArrayList<>(ids.length);
+            for (int p = 0; p < ids.length; p++) {
+                if (weights[p] != REMOVED) {
+                    live.add(new Pending(ids[p], new String(names, nameStart[p], nameStart[p + 1] - nameStart[p]), weights[p]));
+                }
+            }
+            return live;
+        }
+
+        /**
+         * Adds the top {@code limit} distinct products whose entries start with the prefix to {@code into}.
+         */
+        void top(String prefix, int limit, List<Pending> into) {
+            int from = lowerBound(prefix, false);
+            int to = lowerBound(prefix, true);
+            if (from >= to) {
+                return;
+            }
+
+            // Max-heap of tree nodes by weight, ties broken by entry order so results are alphabetical
+            PriorityQueue<Long> heap = new PriorityQueue<>(Comparator.reverseOrder());
+            for (int l = from + leaves, r = to + leaves; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    push(heap, l++);
+                }
+                if ((r & 1) == 1) {
+                    push(heap, --r);
+                }
+            }
+
+            Set<Integer> seen = new HashSet<>();
+            int found = 0;
+            while (!heap.isEmpty() && found < limit) {
+                long top = heap.poll();
+                int node = (int) (Integer.MAX_VALUE - (top & 0xFFFFFFFFL));
+                if (node >= leaves) {
+                    int product = entryProduct[node - leaves];
+                    if (seen.add(product)) {
+                        into.add(new Pending(ids[product], keyOf(product), weights[product]));
+                        found++;
+                    }
+                } else {
+                    push(heap, 2 * node);
+                    push(heap, 2 * node + 1);
+                }
+            }
+        }
+
+        private void push(PriorityQueue<Long> heap, int node) {
+            if (tree[node] != REMOVED) {
+                heap.add(((long) tree[node] << 32) | (Integer.MAX_VALUE - node));
+            }
+        }
+
+        private String keyOf(int product) {
+            return new String(names, nameStart[product], nameStart[product + 1] - nameStart[product]);
+        }
+
+        /**
+         * First entry not below the prefix, or with {@code past} set, the first entry after every match.
+         */
+        private int lowerBound(String prefix, boolean past) {
+            int lo = 0;
+            int hi = entryProduct.length;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                int cmp = comparePrefix(mid, prefix);
+                if (cmp < 0 || (past && cmp == 0)) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+
+        /**
+         * Negative when the entry sorts before every match, zero when it starts with the prefix.
+         * The end of the name reads as a space, so a completed last word matches it.
+         */
+        private int comparePrefix(int entry, String prefix) {
+            int offset = entryOffset[entry];
+            int end = nameStart[entryProduct[entry] + 1];
+            for (int i = 0; i < prefix.length(); i++) {
+                int position = offset + i;
+                if (position > end) {
+                    return -1;
+                }
+                char c = position == end ? ' ' : names[position];
+                int diff = c - prefix.charAt(i);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return 0;
+        }
+
+        long bytesPerEntry() {
+            long bytes = 8L * ids.length + 4L * nameStart.length + 2L * names.length + 4L * weights.length
+                    + 4L * entryProduct.length + 4L * entryOffset.length
+                    + 4L * productEntryStart.length + 4L * productEntries.length + 4L * tree.length;
+            return entryProduct.length == 0 ? 0 : bytes / entryProduct.length;
+        }
+
+        private static int compareEntries(int a, int b, char[] chars, int[] product, int[] offset, int[] nameStart) {
+            int i = offset[a];
+            int j = offset[b];
+            int endA = nameStart[product[a] + 1];
+            int endB = nameStart[product[b] + 1];
+            while (i < endA && j < endB) {
+                int diff = chars[i++] - chars[j++];
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return (endA - i) - (endB - j);
+        }
+
+        /**
+         * Merge sort on primitive entry indexes, avoiding a boxed comparator sort over millions of entries.
+         */
+        private static void sortEntries(int[] order, int[] buffer, int from, int to,
+                                        char[] chars, int[] product, int[] offset, int[] nameStart) {
+            if (to - from < 2) {
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            sortEntries(order, buffer, from, mid, chars, product, offset, nameStart);
+            sortEntries(order, buffer, mid, to, chars, product, offset, nameStart);
+            if (compareEntries(order[mid - 1], order[mid], chars, product, offset, nameStart) <= 0) {
+                return;
+            }
+            System.arraycopy(order, from, buffer, from, to - from);
+            int i = from;
+            int j = mid;
+            for (int k = from; k < to; k++) {
+                if (j >= to || (i < mid && compareEntries(buffer[i], buffer[j], chars, product, offset, nameStart) <= 0)) {
+                    order[k] = buffer[i++];
+                } else {
+                    order[k] = buffer[j++];
+                }
+            }
+        }
+    }
+}
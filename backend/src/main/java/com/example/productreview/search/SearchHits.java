@@ -0,0 +1,123 @@
+package com.example.productreview.search;
+
+import java.util.Arrays;
+
+/**
+ * Unordered product matches with their BM25 scores.
+ */
+public final class SearchHits {
+
+    private static final SearchHits EMPTY = new SearchHits(new long[0], new float[0], 0);
+
+    private final long[] ids;
+    private final float[] scores;
+    private final int size;
+
+    SearchHits(long[] ids, float[] scores, int size) {
+        this.ids = ids;
+        this.scores = scores;
+        this.size = size;
+    }
+
+    public static SearchHits empty() {
+        return EMPTY;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public long[] ids() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    public float scoreAt(int index) {
+        return scores[index];
+    }
+
+    public long idAt(int index) {
+        return ids[index];
+    }
+
+    /**
+     * Returns the product ids of one page ordered by descending score (ties broken by id).
+     * Only the first {@code offset + limit} hits are ordered, using a bounded heap.
+     */
+    public long[] rankedPage(long offset, int limit) {
+        if (offset >= size || limit <= 0) {
+            return new long[0];
+        }
+        int wanted = (int) Math.min(size, offset + limit);
+
+        // Min-heap (worst hit on top) of hit indices holding the best `wanted` hits seen so far
+        int[] heap = new int[wanted];
+        int heapSize = 0;
+        for (int i = 0; i < size; i++) {
+            if (heapSize < wanted) {
+                heap[heapSize] = i;
+                siftUp(heap, heapSize++);
+            } else if (better(i, heap[0])) {
+                heap[0] = i;
+                siftDown(heap, heapSize);
+            }
+        }
+
+        int[] ordered = new int[heapSize];
+        for (int i = heapSize - 1; i >= 0; i--) {
+            ordered[i] = heap[0];
+            heap[0] = heap[--heapSize];
+            siftDown(heap, heapSize);
+        }
+
+        int from = (int) offset;
+        long[] page = new long[ordered.length - from];
+        for (int i = from; i < ordered.length; i++) {
+            page[i - from] = ids[ordered[i]];
+        }
+        return page;
+    }
+
+    private boolean better(int a, int b) {
+        if (scores[a] != scores[b]) {
+            return scores[a] > scores[b];
+        }
+        return ids[a] < ids[b];
+    }
+
+    private void siftUp(int[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (!better(heap[parent], heap[index])) {
+                break;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(int[] heap, int heapSize) {
+        int index = 0;
+        while (true) {
+            int left = 2 * index + 1;
+            if (left >= heapSize) {
+                return;
+            }
+            int worst = left;
+            int right = left + 1;
+            if (right < heapSize && better(heap[left], heap[right])) {
+                worst = right;
+            }
+            if (!better(heap[index], heap[worst])) {
+                return;
+            }
+            swap(heap, index, worst);
+            index = worst;
+        }
+    }
+
+    private static void swap(int[] heap, int i, int j) {
+        int tmp = heap[i];
+        heap[i] = heap[j];
+        heap[j] = tmp;
+    }
+}
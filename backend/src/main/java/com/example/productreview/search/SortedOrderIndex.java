@@ -0,0 +1,265 @@
+package com.example.productreview.search;
+
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Product ids presorted by every listing sort field, for the whole catalog and for each category.
+ * <p>
+ * Each ordering is a plain {@code int[]} in ascending {@link ProductOrdering} order; a descending page is
+ * read from the other end, so any page is a slice of {@code limit} ids. Writes move a product only within
+ * the orderings whose sort key or category actually changed (a binary search and an array shift), so a new
+ * review touches the rating and review count orderings of the product's categories and nothing else.
+ */
+@Component
+@Order(CatalogIndex.DATA_ORDER)
+public class SortedOrderIndex implements CatalogIndex {
+
+    static final List<String> FIELDS = List.of("name", "price", "averageRating", "reviewCount");
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, ProductDocument> documents = new HashMap<>();
+    private final Map<String, Orderings> categories = new HashMap<>();
+    private Orderings all = new Orderings();
+
+    /**
+     * True for the single-field sorts this index can answer.
+     */
+    public static boolean supports(Sort sort) {
+        List<Sort.Order> orders = sort.toList();
+        return orders.size() == 1 && FIELDS.contains(orders.get(0).getProperty());
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDocument> products) {
+        Map<Long, ProductDocument> byId = new HashMap<>();
+        Map<String, List<ProductDocument>> byCategory = new HashMap<>();
+        for (ProductDocument document : products) {
+            byId.put(document.id(), document);
+            for (String category : document.categories()) {
+                byCategory.computeIfAbsent(category, k -> new ArrayList<>()).add(document);
+            }
+        }
+
+        Orderings builtAll = Orderings.of(products);
+        Map<String, Orderings> builtCategories = new HashMap<>();
+        byCategory.forEach((category, members) -> builtCategories.put(category, Orderings.of(members)));
+
+        lock.writeLock().lock();
+        try {
+            documents.clear();
+            documents.putAll(byId);
+            categories.clear();
+            categories.putAll(builtCategories);
+            all = builtAll;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(ProductDocument previous, ProductDocument current) {
+        lock.writeLock().lock();
+        try {
+            // The stored document is what the orderings were sorted by, so it locates the old positions
+            ProductDocument stored = documents.put(current.id(), current);
+            Set<String> before = stored != null ? stored.categories() : Set.of();
+
+            all.move(stored, current, documents);
+            for (String category : before) {
+                Orderings orderings = categories.get(category);
+                if (!current.categories().contains(category)) {
+                    orderings.move(stored, null, documents);
+                    if (orderings.size() == 0) {
+                        categories.remove(category);
+                    }
+                } else {
+                    orderings.move(stored, current, documents);
+                }
+            }
+            for (String category : current.categories()) {
+                if (!before.contains(category)) {
+                    categories.computeIfAbsent(category, k -> new Orderings()).move(null, current, documents);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(ProductDocument previous) {
+        lock.writeLock().lock();
+        try {
+            ProductDocument stored = documents.remove(previous.id());
+            if (stored == null) {
+                return;
+            }
+            all.move(stored, null, documents);
+            for (String category : stored.categories()) {
+                Orderings orderings = categories.get(category);
+                orderings.move(stored, null, documents);
+                if (orderings.size() == 0) {
+                    categories.remove(category);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Number of products in the category, or in the catalog when {@code category} is {@code null}.
+     */
+    public int count(String category) {
+        lock.readLock().lock();
+        try {
+            Orderings orderings = category == null ? all : categories.get(category);
+            return orderings != null ? orderings.size() : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of one page in the requested order, which must be {@link #supports(Sort) supported}.
+     *
+     * @param category restricts the page to one category, or {@code null} for the whole catalog
+     */
+    public long[] page(String category, Sort sort, long offset, int limit) {
+        Sort.Order order = sort.toList().get(0);
+        int field = FIELDS.indexOf(order.getProperty());
+
+        lock.readLock().lock();
+        try {
+            Orderings orderings = category == null ? all : categories.get(category);
+            if (orderings == null) {
+                return new long[0];
+            }
+            return orderings.page(field, order.isDescending(), offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * One ascending ordering per sort field over the same set of products.
+     */
+    private static final class Orderings {
+
+        private static final List<Comparator<ProductDocument>> COMPARATORS = FIELDS.stream()
+                .map(field -> ProductOrdering.comparator(Sort.by(field)))
+                .toList();
+
+        private final int[][] ids = new int[FIELDS.size()][];
+        private int size;
+
+        Orderings() {
+            for (int f = 0; f < ids.length; f++) {
+                ids[f] = new int[8];
+            }
+        }
+
+        static Orderings of(Collection<ProductDocument> members) {
+            Orderings orderings = new Orderings();
+            ProductDocument[] sorted = members.toArray(new ProductDocument[0]);
+            for (int f = 0; f < FIELDS.size(); f++) {
+                Arrays.sort(sorted, COMPARATORS.get(f));
+                orderings.ids[f] = toIds(sorted);
+            }
+            orderings.size = sorted.length;
+            return orderings;
+        }
+
+        int size() {
+            return size;
+        }
+
+        long[] page(int field, boolean descending, long offset, int limit) {
+            if (offset >= size || limit <= 0) {
+                return new long[0];
+            }
+            int start = (int) offset;
+            int count = Math.min(limit, size - start);
+            long[] page = new long[count];
+            int[] ordering = ids[field];
+            for (int i = 0; i < count; i++) {
+                page[i] = descending ? ordering[size - 1 - start - i] : ordering[start + i];
+            }
+            return page;
+        }
+
+        /**
+         * Moves a product from its position for {@code previous} to its position for {@code current}; either
+         * may be {@code null} to insert or delete. Orderings whose key did not change are left alone.
+         */
+        void move(ProductDocument previous, ProductDocument current, Map<Long, ProductDocument> documents) {
+            int newSize = size + (previous == null ? 1 : 0) - (current == null ? 1 : 0);
+            for (int f = 0; f < FIELDS.size(); f++) {
+                Comparator<ProductDocument> comparator = COMPARATORS.get(f);
+                if (previous != null && current != null && comparator.compare(previous, current) == 0) {
+                    continue;
+                }
+                int[] ordering = ids[f];
+                int length = size;
+                if (previous != null) {
+                    int position = search(ordering, length, previous, comparator, documents);
+                    System.arraycopy(ordering, position + 1, ordering, position, length - position - 1);
+                    length--;
+                }
+                if (current != null) {
+                    int position = -search(ordering, length, current, comparator, documents) - 1;
+                    if (length == ordering.length) {
+                        ordering = Arrays.copyOf(ordering, ordering.length * 2);
+                        ids[f] = ordering;
+                    }
+                    System.arraycopy(ordering, position, ordering, position + 1, length - position);
+                    ordering[position] = CategoryIndex.toInt(current.id());
+                }
+            }
+            size = newSize;
+        }
+
+        /**
+         * Binary search against the other products' stored documents; the product being moved matches by id.
+         */
+        private static int search(int[] ordering, int length, ProductDocument target,
+                                  Comparator<ProductDocument> comparator, Map<Long, ProductDocument> documents) {
+            int lo = 0;
+            int hi = length - 1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                int id = ordering[mid];
+                int cmp = id == target.id() ? 0 : comparator.compare(documents.get((long) id), target);
+                if (cmp < 0) {
+                    lo = mid + 1;
+                } else if (cmp > 0) {
+                    hi = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        private static int[] toIds(ProductDocument[] sorted) {
+            int[] result = new int[Math.max(8, sorted.length)];
+            for (int i = 0; i < sorted.length; i++) {
+                result[i] = CategoryIndex.toInt(sorted[i].id());
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.productreview.search;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits free text into lower-cased alphanumeric tokens.
+ * Shared by every in-memory text index so queries and documents are normalized identically.
+ */
+public final class Tokenizer {
+
+    private Tokenizer() {
+    }
+
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+    /**
+     * True when the query ends in the middle of a word, i.e. the user is still typing the last token.
+     */
+    public static boolean endsWithPartialToken(String text) {
+        return text != null && !text.isEmpty() && Character.isLetterOrDigit(text.charAt(text.length() - 1));
+    }
+}
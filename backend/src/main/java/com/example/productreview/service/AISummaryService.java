@@ -6,7 +6,15 @@ import java.util.List;
 
 public interface AISummaryService {
 
-    String generateReviewSummary(Long productId, String productName, List<Review> reviews);
+    String generateReviewSummary(Long productId, String productName, ReviewProfile profile);
 
-    String chatWithReviews(Long productId, String question, List<Review> reviews);
+    String chatWithReviews(Long productId, String question, ReviewProfile profile);
+
+    default String generateReviewSummary(Long productId, String productName, List<Review> reviews) {
+        return generateReviewSummary(productId, productName, reviews == null ? null : ReviewProfile.of(reviews));
+    }
+
+    default String chatWithReviews(Long productId, String question, List<Review> reviews) {
+        return chatWithReviews(productId, question, reviews == null ? null : ReviewProfile.of(reviews));
+    }
 }
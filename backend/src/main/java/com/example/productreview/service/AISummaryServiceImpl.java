@@ -1,17 +1,11 @@
 package com.example.productreview.service;
 
 import com.example.productreview.exception.ValidationException;
-import com.example.productreview.model.Review;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
-import java.util.List;
-import java.util.Objects;
-import java.util.stream.Collectors;
-
 @Service
 public class AISummaryServiceImpl implements AISummaryService {
 
@@ -42,23 +36,22 @@ public class AISummaryServiceImpl implements AISummaryService {
     }
 
     @Override
-    @Cacheable(value = "aiSummaries", key = "#productId")
-    public String generateReviewSummary(Long productId, String productName, List<Review> reviews) {
-        if (reviews == null || reviews.isEmpty()) {
+    public String generateReviewSummary(Long productId, String productName, ReviewProfile profile) {
+        if (profile == null || profile.count() == 0) {
             log.info("No reviews for product {}, skipping summary", productId);
             return null;
         }
 
         try {
             if (testMode) {
-                String mockSummary = generateMockSummary(productName, reviews);
+                String mockSummary = generateMockSummary(productName, profile);
                 log.info("📝 Generated MOCK summary for product {}: {} chars", productId, mockSummary.length());
                 return mockSummary;
             }
 
             log.error("❌ Real OpenAI API calls not implemented in this version");
             log.error("❌ Please use TEST MODE or implement OpenAI client");
-            return generateMockSummary(productName, reviews);
+            return generateMockSummary(productName, profile);
 
         } catch (Exception e) {
             log.error("Error generating AI summary for product {}: {}", productId, e.getMessage(), e);
@@ -67,8 +60,8 @@ public class AISummaryServiceImpl implements AISummaryService {
     }
 
     @Override
-    public String chatWithReviews(Long productId, String question, List<Review> reviews) {
-        if (reviews == null || reviews.isEmpty()) {
+    public String chatWithReviews(Long productId, String question, ReviewProfile profile) {
+        if (profile == null || profile.count() == 0) {
             return "I couldn't find any reviews for this product to analyze.";
         }
 
@@ -79,24 +72,24 @@ public class AISummaryServiceImpl implements AISummaryService {
         String lowerQuestion = question.trim().toLowerCase();
 
         if (lowerQuestion.contains("how many")) {
-            return String.format("There are %d reviews for this product.", reviews.size());
+            return String.format("There are %d reviews for this product.", profile.count());
         }
 
         if (lowerQuestion.contains("quality") || lowerQuestion.contains("good")) {
-            long positiveCount = reviews.stream().filter(r -> r.getRating() >= 4).count();
-            double percentage = (double) positiveCount / reviews.size();
+            long positiveCount = profile.positiveCount();
+            double percentage = (double) positiveCount / profile.count();
 
             if (percentage >= 0.7) {
-                return String.format("Customers are very happy with the quality! %d out of %d reviews are positive (4-5 stars).", positiveCount, reviews.size());
+                return String.format("Customers are very happy with the quality! %d out of %d reviews are positive (4-5 stars).", positiveCount, profile.count());
             } else if (percentage >= 0.4) {
-                return String.format("Opinions are mixed regarding quality. %d out of %d reviews are positive, but some users have concerns.", positiveCount, reviews.size());
+                return String.format("Opinions are mixed regarding quality. %d out of %d reviews are positive, but some users have concerns.", positiveCount, profile.count());
             } else {
-                return String.format("Many customers have concerns about the quality. Only %d out of %d reviews are positive.", positiveCount, reviews.size());
+                return String.format("Many customers have concerns about the quality. Only %d out of %d reviews are positive.", positiveCount, profile.count());
             }
         }
 
         if (lowerQuestion.contains("complaint") || lowerQuestion.contains("bad")) {
-            long negativeCount = reviews.stream().filter(r -> r.getRating() <= 2).count();
+            long negativeCount = profile.negativeCount();
             if (negativeCount == 0) return "I didn't find any major complaints in the reviews!";
 
             return String.format("There are %d negative reviews (1-2 stars). Some users mentioned issues with delivery or product defects.", negativeCount);
@@ -105,21 +98,9 @@ public class AISummaryServiceImpl implements AISummaryService {
         return "That's an interesting question! Based on the reviews, customers generally have mixed to positive feelings about this product.";
     }
 
-    private String generateMockSummary(String productName, List<Review> reviews) {
-        double avgRating = reviews.stream()
-                .mapToInt(Review::getRating)
-                .average()
-                .orElse(0.0);
-
-        long positiveReviews = reviews.stream()
-                .filter(r -> r.getRating() >= 4)
-                .count();
-
-        long negativeReviews = reviews.stream()
-                .filter(r -> r.getRating() <= 2)
-                .count();
-
-        double positivePercentage = (positiveReviews * 100.0) / reviews.size();
+    private String generateMockSummary(String productName, ReviewProfile profile) {
+        double avgRating = profile.averageRating();
+        double positivePercentage = (profile.positiveCount() * 100.0) / profile.count();
 
         String sentiment;
         if (avgRating >= 4.0) {
@@ -132,12 +113,12 @@ public class AISummaryServiceImpl implements AISummaryService {
             sentiment = "generally negative";
         }
 
-        String commonPraise = extractCommonThemes(reviews, true);
-        String commonComplaints = extractCommonThemes(reviews, false);
+        String commonPraise = extractCommonThemes(profile, true);
+        String commonComplaints = extractCommonThemes(profile, false);
 
         StringBuilder summary = new StringBuilder();
         summary.append(String.format("Based on %d customer reviews, the overall sentiment is %s with an average rating of %.1f stars. ",
-                reviews.size(), sentiment, avgRating));
+                profile.count(), sentiment, avgRating));
 
         if (positivePercentage >= 70) {
             summary.append(String.format("%.0f%% of customers gave 4-5 star ratings. ", positivePercentage));
@@ -156,25 +137,15 @@ public class AISummaryServiceImpl implements AISummaryService {
         return summary.toString();
     }
 
-    private String extractCommonThemes(List<Review> reviews, boolean positive) {
-        List<Review> filtered = reviews.stream()
-                .filter(r -> positive ? r.getRating() >= 4 : r.getRating() <= 2)
-                .collect(Collectors.toList());
-
-        if (filtered.isEmpty()) {
+    private String extractCommonThemes(ReviewProfile profile, boolean positive) {
+        if (positive ? profile.positiveCount() == 0 : profile.negativeCount() == 0) {
             return "";
         }
 
-        List<String> comments = filtered.stream()
-                .map(Review::getComment)
-                .filter(Objects::nonNull)
-                .map(String::toLowerCase)
-                .collect(Collectors.toList());
-
         if (positive) {
-            boolean mentionsQuality = comments.stream().anyMatch(c -> c.contains("quality") || c.contains("great") || c.contains("excellent"));
-            boolean mentionsPerformance = comments.stream().anyMatch(c -> c.contains("performance") || c.contains("fast") || c.contains("speed"));
-            boolean mentionsDesign = comments.stream().anyMatch(c -> c.contains("design") || c.contains("look") || c.contains("beautiful"));
+            boolean mentionsQuality = profile.mentions(ReviewProfile.Theme.QUALITY) > 0;
+            boolean mentionsPerformance = profile.mentions(ReviewProfile.Theme.PERFORMANCE) > 0;
+            boolean mentionsDesign = profile.mentions(ReviewProfile.Theme.DESIGN) > 0;
 
             if (mentionsQuality && mentionsPerformance) {
                 return "Customers praise the excellent quality and strong performance. ";
@@ -190,9 +161,9 @@ public class AISummaryServiceImpl implements AISummaryService {
                 return "Most customers report positive experiences. ";
             }
         } else {
-            boolean mentionsPrice = comments.stream().anyMatch(c -> c.contains("expensive") || c.contains("price") || c.contains("cost"));
-            boolean mentionsBattery = comments.stream().anyMatch(c -> c.contains("battery"));
-            boolean mentionsBugs = comments.stream().anyMatch(c -> c.contains("bug") || c.contains("issue") || c.contains("problem"));
+            boolean mentionsPrice = profile.mentions(ReviewProfile.Theme.PRICE) > 0;
+            boolean mentionsBattery = profile.mentions(ReviewProfile.Theme.BATTERY) > 0;
+            boolean mentionsBugs = profile.mentions(ReviewProfile.Theme.BUGS) > 0;
 
             if (mentionsPrice && mentionsBattery) {
                 return "Some customers feel the price is high and mention battery concerns. ";
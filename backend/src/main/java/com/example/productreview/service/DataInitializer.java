@@ -130,22 +130,12 @@ public class DataInitializer implements CommandLineRunner {
         review.setRating(rating);
         review.setHelpfulCount(0);
         reviewRepository.save(review);
+        product.recordRating(rating);
+        product.recordThemeMentions(ReviewProfile.mentionCounts(ReviewProfile.countedThemes(rating, comment)));
     }
 
     private void updateProductStats(Product product) {
-        List<Object[]> results = reviewRepository.getReviewStats(product.getId());
-
-        int count = 0;
-        double average = 0.0;
-
-        if (results != null && !results.isEmpty() && results.get(0) != null) {
-            Object[] stats = results.get(0);
-            count = stats.length > 0 && stats[0] != null ? ((Number) stats[0]).intValue() : 0;
-            average = stats.length > 1 && stats[1] != null ? ((Number) stats[1]).doubleValue() : 0.0;
-        }
-
-        product.setReviewCount(count);
-        product.setAverageRating(Math.round(average * 10.0) / 10.0);
+        // Counters were advanced by addReview; persist them
         productRepository.save(product);
     }
 }
@@ -0,0 +1,93 @@
+package com.example.productreview.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Recomputes {@code helpful_count}, and the vote term of {@code helpfulness_score}, from {@code review_votes}.
+ * Votes commit before their delta reaches {@link HelpfulVoteCounter}, so deltas lost in a crash leave the
+ * stored counts behind the votes for good.
+ * <p>
+ * A vote caught between its commit and its delta looks like drift for a moment, so a review is only repaired
+ * when the previous run saw the same stored count and vote count. The update is guarded by the stored count
+ * it expects, and deltas still pending land on top of the repaired count as usual. The first run at startup
+ * only observes.
+ */
+@Component
+public class HelpfulCountReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(HelpfulCountReconciler.class);
+    private static final String DRIFT_SQL = "SELECT r.id, r.helpful_count, COUNT(v.review_id) FROM reviews r "
+            + "LEFT JOIN review_votes v ON v.review_id = r.id GROUP BY r.id, r.helpful_count "
+            + "HAVING r.helpful_count <> COUNT(v.review_id)";
+    // Right-hand sides see the pre-update helpful_count, as in HelpfulVoteCounter.FLUSH_SQL
+    static final String REPAIR_SQL = "UPDATE reviews SET helpful_count = ?, "
+            + "helpfulness_score = helpfulness_score - LOG10(helpful_count + 1.0) + LOG10(? + 1.0) "
+            + "WHERE id = ? AND helpful_count = ?";
+
+    private record Drift(long stored, long votes) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HelpfulVoteCounter helpfulVoteCounter;
+    private Map<Long, Drift> previous = Map.of();
+
+    public HelpfulCountReconciler(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  HelpfulVoteCounter helpfulVoteCounter) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.helpfulVoteCounter = helpfulVoteCounter;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void observeAtStartup() {
+        reconcile();
+    }
+
+    /**
+     * Repairs the reviews that drifted the same way on this run and the previous one, and returns how many
+     * were updated.
+     */
+    @Scheduled(initialDelayString = "${reviews.helpful.reconcile-interval-ms:600000}",
+            fixedDelayString = "${reviews.helpful.reconcile-interval-ms:600000}")
+    public synchronized int reconcile() {
+        helpfulVoteCounter.flush();
+        Map<Long, Drift> drifted = new HashMap<>();
+        jdbcTemplate.query(DRIFT_SQL, (RowCallbackHandler) rs ->
+                drifted.put(rs.getLong(1), new Drift(rs.getLong(2), rs.getLong(3))));
+
+        List<Object[]> repairs = new ArrayList<>();
+        drifted.forEach((reviewId, drift) -> {
+            if (drift.equals(previous.get(reviewId)) && helpfulVoteCounter.pending(reviewId) == 0) {
+                repairs.add(new Object[]{drift.votes(), drift.votes(), reviewId, drift.stored()});
+            }
+        });
+        previous = drifted;
+        if (repairs.isEmpty()) {
+            return 0;
+        }
+
+        int[] updated = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(REPAIR_SQL, repairs));
+        int repaired = 0;
+        for (int rows : updated != null ? updated : new int[0]) {
+            repaired += rows != 0 ? 1 : 0;
+        }
+        log.warn("Reconciled helpful counts of {} reviews with their votes", repaired);
+        return repaired;
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.productreview.service;
+
+import com.example.productreview.model.Review;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Pending {@code helpful_count} deltas, so a helpful vote never locks or updates the review row itself.
+ * <p>
+ * Deltas are kept in lock stripes keyed by review id and flushed periodically as one batch of
+ * {@code helpful_count = helpful_count + ?} updates. Readers add {@link #pending(long)} to the stored count,
+ * which includes deltas taken by a flush that has not committed yet. The commit and the removal of its
+ * deltas from {@link #pending(long)} happen under one lock, so a delta is never counted in both places.
+ * <p>
+ * The same statement shifts {@code helpfulness_score} (see {@link Review#helpfulnessScore}) from
+ * {@code log10(1 + old count)} to {@code log10(1 + new count)}, leaving its creation-time term untouched.
+ */
+@Component
+public class HelpfulVoteCounter {
+
+    private static final Logger log = LoggerFactory.getLogger(HelpfulVoteCounter.class);
+    // Right-hand sides see the pre-update helpful_count
+    static final String FLUSH_SQL = "UPDATE reviews SET helpful_count = GREATEST(helpful_count + ?, 0), "
+            + "helpfulness_score = helpfulness_score - LOG10(helpful_count + 1.0) "
+            + "+ LOG10(GREATEST(helpful_count + ?, 0) + 1.0) WHERE id = ?";
+    private static final int STRIPES = 64;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final Object flushLock = new Object();
+    // Held for writing while a flush commits, so pending() never sees committed deltas as still in flight
+    private final ReadWriteLock publishLock = new ReentrantReadWriteLock();
+
+    private static final class Stripe {
+        Map<Long, Long> pending = new HashMap<>();
+        Map<Long, Long> flushing = Map.of();
+    }
+
+    public HelpfulVoteCounter(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    public void add(long reviewId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        Stripe stripe = stripe(reviewId);
+        synchronized (stripe) {
+            stripe.pending.merge(reviewId, (long) delta, Long::sum);
+        }
+    }
+
+    /**
+     * Net delta not yet reflected in the stored count of the review.
+     */
+    public long pending(long reviewId) {
+        Stripe stripe = stripe(reviewId);
+        publishLock.readLock().lock();
+        try {
+            synchronized (stripe) {
+                return stripe.pending.getOrDefault(reviewId, 0L) + stripe.flushing.getOrDefault(reviewId, 0L);
+            }
+        } finally {
+            publishLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes every pending delta in one JDBC batch and returns the number of reviews updated. The batch runs
+     * in one transaction, so on failure none of it is applied and the deltas return to the pending stripes
+     * to be retried by the next flush.
+     */
+    @Scheduled(initialDelayString = "${reviews.helpful.flush-interval-ms:1000}",
+            fixedDelayString = "${reviews.helpful.flush-interval-ms:1000}")
+    public int flush() {
+        synchronized (flushLock) {
+            List<Object[]> updates = new ArrayList<>();
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    stripe.flushing = stripe.pending;
+                    stripe.pending = new HashMap<>();
+                    stripe.flushing.forEach((reviewId, delta) -> {
+                        if (delta != 0) {
+                            updates.add(new Object[]{delta, delta, reviewId});
+                        }
+                    });
+                }
+            }
+            if (updates.isEmpty()) {
+                return 0;
+            }
+
+            boolean written = false;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    jdbcTemplate.batchUpdate(FLUSH_SQL, updates);
+                    publishOnCommit();
+                });
+                written = true;
+            } catch (DataAccessException e) {
+                log.error("Failed to flush {} helpful vote deltas, keeping them for the next run: {}",
+                        updates.size(), e.getMessage());
+            }
+
+            for (Stripe stripe : stripes) {
+                synchronized (stripe) {
+                    if (!written) {
+                        stripe.flushing.forEach((reviewId, delta) -> stripe.pending.merge(reviewId, delta, Long::sum));
+                    }
+                    stripe.flushing = Map.of();
+                }
+            }
+            return written ? updates.size() : 0;
+        }
+    }
+
+    /**
+     * Clears the flushing deltas within the commit itself rather than after it returns.
+     */
+    private void publishOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                publishLock.writeLock().lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) {
+                        for (Stripe stripe : stripes) {
+                            synchronized (stripe) {
+                                stripe.flushing = Map.of();
+                            }
+                        }
+                    }
+                } finally {
+                    if (locked) {
+                        publishLock.writeLock().unlock();
+                    }
+                }
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    private Stripe stripe(long reviewId) {
+        return stripes[Long.hashCode(reviewId * 0x9E3779B97F4A7C15L) & (STRIPES - 1)];
+    }
+}
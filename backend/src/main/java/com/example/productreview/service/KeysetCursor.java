@@ -0,0 +1,57 @@
+package com.example.productreview.service;
+
+import com.example.productreview.exception.ValidationException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position of a keyset page: the sort key and id of the last row returned.
+ * Serialized as an opaque URL-safe token that also pins the sort it was issued for.
+ */
+public record KeysetCursor(String field, Sort.Direction direction, Comparable<?> value, long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = field + SEPARATOR + direction + SEPARATOR + id + SEPARATOR + value;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor and checks it was issued for the requested sort.
+     */
+    public static KeysetCursor decode(String token, String expectedField, Sort.Direction expectedDirection) {
+        String[] parts;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            parts = raw.split("\\|", 4);
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+        if (parts.length != 4) {
+            throw new ValidationException("Invalid cursor");
+        }
+        if (!parts[0].equals(expectedField) || !parts[1].equals(expectedDirection.name())) {
+            throw new ValidationException("Cursor does not match the requested sort");
+        }
+
+        try {
+            return new KeysetCursor(parts[0], expectedDirection, parseValue(parts[0], parts[3]), Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new ValidationException("Invalid cursor");
+        }
+    }
+
+    private static Comparable<?> parseValue(String field, String value) {
+        return switch (field) {
+            case "createdAt" -> LocalDateTime.parse(value);
+            case "rating", "helpfulCount", "reviewCount" -> Integer.valueOf(value);
+            case "price", "averageRating", "helpfulnessScore" -> Double.valueOf(value);
+            case "name" -> value;
+            default -> throw new ValidationException("Cursor pagination is not supported for sort field: " + field);
+        };
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.search.CatalogIndex;
+import com.example.productreview.search.ProductDocument;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Product listing and stats responses, keyed by request plus the version of the catalog scope they were
+ * computed from. Category-only requests depend on that category's version, everything else on the global
+ * one. Committed product writes, including the stats updates made by {@code addReview}, bump the versions
+ * they affect, so stale entries are never served and simply age out of the size bound; there is no TTL.
+ * Hit/miss counts are published as {@code cache.gets{cache=listingResponses}}.
+ */
+@Component
+@Order(CatalogIndex.CACHE_ORDER)
+public class ListingResponseCache implements CatalogIndex {
+
+    static final String CACHE_NAME = "listingResponses";
+
+    private final Cache<ResponseKey, Object> responses = Caffeine.newBuilder()
+            .maximumSize(2_000)
+            .recordStats()
+            .build();
+    private final AtomicLong globalVersion = new AtomicLong();
+    private final Map<String, AtomicLong> categoryVersions = new ConcurrentHashMap<>();
+
+    record ResponseKey(String kind, String category, String search, String page, long version) {
+    }
+
+    public ListingResponseCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, CACHE_NAME);
+    }
+
+    public Page<ProductDTO> listing(String category, String search, Pageable pageable,
+                                    Supplier<Page<ProductDTO>> loader) {
+        String page = pageable.getPageNumber() + ":" + pageable.getPageSize() + ":" + pageable.getSort();
+        return get("listing", category, search, page, loader);
+    }
+
+    public Map<String, Object> stats(String category, String search, Supplier<Map<String, Object>> loader) {
+        return get("stats", category, search, "", loader);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T get(String kind, String category, String search, String page, Supplier<T> loader) {
+        String normalizedSearch = search == null ? null : search.trim().toLowerCase();
+        // Read the version before loading: a write racing the load bumps it and orphans the entry
+        long version = category != null && normalizedSearch == null
+                ? categoryVersion(category).get()
+                : globalVersion.get();
+        ResponseKey key = new ResponseKey(kind, category, normalizedSearch, page, version);
+        return (T) responses.get(key, k -> loader.get());
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        globalVersion.incrementAndGet();
+        categoryVersions.values().forEach(AtomicLong::incrementAndGet);
+        responses.invalidateAll();
+    }
+
+    @Override
+    public void upsert(ProductDocument previous, ProductDocument current) {
+        if (previous != null) {
+            bump(previous);
+        }
+        bump(current);
+    }
+
+    @Override
+    public void remove(ProductDocument previous) {
+        bump(previous);
+    }
+
+    private void bump(ProductDocument document) {
+        globalVersion.incrementAndGet();
+        document.categories().forEach(category -> categoryVersion(category).incrementAndGet());
+    }
+
+    private AtomicLong categoryVersion(String category) {
+        return categoryVersions.computeIfAbsent(category, k -> new AtomicLong());
+    }
+}
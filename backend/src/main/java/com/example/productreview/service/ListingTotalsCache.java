@@ -0,0 +1,84 @@
+package com.example.productreview.service;
+
+import com.example.productreview.search.CatalogIndex;
+import com.example.productreview.search.ProductDocument;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.LongSupplier;
+
+/**
+ * Totals of the slice listings, so a page request does not pay for a {@code COUNT} query every time.
+ * Invalidated from committed catalog writes: product totals when a product is added, removed or its
+ * searchable text or categories change, a product's review totals when its review count changes.
+ */
+@Component
+@Order(CatalogIndex.CACHE_ORDER)
+public class ListingTotalsCache implements CatalogIndex {
+
+    static final String PRODUCTS = "products";
+
+    private final Cache<TotalsKey, Long> totals = Caffeine.newBuilder()
+            .maximumSize(10_000)
+            .expireAfterWrite(Duration.ofMinutes(30))
+            .build();
+
+    /**
+     * @param filter   the listing, {@link #PRODUCTS} or the reviews of one product
+     * @param category category filter, or {@code null}
+     * @param search   normalized search text, or {@code null}
+     * @param rating   star rating filter, or {@code null}
+     */
+    public record TotalsKey(String filter, String category, String search, Integer rating) {
+
+        public static TotalsKey products(String category, String search) {
+            return new TotalsKey(PRODUCTS, category, search == null ? null : search.trim().toLowerCase(), null);
+        }
+
+        public static TotalsKey reviews(long productId, Integer rating) {
+            return new TotalsKey(reviewsFilter(productId), null, null, rating);
+        }
+    }
+
+    public long get(TotalsKey key, LongSupplier loader) {
+        return totals.get(key, k -> loader.getAsLong());
+    }
+
+    public void invalidateProducts() {
+        totals.asMap().keySet().removeIf(key -> key.filter().equals(PRODUCTS));
+    }
+
+    public void invalidateReviews(long productId) {
+        String filter = reviewsFilter(productId);
+        totals.asMap().keySet().removeIf(key -> key.filter().equals(filter));
+    }
+
+    @Override
+    public void rebuild(Collection<ProductDocument> documents) {
+        totals.invalidateAll();
+    }
+
+    @Override
+    public void upsert(ProductDocument previous, ProductDocument current) {
+        if (previous == null || !previous.sameText(current) || !previous.categories().equals(current.categories())) {
+            invalidateProducts();
+        }
+        if (previous == null || previous.reviewCount() != current.reviewCount()) {
+            invalidateReviews(current.id());
+        }
+    }
+
+    @Override
+    public void remove(ProductDocument previous) {
+        invalidateProducts();
+        invalidateReviews(previous.id());
+    }
+
+    private static String reviewsFilter(long productId) {
+        return "reviews:" + productId;
+    }
+}
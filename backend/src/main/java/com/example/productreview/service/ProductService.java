@@ -1,10 +1,15 @@
 package com.example.productreview.service;
 
+import com.example.productreview.dto.CursorPage;
 import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.dto.ProductSuggestionDTO;
 import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.dto.ReviewSummaryDTO;
+import com.example.productreview.dto.SlicePage;
 import com.example.productreview.model.Product;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Map;
@@ -12,12 +17,34 @@ import java.util.Map;
 public interface ProductService {
     // Updated to accept search query
     Page<ProductDTO> getAllProducts(String category, String search, Pageable pageable);
+
+    SlicePage<ProductDTO> getProductSlice(String category, String search, Pageable pageable);
     
+    CursorPage<ProductDTO> scrollProducts(String category, String sortField, Sort.Direction direction, String cursor, int size);
+
+    List<ProductSuggestionDTO> suggestProducts(String query, int limit);
+
     ProductDTO getProductDTOById(Long id);
+
+    /**
+     * The product's AI review summary as currently known; a missing or stale one is regenerated in the
+     * background, so this never waits for the AI.
+     */
+    ReviewSummaryDTO getReviewSummary(Long productId);
     
     Product getProductById(Long id);
     
     Page<ReviewDTO> getReviewsByProductId(Long productId, Integer rating, Pageable pageable);
+
+    /**
+     * Reviews of the product whose comment matches every word of {@code query}, newest first, with the
+     * matching words of each comment marked in {@link ReviewDTO#getHighlights()}. The pageable's sort is ignored.
+     */
+    Page<ReviewDTO> searchReviews(Long productId, Integer rating, String query, Pageable pageable);
+
+    SlicePage<ReviewDTO> getReviewSlice(Long productId, Integer rating, Pageable pageable);
+    
+    CursorPage<ReviewDTO> scrollReviews(Long productId, Integer rating, String sortField, Sort.Direction direction, String cursor, int size);
     
     ReviewDTO addReview(Long productId, ReviewDTO reviewDTO);
     
@@ -25,8 +52,15 @@ public interface ProductService {
     
     List<Long> getUserVotedReviewIds(String userId);
 
+    /**
+     * Ids the user has voted helpful on among the reviews of one product, or among the given review ids.
+     */
+    List<Long> getUserVotedReviewIds(String userId, Long productId, List<Long> reviewIds);
+
     String chatAboutProduct(Long productId, String question);
     
     // ✨ NEW: Get global statistics for hero section (supports filtering)
     Map<String, Object> getGlobalStats(String category, String search);
+
+    Map<String, Object> getCategoryFacets(String search);
 }
\ No newline at end of file
@@ -1,120 +1,426 @@
 package com.example.productreview.service;
 
+import com.example.productreview.dto.CursorPage;
 import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.dto.ProductSuggestionDTO;
 import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.dto.ReviewSummaryDTO;
+import com.example.productreview.dto.SlicePage;
+import com.example.productreview.exception.DuplicateReviewException;
 import com.example.productreview.exception.ResourceNotFoundException;
+import com.example.productreview.exception.ValidationException;
 import com.example.productreview.model.Product;
 import com.example.productreview.model.Review;
-import com.example.productreview.model.ReviewVote;
+import com.example.productreview.repository.KeysetSpecifications;
 import com.example.productreview.repository.ProductRepository;
 import com.example.productreview.repository.ReviewRepository;
 import com.example.productreview.repository.ReviewVoteRepository;
+import com.example.productreview.search.CatalogStatistics;
+import com.example.productreview.search.CategoryIndex;
+import com.example.productreview.search.ProductCatalog;
+import com.example.productreview.search.ProductDocument;
+import com.example.productreview.search.ProductOrdering;
+import com.example.productreview.search.ProductSearchIndex;
+import com.example.productreview.search.ProductSuggestIndex;
+import com.example.productreview.search.SearchHits;
+import com.example.productreview.search.SortedOrderIndex;
+import org.roaringbitmap.RoaringBitmap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.function.LongPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 @Service
 public class ProductServiceImpl implements ProductService {
     
     private static final Logger log = LoggerFactory.getLogger(ProductServiceImpl.class);
-    private static final int AI_REVIEW_MAX_COUNT = 50;
     
     private final ProductRepository productRepository;
     private final ReviewRepository reviewRepository;
     private final ReviewVoteRepository reviewVoteRepository;
     private final AISummaryService aiSummaryService;
+    private final ProductCatalog productCatalog;
+    private final ProductSearchIndex productSearchIndex;
+    private final CategoryIndex categoryIndex;
+    private final ListingTotalsCache listingTotals;
+    private final CatalogStatistics catalogStatistics;
+    private final ListingResponseCache responseCache;
+    private final ProductSuggestIndex productSuggestIndex;
+    private final SortedOrderIndex sortedOrderIndex;
+    private final HelpfulVoteCounter helpfulVoteCounter;
+    private final UserVoteCache userVoteCache;
+    private final ReviewCommentIndex reviewCommentIndex;
+    private final ReviewDuplicateIndex reviewDuplicateIndex;
+    private final ReviewRatingRollups reviewRatingRollups;
+    private final ReviewSummaryPipeline reviewSummaryPipeline;
 
     public ProductServiceImpl(ProductRepository productRepository, 
                               ReviewRepository reviewRepository, 
                               ReviewVoteRepository reviewVoteRepository,
-                              AISummaryService aiSummaryService) {
+                              AISummaryService aiSummaryService,
+                              ProductCatalog productCatalog,
+                              ProductSearchIndex productSearchIndex,
+                              CategoryIndex categoryIndex,
+                              ListingTotalsCache listingTotals,
+                              CatalogStatistics catalogStatistics,
+                              ListingResponseCache responseCache,
+                              ProductSuggestIndex productSuggestIndex,
+                              SortedOrderIndex sortedOrderIndex,
+                              HelpfulVoteCounter helpfulVoteCounter,
+                              UserVoteCache userVoteCache,
+                              ReviewCommentIndex reviewCommentIndex,
+                              ReviewDuplicateIndex reviewDuplicateIndex,
+                              ReviewRatingRollups reviewRatingRollups,
+                              ReviewSummaryPipeline reviewSummaryPipeline) {
         this.productRepository = productRepository;
         this.reviewRepository = reviewRepository;
         this.reviewVoteRepository = reviewVoteRepository;
         this.aiSummaryService = aiSummaryService;
+        this.productCatalog = productCatalog;
+        this.productSearchIndex = productSearchIndex;
+        this.categoryIndex = categoryIndex;
+        this.listingTotals = listingTotals;
+        this.catalogStatistics = catalogStatistics;
+        this.responseCache = responseCache;
+        this.productSuggestIndex = productSuggestIndex;
+        this.sortedOrderIndex = sortedOrderIndex;
+        this.helpfulVoteCounter = helpfulVoteCounter;
+        this.userVoteCache = userVoteCache;
+        this.reviewCommentIndex = reviewCommentIndex;
+        this.reviewDuplicateIndex = reviewDuplicateIndex;
+        this.reviewRatingRollups = reviewRatingRollups;
+        this.reviewSummaryPipeline = reviewSummaryPipeline;
     }
 
+    /**
+     * Not transactional on purpose: cache hits are answered without borrowing a connection.
+     */
     @Override
     public Page<ProductDTO> getAllProducts(String category, String search, Pageable pageable) {
+        if (!productCatalog.isReady()) {
+            return listProducts(category, search, pageable);
+        }
+        return responseCache.listing(normalizeCategory(category), normalizeSearch(search), pageable,
+                () -> listProducts(category, search, pageable));
+    }
+
+    private Page<ProductDTO> listProducts(String category, String search, Pageable pageable) {
         boolean hasCategory = category != null && !category.isEmpty() && !category.equalsIgnoreCase("All");
         boolean hasSearch = search != null && !search.trim().isEmpty();
         
         log.info("Service getAllProducts: hasCategory={}, hasSearch={}, search='{}'", hasCategory, hasSearch, search);
 
-        Page<Product> products;
+        if (hasSearch && productCatalog.isReady()) {
+            log.info("Searching via in-memory BM25 index");
+            return searchProducts(hasCategory ? category : null, search, pageable);
+        }
+        if (productCatalog.isReady() && SortedOrderIndex.supports(pageable.getSort())) {
+            log.info("Browsing via presorted orderings");
+            String filter = hasCategory ? category : null;
+            long[] pageIds = sortedOrderIndex.page(filter, pageable.getSort(), pageable.getOffset(), pageable.getPageSize());
+            return new PageImpl<>(loadProductDTOs(pageIds), pageable, sortedOrderIndex.count(filter));
+        }
+        if (hasCategory && productCatalog.isReady()) {
+            log.info("Browsing category via bitmap index");
+            RoaringBitmap members = categoryIndex.members(category);
+            long[] pageIds = sortedPage(members.stream().asLongStream(), pageable);
+            return new PageImpl<>(loadProductDTOs(pageIds), pageable, members.getCardinality());
+        }
 
-        if (hasCategory && hasSearch) {
+        String categoryFilter = hasCategory ? category : null;
+        String searchFilter = hasSearch ? search : null;
+        Slice<ProductDTO> products = queryListing(categoryFilter, searchFilter, pageable);
+
+        if (log.isDebugEnabled()) {
+            products.getContent().forEach(p ->
+                log.debug("Product: {}, Categories: {}", p.getName(), p.getCategories())
+            );
+        }
+
+        return new PageImpl<>(products.getContent(), pageable, countProducts(categoryFilter, searchFilter));
+    }
+
+    /**
+     * Reads one page of listing DTOs without materializing entities: one projection query for the rows
+     * and one batched query for their categories.
+     */
+    private Slice<ProductDTO> queryListing(String category, String search, Pageable pageable) {
+        Slice<ProductDTO> products;
+        if (category != null && search != null) {
             log.info("Searching by Category AND Name");
-            products = productRepository.findByCategoryAndNameContainingIgnoreCase(category, search, pageable);
-        } else if (hasCategory) {
+            products = productRepository.findListingByCategoryAndNameContainingIgnoreCase(category, search, pageable);
+        } else if (category != null) {
             log.info("Searching by Category");
-            products = productRepository.findByCategory(category, pageable);
-        } else if (hasSearch) {
+            products = productRepository.findListingByCategory(category, pageable);
+        } else if (search != null) {
             log.info("Searching by Name");
-            products = productRepository.findByNameContainingIgnoreCase(search, pageable);
+            products = productRepository.findListingByNameContainingIgnoreCase(search, pageable);
         } else {
             log.info("Returning ALL products");
-            products = productRepository.findAll(pageable);
+            products = productRepository.findListingBy(pageable);
         }
-        
-        if (log.isDebugEnabled()) {
-            products.getContent().forEach(p ->
-                log.debug("Product: {}, Categories: {}", p.getName(), p.getCategories())
-            );
+        attachCategories(products.getContent());
+        return products;
+    }
+
+    private List<ProductDTO> attachCategories(List<ProductDTO> products) {
+        if (products.isEmpty()) {
+            return products;
         }
-        
-        return products.map(this::convertToProductDTO);
+        Map<Long, ProductDTO> byId = products.stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+        for (Object[] row : productRepository.findCategoriesByProductIdIn(byId.keySet())) {
+            byId.get((Long) row[0]).getCategories().add((String) row[1]);
+        }
+        return products;
+    }
+
+    private long countProducts(String category, String search) {
+        if (category == null && search == null && productCatalog.isReady()) {
+            return productCatalog.size();
+        }
+        return listingTotals.get(ListingTotalsCache.TotalsKey.products(category, search), () -> {
+            if (category != null && search != null) {
+                return productRepository.countInCategoryMatchingName(category, search);
+            } else if (category != null) {
+                return productRepository.countInCategory(category);
+            } else if (search != null) {
+                return productRepository.countByNameContainingIgnoreCase(search);
+            }
+            return productRepository.count();
+        });
+    }
+
+    /**
+     * Matches come from the BM25 index; only the requested page is loaded from the database.
+     * Unsorted requests are ranked by relevance, explicit sorts are applied to the matches in memory.
+     */
+    private Page<ProductDTO> searchProducts(String category, String search, Pageable pageable) {
+        LongPredicate inCategory = category == null ? null : id -> categoryIndex.contains(category, id);
+        SearchHits hits = matchSearch(search, inCategory);
+
+        long[] pageIds = pageable.getSort().isUnsorted()
+                ? hits.rankedPage(pageable.getOffset(), pageable.getPageSize())
+                : sortedPage(Arrays.stream(hits.ids()), pageable);
+
+        return new PageImpl<>(loadProductDTOs(pageIds), pageable, hits.size());
+    }
+
+    /**
+     * BM25 matches for the query; when nothing matches exactly, retries tolerating typos so a misspelled
+     * query still resolves in a single request.
+     */
+    private SearchHits matchSearch(String search, LongPredicate filter) {
+        SearchHits hits = productSearchIndex.search(search, filter);
+        if (hits.size() > 0) {
+            return hits;
+        }
+        log.debug("No exact matches for '{}', retrying with typo tolerance", search);
+        return productSearchIndex.search(search, filter, true);
+    }
+
+    private long[] sortedPage(LongStream ids, Pageable pageable) {
+        return ids.mapToObj(productCatalog::get)
+                .filter(Objects::nonNull)
+                .sorted(ProductOrdering.comparator(pageable.getSort()))
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .mapToLong(ProductDocument::id)
+                .toArray();
+    }
+
+    private List<ProductDTO> loadProductDTOs(long[] ids) {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        List<ProductDTO> rows = productRepository.findListingByIdIn(Arrays.stream(ids).boxed().toList());
+        Map<Long, ProductDTO> byId = attachCategories(rows).stream()
+                .collect(Collectors.toMap(ProductDTO::getId, Function.identity()));
+        return Arrays.stream(ids)
+                .mapToObj(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     @Override
     @Transactional(readOnly = true)
-    public ProductDTO getProductDTOById(Long id) {
-        Product product = getProductById(id);
-        ProductDTO productDTO = convertToProductDTO(product);
-        
-        Map<Integer, Long> ratingBreakdown = new HashMap<>();
-        for (int i = 1; i <= 5; i++) {
-            ratingBreakdown.put(i, 0L);
-        }
-        
-        List<Object[]> counts = reviewRepository.findRatingCountsByProductId(id);
-        for (Object[] result : counts) {
-            Integer rating = (Integer) result[0];
-            Long count = (Long) result[1];
-            ratingBreakdown.put(rating, count);
+    public SlicePage<ProductDTO> getProductSlice(String category, String search, Pageable pageable) {
+        // Listing totals come from the catalog, the indexes or ListingTotalsCache, never a per-request COUNT
+        return SlicePage.of(getAllProducts(category, search, pageable));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public SlicePage<ReviewDTO> getReviewSlice(Long productId, Integer rating, Pageable pageable) {
+        Slice<ReviewDTO> reviews = reviewRepository.findSliceByProductIdAndRating(productId, rating, pageable)
+                .map(this::convertToReviewDTO);
+        return new SlicePage<>(reviews, countReviews(productId, rating));
+    }
+
+    /**
+     * Review totals come from the denormalized {@code reviewCount}, or from the product's star counters when
+     * filtering by rating, instead of counting the filtered reviews.
+     */
+    private long countReviews(Long productId, Integer rating) {
+        if (rating == null) {
+            ProductDocument document = productCatalog.isReady() ? productCatalog.get(productId) : null;
+            if (document != null) {
+                return document.reviewCount();
+            }
         }
-        
-        productDTO.setRatingBreakdown(ratingBreakdown);
-        
-        try {
-            Pageable aiPageable = PageRequest.of(0, AI_REVIEW_MAX_COUNT, Sort.by(Sort.Direction.DESC, "createdAt"));
-            List<Review> reviews = reviewRepository.findByProductId(id, aiPageable).getContent();
-            if (!reviews.isEmpty()) {
-                String aiSummary = aiSummaryService.generateReviewSummary(
-                        id,
-                        product.getName(),
-                        reviews
-                );
-                productDTO.setAiSummary(aiSummary);
+        return listingTotals.get(ListingTotalsCache.TotalsKey.reviews(productId, rating), () -> {
+            if (rating == null) {
+                return productRepository.findReviewCountById(productId).orElse(0);
             }
-        } catch (Exception e) {
-            log.error("Error generating AI summary for product {}: {}", id, e.getMessage());
+            return productRepository.findById(productId)
+                    .map(product -> product.getRatingBreakdown().getOrDefault(rating, 0L))
+                    .orElse(0L);
+        });
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProductDTO> scrollProducts(String category, String sortField, Sort.Direction direction,
+                                                 String cursor, int size) {
+        boolean hasCategory = category != null && !category.isEmpty() && !category.equalsIgnoreCase("All");
+
+        Specification<Product> spec = Specification.where(null);
+        if (hasCategory) {
+            spec = spec.and((root, query, cb) -> cb.isMember(category, root.<Set<String>>get("categories")));
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor, sortField, direction);
+            spec = spec.and(KeysetSpecifications.after(sortField, direction, position.value(), position.id()));
+        }
+
+        // Same two statements as the other listings: the DTO projection, then one batched categories query
+        List<ProductDTO> rows = productRepository.findListing(spec,
+                KeysetSpecifications.keysetSort(sortField, direction), size + 1);
+        attachCategories(rows);
+
+        return toCursorPage(rows, size, Function.identity(),
+                p -> new KeysetCursor(sortField, direction, productSortKey(p, sortField), p.getId()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ReviewDTO> scrollReviews(Long productId, Integer rating, String sortField,
+                                               Sort.Direction direction, String cursor, int size) {
+        Specification<Review> spec = Specification.where(
+                (root, query, cb) -> cb.equal(root.get("product").get("id"), productId));
+        if (rating != null) {
+            spec = spec.and((root, query, cb) -> cb.equal(root.get("rating"), rating));
         }
+        if (cursor != null && !cursor.isBlank()) {
+            KeysetCursor position = KeysetCursor.decode(cursor, sortField, direction);
+            spec = spec.and(KeysetSpecifications.after(sortField, direction, position.value(), position.id()));
+        }
+
+        List<Review> rows = reviewRepository.findBy(spec, query -> query
+                .sortBy(KeysetSpecifications.keysetSort(sortField, direction))
+                .limit(size + 1)
+                .all());
 
+        return toCursorPage(rows, size, this::convertToReviewDTO,
+                r -> new KeysetCursor(sortField, direction, reviewSortKey(r, sortField), r.getId()));
+    }
+
+    private static <E, D> CursorPage<D> toCursorPage(List<E> rows, int size, Function<E, D> mapper,
+                                                     Function<E, KeysetCursor> positionOf) {
+        boolean hasNext = rows.size() > size;
+        List<E> page = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? positionOf.apply(page.get(page.size() - 1)).encode() : null;
+        return new CursorPage<>(page.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+
+    private static Comparable<?> productSortKey(ProductDTO product, String sortField) {
+        return switch (sortField) {
+            case "name" -> product.getName();
+            case "price" -> product.getPrice();
+            case "averageRating" -> product.getAverageRating();
+            case "reviewCount" -> product.getReviewCount();
+            default -> throw new ValidationException("Cursor pagination is not supported for sort field: " + sortField);
+        };
+    }
+
+    private static Comparable<?> reviewSortKey(Review review, String sortField) {
+        return switch (sortField) {
+            case "createdAt" -> review.getCreatedAt();
+            case "rating" -> review.getRating();
+            case "helpfulCount" -> review.getHelpfulCount();
+            case "helpfulnessScore" -> review.getHelpfulnessScore();
+            default -> throw new ValidationException("Cursor pagination is not supported for sort field: " + sortField);
+        };
+    }
+
+    @Override
+    public List<ProductSuggestionDTO> suggestProducts(String query, int limit) {
+        if (query == null || query.isBlank()) {
+            return new ArrayList<>();
+        }
+        if (!productCatalog.isReady()) {
+            return productRepository.findSuggestions(query.trim(), PageRequest.of(0, limit));
+        }
+        return Arrays.stream(productSuggestIndex.suggest(query, limit))
+                .mapToObj(productCatalog::get)
+                .filter(Objects::nonNull)
+                .map(document -> new ProductSuggestionDTO(document.id(), document.name()))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ProductDTO getProductDTOById(Long id) {
+        Product product = getProductById(id);
+        ProductDTO productDTO = convertToProductDTO(product);
+        productDTO.setRatingBreakdown(product.getRatingBreakdown());
+
+        // Never generates inline: the last known summary is returned and a refresh queued if needed
+        ReviewSummaryPipeline.Snapshot summary = reviewSummaryPipeline.current(id,
+                product.getReviewCount() != null ? product.getReviewCount() : 0);
+        productDTO.setAiSummary(summary.summary());
+        productDTO.setAiSummaryStatus(summary.status().name());
         return productDTO;
     }
 
+    @Override
+    public ReviewSummaryDTO getReviewSummary(Long productId) {
+        int reviewCount;
+        ProductDocument document = productCatalog.isReady() ? productCatalog.get(productId) : null;
+        if (document != null) {
+            reviewCount = document.reviewCount();
+        } else {
+            List<Object[]> rows = productRepository.findReviewStatsById(productId);
+            if (rows.isEmpty() || rows.get(0) == null) {
+                throw new ResourceNotFoundException("Product", productId);
+            }
+            reviewCount = rows.get(0)[0] != null ? ((Number) rows.get(0)[0]).intValue() : 0;
+        }
+        ReviewSummaryPipeline.Snapshot summary = reviewSummaryPipeline.current(productId, reviewCount);
+        return new ReviewSummaryDTO(productId, summary.status().name(), summary.summary(), summary.generatedAt());
+    }
+
     @Override
     public Product getProductById(Long id) {
         return productRepository.findById(id)
@@ -132,76 +438,166 @@ public class ProductServiceImpl implements ProductService {
                 .map(this::convertToReviewDTO);
     }
 
+    /**
+     * Matches come from {@link ReviewCommentIndex}; only the requested page of reviews is loaded.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<ReviewDTO> searchReviews(Long productId, Integer rating, String query, Pageable pageable) {
+        ProductDocument document = productCatalog.isReady() ? productCatalog.get(productId) : null;
+        int reviewCount = document != null
+                ? document.reviewCount()
+                : productRepository.findReviewCountById(productId).orElse(0);
+        ReviewCommentIndex.Matches matches = reviewCommentIndex.search(productId, reviewCount, query, rating,
+                pageable.getOffset(), pageable.getPageSize());
+        if (matches.reviewIds().length == 0) {
+            return new PageImpl<>(new ArrayList<>(), pageable, matches.total());
+        }
+
+        Map<Long, Review> byId = reviewRepository.findAllById(Arrays.stream(matches.reviewIds()).boxed().toList())
+                .stream()
+                .collect(Collectors.toMap(Review::getId, Function.identity()));
+        List<ReviewDTO> page = Arrays.stream(matches.reviewIds())
+                .mapToObj(byId::get)
+                .filter(Objects::nonNull)
+                .map(review -> {
+                    ReviewDTO dto = convertToReviewDTO(review);
+                    dto.setHighlights(ReviewCommentIndex.highlights(review.getComment(), query));
+                    return dto;
+                })
+                .collect(Collectors.toList());
+        return new PageImpl<>(page, pageable, matches.total());
+    }
+
     @Override
     @Transactional
-    @CacheEvict(value = "aiSummaries", key = "#productId")
     public ReviewDTO addReview(Long productId, ReviewDTO reviewDTO) {
-        Product product = productRepository.findByIdForUpdate(productId)
-                .orElseThrow(() -> new ResourceNotFoundException("Product", productId));
+        ReviewDuplicateIndex.Check duplicate = reviewDuplicateIndex.check(productId, reviewDTO.getComment());
+        if (duplicate.duplicateOf() != null && reviewDuplicateIndex.isRejecting()) {
+            throw new DuplicateReviewException(duplicate.duplicateOf());
+        }
+
+        // A single delta UPDATE both checks the product exists and applies the rating; concurrent
+        // reviews serialize on the row only for the duration of that statement
+        if (productRepository.applyReviewRating(productId, reviewDTO.getRating()) == 0) {
+            throw new ResourceNotFoundException("Product", productId);
+        }
+        int themes = ReviewProfile.countedThemes(reviewDTO.getRating(), reviewDTO.getComment());
+        if (themes != 0) {
+            productRepository.applyThemeMentions(productId, ReviewProfile.mentionCounts(themes));
+        }
 
         Review review = new Review();
         review.setReviewerName(reviewDTO.getReviewerName());
         review.setComment(reviewDTO.getComment());
         review.setRating(reviewDTO.getRating());
         review.setHelpfulCount(0);
-        review.setProduct(product);
+        review.setMinhashSignature(duplicate.signature());
+        review.setDuplicateOfReviewId(duplicate.duplicateOf());
+        review.setProduct(productRepository.getReferenceById(productId));
 
         Review savedReview = reviewRepository.save(review);
-        updateProductStats(product);
+        reviewRatingRollups.add(productId, savedReview.getCreatedAt().toLocalDate(), 1, savedReview.getRating());
+        publishReviewStats(productId);
+        reviewCommentIndex.reviewAdded(productId, savedReview.getId(), savedReview.getRating(), savedReview.getComment());
+        reviewDuplicateIndex.reviewAdded(productId, savedReview.getId(), duplicate.signature());
 
         return convertToReviewDTO(savedReview);
     }
 
+    /**
+     * Toggles the vote through the unique constraint on {@code review_votes} and hands the count change to
+     * {@link HelpfulVoteCounter}, so concurrent votes on one review never queue on its row lock.
+     */
     @Override
-    @Transactional
     public ReviewDTO markReviewAsHelpful(Long reviewId, String userId) {
-        Review review = reviewRepository.findByIdForUpdate(reviewId)
+        Review review = reviewRepository.findById(reviewId)
                 .orElseThrow(() -> new ResourceNotFoundException("Review", reviewId));
 
-        if (review.getHelpfulCount() == null) {
-            review.setHelpfulCount(0);
+        int delta = userId != null ? toggleVote(userId, reviewId) : 1;
+        helpfulVoteCounter.add(reviewId, delta);
+        if (userId != null && delta != 0) {
+            userVoteCache.voted(userId, reviewId, delta > 0);
         }
+        return convertToReviewDTO(review);
+    }
 
-        if (userId != null) {
-            Optional<ReviewVote> existingVote = reviewVoteRepository.findByUserIdAndReview_Id(userId, reviewId);
-            
-            if (existingVote.isPresent()) {
-                reviewVoteRepository.delete(existingVote.get());
-                if (review.getHelpfulCount() > 0) {
-                    review.setHelpfulCount(review.getHelpfulCount() - 1);
-                }
-            } else {
-                reviewVoteRepository.save(new ReviewVote(userId, review));
-                review.setHelpfulCount(review.getHelpfulCount() + 1);
-            }
-        } else {
-            review.setHelpfulCount(review.getHelpfulCount() + 1);
+    private int toggleVote(String userId, Long reviewId) {
+        if (reviewVoteRepository.deleteVote(userId, reviewId) > 0) {
+            return -1;
+        }
+        try {
+            reviewVoteRepository.insertVote(userId, reviewId);
+            return 1;
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent toggle by the same user inserted first, so this one takes the vote back
+            return reviewVoteRepository.deleteVote(userId, reviewId) > 0 ? -1 : 0;
         }
-        
-        Review savedReview = reviewRepository.save(review);
-        return convertToReviewDTO(savedReview);
     }
-    
+
     @Override
     public List<Long> getUserVotedReviewIds(String userId) {
-        return reviewVoteRepository.findReviewIdsByUserId(userId);
+        return userVoteCache.all(userId);
+    }
+
+    @Override
+    public List<Long> getUserVotedReviewIds(String userId, Long productId, List<Long> reviewIds) {
+        if (reviewIds != null && !reviewIds.isEmpty()) {
+            return userVoteCache.filter(userId, reviewIds);
+        }
+        if (productId != null) {
+            return reviewVoteRepository.findReviewIdsByUserIdAndProductId(userId, productId);
+        }
+        return new ArrayList<>();
     }
     
     @Override
     @Transactional(readOnly = true)
     public String chatAboutProduct(Long productId, String question) {
-        getProductById(productId);
-        Pageable aiPageable = PageRequest.of(0, AI_REVIEW_MAX_COUNT, Sort.by(Sort.Direction.DESC, "createdAt"));
-        List<Review> reviews = reviewRepository.findByProductId(productId, aiPageable).getContent();
-        return aiSummaryService.chatWithReviews(productId, question, reviews);
+        // Answers come from the product's rating and theme counters, covering every review without reading any
+        return aiSummaryService.chatWithReviews(productId, question, ReviewProfile.of(getProductById(productId)));
     }
     
     @Override
-    @Transactional(readOnly = true)
     public Map<String, Object> getGlobalStats(String category, String search) {
+        if (!productCatalog.isReady()) {
+            return computeGlobalStats(category, search);
+        }
+        return responseCache.stats(normalizeCategory(category), normalizeSearch(search),
+                () -> computeGlobalStats(category, search));
+    }
+
+    private Map<String, Object> computeGlobalStats(String category, String search) {
         boolean hasCategory = category != null && !category.isEmpty() && !category.equalsIgnoreCase("All");
         boolean hasSearch = search != null && !search.trim().isEmpty();
 
+        if (!hasSearch && productCatalog.isReady()) {
+            CatalogStatistics.Totals totals = hasCategory
+                    ? catalogStatistics.category(category)
+                    : catalogStatistics.global();
+            return toStatsMap(category, search, totals.products(), totals.reviews(), totals.averageRating());
+        }
+
+        if (hasSearch && productCatalog.isReady()) {
+            RoaringBitmap matches = CategoryIndex.toBitmap(matchSearch(search, null).ids());
+            if (hasCategory) {
+                matches.and(categoryIndex.members(category));
+            }
+
+            long totalReviews = 0L;
+            double ratingSum = 0.0;
+            for (int id : matches) {
+                ProductDocument document = productCatalog.get(id);
+                if (document != null) {
+                    totalReviews += document.reviewCount();
+                    ratingSum += document.averageRating();
+                }
+            }
+            long totalProducts = matches.getCardinality();
+            double avgRating = totalProducts > 0 ? ratingSum / totalProducts : 0.0;
+            return toStatsMap(category, search, totalProducts, totalReviews, avgRating);
+        }
+
         List<Object[]> results;
         if (hasCategory && hasSearch) {
             results = productRepository.getCategoryAndSearchStats(category, search);
@@ -224,6 +620,49 @@ public class ProductServiceImpl implements ProductService {
             totalProducts = row.length > 2 && row[2] != null ? ((Number) row[2]).longValue() : 0L;
         }
 
+        return toStatsMap(category, search, totalProducts, totalReviews, avgRating);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getCategoryFacets(String search) {
+        boolean hasSearch = search != null && !search.trim().isEmpty();
+
+        Map<String, Long> counts;
+        long total;
+        if (productCatalog.isReady()) {
+            RoaringBitmap candidates = hasSearch
+                    ? CategoryIndex.toBitmap(matchSearch(search, null).ids())
+                    : categoryIndex.allProducts();
+            counts = categoryIndex.facetCounts(candidates);
+            total = candidates.getCardinality();
+        } else {
+            List<Object[]> rows = hasSearch
+                    ? productRepository.countByCategoryMatchingName(search)
+                    : productRepository.countByCategory();
+            counts = new TreeMap<>();
+            for (Object[] row : rows) {
+                counts.put((String) row[0], ((Number) row[1]).longValue());
+            }
+            total = hasSearch ? productRepository.countByNameContainingIgnoreCase(search) : productRepository.count();
+        }
+
+        Map<String, Object> facets = new HashMap<>();
+        facets.put("totalProducts", total);
+        facets.put("categories", counts);
+        return facets;
+    }
+
+    private static String normalizeCategory(String category) {
+        return category == null || category.isEmpty() || category.equalsIgnoreCase("All") ? null : category;
+    }
+
+    private static String normalizeSearch(String search) {
+        return search == null || search.trim().isEmpty() ? null : search;
+    }
+
+    private Map<String, Object> toStatsMap(String category, String search,
+                                           long totalProducts, long totalReviews, double avgRating) {
         avgRating = Math.round(avgRating * 10.0) / 10.0;
 
         Map<String, Object> stats = new HashMap<>();
@@ -237,33 +676,38 @@ public class ProductServiceImpl implements ProductService {
         return stats;
     }
 
-    private void updateProductStats(Product product) {
-        List<Object[]> results = reviewRepository.getReviewStats(product.getId());
-
-        int count = 0;
-        double average = 0.0;
-
-        if (results != null && !results.isEmpty() && results.get(0) != null) {
-            Object[] stats = results.get(0);
-            count = stats.length > 0 && stats[0] != null ? ((Number) stats[0]).intValue() : 0;
-            average = stats.length > 1 && stats[1] != null ? ((Number) stats[1]).doubleValue() : 0.0;
+    /**
+     * Bulk updates bypass the entity listener, so the in-memory catalog is told about the new counters directly.
+     */
+    private void publishReviewStats(Long productId) {
+        List<Object[]> rows = productRepository.findReviewStatsById(productId);
+        if (rows.isEmpty() || rows.get(0) == null) {
+            return;
         }
-
-        product.setReviewCount(count);
-        product.setAverageRating(Math.round(average * 10.0) / 10.0);
-        productRepository.save(product);
+        Object[] stats = rows.get(0);
+        int reviewCount = stats[0] != null ? ((Number) stats[0]).intValue() : 0;
+        double averageRating = stats[1] != null ? ((Number) stats[1]).doubleValue() : 0.0;
+        productCatalog.reviewStatsChanged(productId, reviewCount, averageRating);
     }
 
     private ReviewDTO convertToReviewDTO(Review review) {
-        return new ReviewDTO(
+        ReviewDTO dto = new ReviewDTO(
                 review.getId(),
                 review.getReviewerName(),
                 review.getComment(),
                 review.getRating(),
-                review.getHelpfulCount() != null ? review.getHelpfulCount() : 0,
+                helpfulCount(review),
                 review.getCreatedAt(),
                 review.getProduct().getId()
         );
+        dto.setDuplicateOfReviewId(review.getDuplicateOfReviewId());
+        return dto;
+    }
+
+    private int helpfulCount(Review review) {
+        long stored = review.getHelpfulCount() != null ? review.getHelpfulCount() : 0;
+        long pending = review.getId() != null ? helpfulVoteCounter.pending(review.getId()) : 0;
+        return (int) Math.max(0, stored + pending);
     }
 
     private ProductDTO convertToProductDTO(Product product) {
@@ -0,0 +1,16 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.RatingTrendDTO;
+
+public interface RatingTrendService {
+
+    /**
+     * Daily review counts and average ratings of one product over the last {@code days} days, today included.
+     */
+    RatingTrendDTO getProductTrend(Long productId, int days);
+
+    /**
+     * The same trend over every product in the catalog.
+     */
+    RatingTrendDTO getCatalogTrend(int days);
+}
@@ -0,0 +1,85 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.RatingTrendDTO;
+import com.example.productreview.exception.ResourceNotFoundException;
+import com.example.productreview.model.ReviewDailyRating;
+import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.repository.ReviewDailyRatingRepository;
+import com.example.productreview.search.ProductCatalog;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Rating trends read from the daily rollups maintained by {@link ReviewRatingRollups}: a product trend reads
+ * at most one row per day, and the catalog trend is summed per day by the database, so both cost O(days)
+ * regardless of how many reviews were written.
+ */
+@Service
+public class RatingTrendServiceImpl implements RatingTrendService {
+
+    private final ReviewDailyRatingRepository dailyRatingRepository;
+    private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+
+    public RatingTrendServiceImpl(ReviewDailyRatingRepository dailyRatingRepository,
+                                  ProductRepository productRepository,
+                                  ProductCatalog productCatalog) {
+        this.dailyRatingRepository = dailyRatingRepository;
+        this.productRepository = productRepository;
+        this.productCatalog = productCatalog;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RatingTrendDTO getProductTrend(Long productId, int days) {
+        boolean exists = productCatalog.isReady()
+                ? productCatalog.get(productId) != null
+                : productRepository.existsById(productId);
+        if (!exists) {
+            throw new ResourceNotFoundException("Product", productId);
+        }
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        Map<LocalDate, long[]> byDay = new HashMap<>();
+        for (ReviewDailyRating row : dailyRatingRepository
+                .findByProductIdAndReviewDateBetweenOrderByReviewDate(productId, from, to)) {
+            byDay.put(row.getReviewDate(), new long[]{row.getReviewCount(), row.getRatingSum()});
+        }
+        return trend(productId, from, to, byDay);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RatingTrendDTO getCatalogTrend(int days) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days - 1L);
+        Map<LocalDate, long[]> byDay = new HashMap<>();
+        for (Object[] row : dailyRatingRepository.sumByDay(from, to)) {
+            byDay.put((LocalDate) row[0], new long[]{((Number) row[1]).longValue(), ((Number) row[2]).longValue()});
+        }
+        return trend(null, from, to, byDay);
+    }
+
+    private static RatingTrendDTO trend(Long productId, LocalDate from, LocalDate to, Map<LocalDate, long[]> byDay) {
+        List<RatingTrendDTO.Point> points = new ArrayList<>();
+        long reviewCount = 0;
+        long ratingSum = 0;
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            long[] sums = byDay.getOrDefault(day, new long[2]);
+            points.add(new RatingTrendDTO.Point(day, sums[0], average(sums[0], sums[1])));
+            reviewCount += sums[0];
+            ratingSum += sums[1];
+        }
+        return new RatingTrendDTO(productId, from, to, reviewCount, average(reviewCount, ratingSum), points);
+    }
+
+    private static Double average(long count, long ratingSum) {
+        return count == 0 ? null : Math.round(ratingSum * 100.0 / count) / 100.0;
+    }
+}
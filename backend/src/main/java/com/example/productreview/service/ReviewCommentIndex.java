@@ -0,0 +1,251 @@
+package com.example.productreview.service;
+
+import com.example.productreview.search.Tokenizer;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.roaringbitmap.RoaringBitmap;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Per-product inverted index over review comments, for searching within one product's reviews.
+ * <p>
+ * Products with at least {@code reviews.search.index-threshold} reviews get an index that is loaded on the
+ * first search, cached, and kept current by {@link #reviewAdded} after each committed review. Batch writers
+ * that do not know the new ids call {@link #catchUp(long)} or {@link #invalidate(long)} instead. Smaller products are indexed for the
+ * one query and dropped, which is bounded by the threshold. A search intersects one bitmap per query token,
+ * so its cost depends on the matches, not on how many reviews the product has.
+ */
+@Component
+public class ReviewCommentIndex {
+
+    static final String CACHE_NAME = "reviewCommentIndexes";
+    private static final long MAX_WEIGHT_POSTINGS = 20_000_000L;
+
+    /**
+     * One page of matches, newest first, with the number of matches in total.
+     */
+    public record Matches(long[] reviewIds, long total) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int indexThreshold;
+    private final Cache<Long, CommentIndex> indexes = Caffeine.newBuilder()
+            .maximumWeight(MAX_WEIGHT_POSTINGS)
+            .weigher((Long productId, CommentIndex index) -> index.weight())
+            .expireAfterAccess(Duration.ofHours(1))
+            .recordStats()
+            .build();
+
+    public ReviewCommentIndex(JdbcTemplate jdbcTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${reviews.search.index-threshold:50}") int indexThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.indexThreshold = indexThreshold;
+        CaffeineCacheMetrics.monitor(meterRegistry, indexes, CACHE_NAME);
+    }
+
+    /**
+     * Reviews of the product whose comment contains every query token, optionally with the given rating.
+     * The last token also matches longer words while the user is still typing it.
+     */
+    public Matches search(long productId, int reviewCount, String query, Integer rating, long offset, int limit) {
+        Query parsed = Query.parse(query);
+        if (parsed.terms().isEmpty()) {
+            return new Matches(new long[0], 0);
+        }
+        CommentIndex index = reviewCount >= indexThreshold
+                ? indexes.get(productId, this::load)
+                : load(productId);
+        return index.search(parsed, rating, offset, limit);
+    }
+
+    /**
+     * Character ranges {@code [start, end)} of the comment's words that matched the query, for highlighting.
+     */
+    public static List<int[]> highlights(String comment, String query) {
+        Query parsed = Query.parse(query);
+        List<int[]> ranges = new ArrayList<>();
+        if (comment == null || parsed.terms().isEmpty()) {
+            return ranges;
+        }
+        int start = -1;
+        for (int i = 0; i <= comment.length(); i++) {
+            boolean inWord = i < comment.length() && Character.isLetterOrDigit(comment.charAt(i));
+            if (inWord && start < 0) {
+                start = i;
+            } else if (!inWord && start >= 0) {
+                if (parsed.matches(comment.substring(start, i).toLowerCase())) {
+                    ranges.add(new int[]{start, i});
+                }
+                start = -1;
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Adds a review once its transaction commits. Only cached indexes are touched.
+     */
+    public void reviewAdded(long productId, long reviewId, int rating, String comment) {
+        afterCommit(() -> indexes.asMap().computeIfPresent(productId, (key, index) -> {
+            index.add(reviewId, rating, comment);
+            return index;
+        }));
+    }
+
+    /**
+     * Adds the product's reviews newer than anything in its cached index, for a single writer that inserts
+     * reviews in id order without knowing their ids.
+     */
+    public void catchUp(long productId) {
+        indexes.asMap().computeIfPresent(productId, (key, index) -> {
+            jdbcTemplate.query("SELECT id, rating, comment FROM reviews WHERE product_id = ? AND id > ? ORDER BY id",
+                    (RowCallbackHandler) rs -> index.add(rs.getLong(1), rs.getInt(2), rs.getString(3)),
+                    productId, index.lastReviewId());
+            return index;
+        });
+    }
+
+    /**
+     * Drops the product's index so the next search reloads it, for writers that insert reviews in bulk.
+     */
+    public void invalidate(long productId) {
+        indexes.invalidate(productId);
+    }
+
+    private CommentIndex load(long productId) {
+        CommentIndex index = new CommentIndex();
+        jdbcTemplate.query("SELECT id, rating, comment FROM reviews WHERE product_id = ? ORDER BY id",
+                (RowCallbackHandler) rs -> index.add(rs.getLong(1), rs.getInt(2), rs.getString(3)), productId);
+        index.optimize();
+        return index;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Query(List<String> terms, boolean lastIsPrefix) {
+
+        static Query parse(String query) {
+            List<String> terms = new ArrayList<>(new LinkedHashSet<>(Tokenizer.tokenize(query)));
+            return new Query(terms, Tokenizer.endsWithPartialToken(query));
+        }
+
+        boolean matches(String word) {
+            for (int i = 0; i < terms.size(); i++) {
+                String term = terms.get(i);
+                if (word.equals(term) || (lastIsPrefix && i == terms.size() - 1 && word.startsWith(term))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Reviews are numbered in the order they were added, so a higher ordinal is a newer review.
+     */
+    private static final class CommentIndex {
+
+        private final NavigableMap<String, RoaringBitmap> postings = new TreeMap<>();
+        private final RoaringBitmap[] byRating = new RoaringBitmap[5];
+        private final Roaring64Bitmap indexed = new Roaring64Bitmap();
+        private long[] reviewIds = new long[64];
+        private int size;
+        private int postingCount;
+
+        CommentIndex() {
+            for (int i = 0; i < byRating.length; i++) {
+                byRating[i] = new RoaringBitmap();
+            }
+        }
+
+        synchronized void add(long reviewId, int rating, String comment) {
+            if (indexed.contains(reviewId)) {
+                return;
+            }
+            indexed.addLong(reviewId);
+            if (size == reviewIds.length) {
+                reviewIds = Arrays.copyOf(reviewIds, size * 2);
+            }
+            int ordinal = size++;
+            reviewIds[ordinal] = reviewId;
+            if (rating >= 1 && rating <= 5) {
+                byRating[rating - 1].add(ordinal);
+            }
+            for (String term : new LinkedHashSet<>(Tokenizer.tokenize(comment))) {
+                postings.computeIfAbsent(term, t -> new RoaringBitmap()).add(ordinal);
+                postingCount++;
+            }
+        }
+
+        synchronized long lastReviewId() {
+            return indexed.isEmpty() ? 0 : indexed.last();
+        }
+
+        synchronized void optimize() {
+            postings.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        synchronized int weight() {
+            return postingCount + size;
+        }
+
+        synchronized Matches search(Query query, Integer rating, long offset, int limit) {
+            RoaringBitmap matches = null;
+            List<String> terms = query.terms();
+            for (int i = 0; i < terms.size(); i++) {
+                boolean prefix = query.lastIsPrefix() && i == terms.size() - 1;
+                RoaringBitmap termMatches = prefix ? prefixMatches(terms.get(i)) : postings.get(terms.get(i));
+                if (termMatches == null || termMatches.isEmpty()) {
+                    return new Matches(new long[0], 0);
+                }
+                matches = matches == null ? termMatches.clone() : RoaringBitmap.and(matches, termMatches);
+            }
+            if (rating != null) {
+                matches.and(byRating[rating - 1]);
+            }
+
+            long total = matches.getLongCardinality();
+            int count = (int) Math.max(0, Math.min(limit, total - offset));
+            long[] page = new long[count];
+            for (int i = 0; i < count; i++) {
+                // Newest first: walk the ordinals from the top
+                page[i] = reviewIds[matches.select((int) (total - 1 - offset - i))];
+            }
+            return new Matches(page, total);
+        }
+
+        private RoaringBitmap prefixMatches(String prefix) {
+            Map<String, RoaringBitmap> expansions = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+            return RoaringBitmap.or(expansions.values().iterator());
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.example.productreview.service;
+
+import com.example.productreview.search.MinHash;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Catalog-wide near-duplicate detection for review comments, for spotting review farms.
+ * <p>
+ * Each comment gets a MinHash signature that is stored with the review, so the index is rebuilt at startup
+ * from the stored signatures without re-reading comments. Signatures are split into bands and each band is
+ * hashed into a bucket (locality-sensitive hashing); only reviews sharing a bucket are compared. A bucket
+ * keeps at most a few members, because a farm's copies already match the first ones, so a check costs the
+ * same no matter how many reviews exist.
+ * <p>
+ * {@code addReview} checks before saving and can reject. Batch writers insert reviews without a signature;
+ * {@link #catchUp()} signs, flags and indexes those rows afterwards.
+ */
+@Component
+public class ReviewDuplicateIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewDuplicateIndex.class);
+    private static final int BANDS = 16;
+    private static final int ROWS = MinHash.NUM_HASHES / BANDS;
+    private static final int MAX_BUCKET_MEMBERS = 4;
+    private static final int CATCH_UP_BATCH = 1000;
+
+    /**
+     * Stored for comments too short to sign, so catch-up does not pick them up again.
+     */
+    static final byte[] UNSIGNED = new byte[0];
+
+    public enum Mode { OFF, FLAG, REJECT }
+
+    /**
+     * Signature to store with a new review, and the review it nearly duplicates, if any.
+     */
+    public record Check(byte[] signature, Long duplicateOf) {
+    }
+
+    private record Pending(long id, long productId, String comment) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Mode mode;
+    private final boolean catalogScope;
+    private final double threshold;
+    private final int minLength;
+
+    private final Object catchUpLock = new Object();
+    private final Map<Long, int[]> buckets = new HashMap<>();
+    private final Roaring64Bitmap indexed = new Roaring64Bitmap();
+    private long[] reviewIds = new long[1024];
+    private long[] productIds = new long[1024];
+    private int[] signatures = new int[1024 * MinHash.NUM_HASHES];
+    private int size;
+    private volatile boolean ready;
+
+    public ReviewDuplicateIndex(JdbcTemplate jdbcTemplate,
+                                @Value("${reviews.duplicates.mode:flag}") String mode,
+                                @Value("${reviews.duplicates.scope:catalog}") String scope,
+                                @Value("${reviews.duplicates.threshold:0.8}") double threshold,
+                                @Value("${reviews.duplicates.min-length:40}") int minLength) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.catalogScope = !"product".equalsIgnoreCase(scope.trim());
+        this.threshold = threshold;
+        this.minLength = minLength;
+    }
+
+    public boolean isRejecting() {
+        return mode == Mode.REJECT;
+    }
+
+    /**
+     * Signs the comment and looks for a near-duplicate, preferring one on the same product. Comments shorter
+     * than {@code reviews.duplicates.min-length} characters are never treated as duplicates; short praise
+     * like "Works great" is legitimately repeated.
+     */
+    public Check check(long productId, String comment) {
+        if (mode == Mode.OFF) {
+            return new Check(null, null);
+        }
+        String normalized = MinHash.normalize(comment);
+        if (normalized.length() < minLength) {
+            return new Check(UNSIGNED, null);
+        }
+        int[] signature = MinHash.signature(normalized);
+        return new Check(MinHash.encode(signature), find(productId, signature));
+    }
+
+    /**
+     * Indexes a review once its transaction commits.
+     */
+    public void reviewAdded(long productId, long reviewId, byte[] signature) {
+        if (signature == null || signature.length == 0) {
+            return;
+        }
+        afterCommit(() -> add(reviewId, productId, MinHash.decode(signature)));
+    }
+
+    /**
+     * Loads the stored signatures, then signs whatever was inserted without one.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (mode == Mode.OFF) {
+            return;
+        }
+        long started = System.nanoTime();
+        jdbcTemplate.query("SELECT id, product_id, minhash_signature FROM reviews WHERE minhash_signature IS NOT NULL",
+                (RowCallbackHandler) rs -> {
+                    byte[] signature = rs.getBytes(3);
+                    if (signature.length > 0) {
+                        add(rs.getLong(1), rs.getLong(2), MinHash.decode(signature));
+                    }
+                });
+        log.info("Indexed {} review signatures in {} ms", indexedCount(), (System.nanoTime() - started) / 1_000_000);
+        ready = true;
+        catchUp();
+    }
+
+    /**
+     * Signs, flags and indexes reviews that batch writers inserted without a signature.
+     */
+    @Scheduled(fixedDelayString = "${reviews.duplicates.catch-up-interval-ms:5000}")
+    public void catchUp() {
+        if (!ready) {
+            return;
+        }
+        synchronized (catchUpLock) {
+            catchUpBatches();
+        }
+    }
+
+    private void catchUpBatches() {
+        List<Pending> pending;
+        do {
+            pending = jdbcTemplate.query(
+                    "SELECT id, product_id, comment FROM reviews WHERE minhash_signature IS NULL ORDER BY id LIMIT ?",
+                    (rs, rowNum) -> new Pending(rs.getLong(1), rs.getLong(2), rs.getString(3)), CATCH_UP_BATCH);
+            List<Object[]> updates = new ArrayList<>(pending.size());
+            int flagged = 0;
+            for (Pending review : pending) {
+                Check check = check(review.productId(), review.comment());
+                if (check.duplicateOf() != null) {
+                    flagged++;
+                }
+                updates.add(new Object[]{check.signature(), check.duplicateOf(), review.id()});
+                if (check.signature().length > 0) {
+                    add(review.id(), review.productId(), MinHash.decode(check.signature()));
+                }
+            }
+            if (!updates.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "UPDATE reviews SET minhash_signature = ?, duplicate_of_review_id = ? WHERE id = ?", updates);
+                log.debug("Signed {} reviews, {} flagged as near-duplicates", updates.size(), flagged);
+            }
+        } while (pending.size() == CATCH_UP_BATCH);
+    }
+
+    synchronized int indexedCount() {
+        return size;
+    }
+
+    private synchronized Long find(long productId, int[] signature) {
+        Long elsewhere = null;
+        for (int band = 0; band < BANDS; band++) {
+            int[] members = buckets.get(bucketKey(signature, 0, band));
+            if (members == null) {
+                continue;
+            }
+            for (int ordinal : members) {
+                boolean sameProduct = productIds[ordinal] == productId;
+                if (!sameProduct && (!catalogScope || elsewhere != null)) {
+                    continue;
+                }
+                if (MinHash.similarity(signatures, ordinal * MinHash.NUM_HASHES, signature, 0) >= threshold) {
+                    if (sameProduct) {
+                        return reviewIds[ordinal];
+                    }
+                    elsewhere = reviewIds[ordinal];
+                }
+            }
+        }
+        return elsewhere;
+    }
+
+    private synchronized void add(long reviewId, long productId, int[] signature) {
+        if (indexed.contains(reviewId)) {
+            return;
+        }
+        indexed.addLong(reviewId);
+        if (size == reviewIds.length) {
+            reviewIds = Arrays.copyOf(reviewIds, size * 2);
+            productIds = Arrays.copyOf(productIds, size * 2);
+            signatures = Arrays.copyOf(signatures, size * 2 * MinHash.NUM_HASHES);
+        }
+        int ordinal = size++;
+        reviewIds[ordinal] = reviewId;
+        productIds[ordinal] = productId;
+        System.arraycopy(signature, 0, signatures, ordinal * MinHash.NUM_HASHES, MinHash.NUM_HASHES);
+        for (int band = 0; band < BANDS; band++) {
+            buckets.merge(bucketKey(signature, 0, band), new int[]{ordinal}, (members, added) ->
+                    members.length < MAX_BUCKET_MEMBERS ? append(members, added[0]) : members);
+        }
+    }
+
+    private static long bucketKey(int[] signature, int offset, int band) {
+        int hash = 1;
+        for (int row = 0; row < ROWS; row++) {
+            hash = 31 * hash + signature[offset + band * ROWS + row];
+        }
+        return ((long) band << 32) | (hash & 0xFFFFFFFFL);
+    }
+
+    private static int[] append(int[] members, int ordinal) {
+        int[] grown = Arrays.copyOf(members, members.length + 1);
+        grown[members.length] = ordinal;
+        return grown;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.productreview.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+
+public interface ReviewExportService {
+
+    /**
+     * Writes the matching reviews as NDJSON, one {@link com.example.productreview.dto.ReviewDTO} per line in id
+     * order, and returns the number of rows written. At most one of {@code productId} and {@code category} is
+     * set; neither exports the whole catalog. {@code from} is inclusive and {@code to} exclusive.
+     */
+    long exportReviews(Long productId, String category, LocalDateTime from, LocalDateTime to, OutputStream out)
+            throws IOException;
+}
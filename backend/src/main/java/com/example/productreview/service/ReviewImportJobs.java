@@ -0,0 +1,103 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.ReviewImportResult;
+import com.example.productreview.dto.ReviewImportStatus;
+import com.example.productreview.exception.ResourceNotFoundException;
+import com.example.productreview.exception.ValidationException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs bulk review imports one at a time on a background thread instead of the request thread. The request
+ * body is spooled to a temporary file, so the submitting request returns once the upload is received and the
+ * caller polls {@link #status} for the outcome. An import that fails keeps its checkpoint and is resumed by
+ * submitting the same file under the same import id.
+ */
+@Component
+public class ReviewImportJobs {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewImportJobs.class);
+
+    private final ReviewImportService reviewImportService;
+    private final Map<String, ReviewImportStatus> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "review-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public ReviewImportJobs(ReviewImportService reviewImportService) {
+        this.reviewImportService = reviewImportService;
+    }
+
+    /**
+     * Spools the body and queues the import. Refused while an import with the same id is queued or running.
+     */
+    public ReviewImportStatus submit(String importId, InputStream body) throws IOException {
+        ReviewImportStatus queued = new ReviewImportStatus(importId, ReviewImportStatus.State.QUEUED, null, null);
+        ReviewImportStatus current = jobs.compute(importId,
+                (id, previous) -> previous != null && !previous.getState().isFinished() ? previous : queued);
+        if (current != queued) {
+            throw new ValidationException("Import " + importId + " is already queued or running");
+        }
+
+        Path file;
+        try {
+            file = Files.createTempFile("review-import-", ".ndjson");
+            try {
+                Files.copy(body, file, StandardCopyOption.REPLACE_EXISTING);
+            } catch (IOException e) {
+                Files.deleteIfExists(file);
+                throw e;
+            }
+        } catch (IOException e) {
+            jobs.remove(importId, queued);
+            throw e;
+        }
+        executor.execute(() -> run(importId, file));
+        return queued;
+    }
+
+    public ReviewImportStatus status(String importId) {
+        ReviewImportStatus status = jobs.get(importId);
+        if (status == null) {
+            throw new ResourceNotFoundException("Import not found with id: " + importId);
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Interrupted imports resume from their checkpoint when submitted again
+        executor.shutdownNow();
+    }
+
+    private void run(String importId, Path file) {
+        jobs.put(importId, new ReviewImportStatus(importId, ReviewImportStatus.State.RUNNING, null, null));
+        try (InputStream in = Files.newInputStream(file)) {
+            ReviewImportResult result = reviewImportService.importReviews(importId, in);
+            jobs.put(importId, new ReviewImportStatus(importId, ReviewImportStatus.State.SUCCEEDED, result, null));
+        } catch (Exception e) {
+            log.error("Import {} failed: {}", importId, e.getMessage(), e);
+            jobs.put(importId, new ReviewImportStatus(importId, ReviewImportStatus.State.FAILED, null, e.getMessage()));
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete spooled import {}: {}", file, e.getMessage());
+            }
+        }
+    }
+}
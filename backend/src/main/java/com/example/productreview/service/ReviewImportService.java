@@ -0,0 +1,16 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.ReviewImportResult;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface ReviewImportService {
+
+    /**
+     * Reads NDJSON reviews, one {@link com.example.productreview.dto.ReviewDTO} with a {@code productId} per
+     * line, and writes the valid ones in batches. Lines an earlier attempt of the same {@code importId} already
+     * committed are skipped, so an interrupted import is resumed by sending the same body again.
+     */
+    ReviewImportResult importReviews(String importId, InputStream in) throws IOException;
+}
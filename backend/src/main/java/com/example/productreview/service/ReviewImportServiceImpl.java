@@ -0,0 +1,310 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.dto.ReviewImportResult;
+import com.example.productreview.exception.ValidationException;
+import com.example.productreview.model.Review;
+import com.example.productreview.model.ReviewImportCheckpoint;
+import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.repository.ReviewImportCheckpointRepository;
+import com.example.productreview.search.ProductCatalog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk review import. Lines are validated with the same constraints as a single review submission and
+ * written in JDBC batches sorted by product. Each batch commits its rows, one counter update per product, the
+ * daily rating rollups and the import checkpoint in one transaction, so counters never drift from the rows
+ * and a resumed import neither loses nor duplicates lines. The catalog, the AI summary and the review comment index are
+ * refreshed once per product after the last batch instead of once per review, and the imported rows are
+ * signed and flagged by the duplicate index in one catch-up pass.
+ */
+@Service
+public class ReviewImportServiceImpl implements ReviewImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewImportServiceImpl.class);
+    private static final int BUFFER_CHARS = 64 * 1024;
+    private static final String INSERT_REVIEW = "INSERT INTO reviews "
+            + "(reviewer_name, comment, rating, helpful_count, helpfulness_score, created_at, product_id) "
+            + "VALUES (?, ?, ?, 0, ?, ?, ?)";
+
+    private record Row(long line, long productId, String reviewerName, String comment, int rating,
+                       LocalDateTime createdAt) {
+    }
+
+    private final ProductRepository productRepository;
+    private final ReviewImportCheckpointRepository checkpointRepository;
+    private final ProductCatalog productCatalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReviewCommentIndex reviewCommentIndex;
+    private final ReviewDuplicateIndex reviewDuplicateIndex;
+    private final ReviewRatingRollups reviewRatingRollups;
+    private final Validator validator;
+    private final ObjectReader reader;
+    private final int batchSize;
+    private final int maxReportedErrors;
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    public ReviewImportServiceImpl(ProductRepository productRepository,
+                                   ReviewImportCheckpointRepository checkpointRepository,
+                                   ProductCatalog productCatalog,
+                                   JdbcTemplate jdbcTemplate,
+                                   PlatformTransactionManager transactionManager,
+                                   ReviewCommentIndex reviewCommentIndex,
+                                   ReviewDuplicateIndex reviewDuplicateIndex,
+                                   ReviewRatingRollups reviewRatingRollups,
+                                   Validator validator,
+                                   ObjectMapper objectMapper,
+                                   @Value("${reviews.import.batch-size:1000}") int batchSize,
+                                   @Value("${reviews.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.productRepository = productRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.productCatalog = productCatalog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reviewCommentIndex = reviewCommentIndex;
+        this.reviewDuplicateIndex = reviewDuplicateIndex;
+        this.reviewRatingRollups = reviewRatingRollups;
+        this.validator = validator;
+        this.reader = objectMapper.readerFor(ReviewDTO.class);
+        this.batchSize = batchSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    @Override
+    public ReviewImportResult importReviews(String importId, InputStream in) throws IOException {
+        if (!running.add(importId)) {
+            throw new ValidationException("Import " + importId + " is already running");
+        }
+        try {
+            return runImport(importId, in);
+        } finally {
+            running.remove(importId);
+        }
+    }
+
+    private ReviewImportResult runImport(String importId, InputStream in) throws IOException {
+        ReviewImportCheckpoint checkpoint = checkpointRepository.findById(importId)
+                .orElseGet(() -> new ReviewImportCheckpoint(importId, 0, 0, 0));
+        long committedLine = checkpoint.getCommittedLine();
+        ReviewImportResult result = new ReviewImportResult(importId);
+        result.setTotalImported(checkpoint.getImportedCount());
+        result.setTotalFailed(checkpoint.getFailedCount());
+
+        Map<Long, Boolean> knownProducts = new HashMap<>();
+        Set<Long> touched = new LinkedHashSet<>();
+        List<Row> batch = new ArrayList<>(batchSize);
+        BufferedReader lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_CHARS);
+        long lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            if (lineNumber <= committedLine) {
+                // Written by an earlier attempt; its products still need the end-of-import refresh
+                result.setLinesSkipped(result.getLinesSkipped() + 1);
+                Long productId = productIdOf(line);
+                if (productId != null && productExists(productId, knownProducts)) {
+                    touched.add(productId);
+                }
+                continue;
+            }
+            Row row = parse(lineNumber, line, knownProducts, result);
+            if (row != null) {
+                batch.add(row);
+                if (batch.size() >= batchSize) {
+                    flush(importId, batch, lineNumber, knownProducts, touched, result);
+                    batch.clear();
+                }
+            }
+        }
+        result.setLinesRead(lineNumber);
+        if (lineNumber > committedLine) {
+            flush(importId, batch, lineNumber, knownProducts, touched, result);
+        }
+
+        touched.forEach(this::refreshProduct);
+        reviewDuplicateIndex.catchUp();
+        result.setProductsUpdated(touched.size());
+        log.info("Import {}: {} lines, {} skipped, {} imported, {} failed, {} products refreshed", importId,
+                lineNumber, result.getLinesSkipped(), result.getImported(), result.getFailed(), touched.size());
+        return result;
+    }
+
+    private Row parse(long lineNumber, String line, Map<Long, Boolean> knownProducts, ReviewImportResult result) {
+        ReviewDTO review;
+        try {
+            review = reader.readValue(line);
+        } catch (JsonProcessingException e) {
+            reject(result, lineNumber, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        }
+        Set<ConstraintViolation<ReviewDTO>> violations = validator.validate(review);
+        if (!violations.isEmpty()) {
+            reject(result, lineNumber, violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+            return null;
+        }
+        if (review.getProductId() == null) {
+            reject(result, lineNumber, "Product ID is required");
+            return null;
+        }
+        if (!productExists(review.getProductId(), knownProducts)) {
+            reject(result, lineNumber, "Product not found with id: " + review.getProductId());
+            return null;
+        }
+        if (reviewDuplicateIndex.isRejecting()) {
+            Long duplicateOf = reviewDuplicateIndex.check(review.getProductId(), review.getComment()).duplicateOf();
+            if (duplicateOf != null) {
+                reject(result, lineNumber, "Near-duplicate of review " + duplicateOf);
+                return null;
+            }
+        }
+        LocalDateTime createdAt = review.getCreatedAt() != null ? review.getCreatedAt() : LocalDateTime.now();
+        return new Row(lineNumber, review.getProductId(), review.getReviewerName(), review.getComment(),
+                review.getRating(), createdAt);
+    }
+
+    private Long productIdOf(String line) {
+        try {
+            ReviewDTO review = reader.readValue(line);
+            return review.getProductId();
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    private boolean productExists(Long productId, Map<Long, Boolean> knownProducts) {
+        return knownProducts.computeIfAbsent(productId, id -> productCatalog.isReady()
+                ? productCatalog.get(id) != null
+                : productRepository.existsById(id));
+    }
+
+    /**
+     * Writes one batch and advances the checkpoint to {@code throughLine}. A product deleted while the import
+     * runs fails the whole batch; its rows are then rejected and the rest written again.
+     */
+    private void flush(String importId, List<Row> batch, long throughLine, Map<Long, Boolean> knownProducts,
+                       Set<Long> touched, ReviewImportResult result) {
+        batch.sort(Comparator.comparingLong(Row::productId).thenComparingLong(Row::line));
+        try {
+            write(importId, batch, throughLine, result);
+        } catch (DataIntegrityViolationException e) {
+            Set<Long> missing = batch.stream()
+                    .map(Row::productId)
+                    .distinct()
+                    .filter(id -> !productRepository.existsById(id))
+                    .collect(Collectors.toSet());
+            if (missing.isEmpty()) {
+                throw e;
+            }
+            List<Row> remaining = new ArrayList<>(batch.size());
+            for (Row row : batch) {
+                if (missing.contains(row.productId())) {
+                    knownProducts.put(row.productId(), false);
+                    reject(result, row.line(), "Product not found with id: " + row.productId());
+                } else {
+                    remaining.add(row);
+                }
+            }
+            write(importId, remaining, throughLine, result);
+            batch = remaining;
+        }
+        batch.forEach(row -> touched.add(row.productId()));
+        result.setImported(result.getImported() + batch.size());
+        result.setTotalImported(result.getTotalImported() + batch.size());
+    }
+
+    private void write(String importId, List<Row> batch, long throughLine, ReviewImportResult result) {
+        Map<Long, int[]> starsByProduct = new LinkedHashMap<>();
+        ReviewRatingRollups.DailyTotals dailyTotals = new ReviewRatingRollups.DailyTotals();
+        ReviewProfile.MentionTotals mentionTotals = new ReviewProfile.MentionTotals();
+        for (Row row : batch) {
+            starsByProduct.computeIfAbsent(row.productId(), id -> new int[5])[row.rating() - 1]++;
+            dailyTotals.add(row.productId(), row.createdAt(), row.rating());
+            mentionTotals.add(row.productId(), row.rating(), row.comment());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!batch.isEmpty()) {
+                jdbcTemplate.batchUpdate(INSERT_REVIEW, batch, batch.size(), (ps, row) -> {
+                    ps.setString(1, row.reviewerName());
+                    ps.setString(2, row.comment());
+                    ps.setInt(3, row.rating());
+                    ps.setDouble(4, Review.helpfulnessScore(0, row.createdAt()));
+                    ps.setTimestamp(5, Timestamp.valueOf(row.createdAt()));
+                    ps.setLong(6, row.productId());
+                });
+            }
+            starsByProduct.forEach(this::applyStars);
+            mentionTotals.forEach(productRepository::applyThemeMentions);
+            reviewRatingRollups.addAll(dailyTotals);
+            checkpointRepository.save(new ReviewImportCheckpoint(importId, throughLine,
+                    result.getTotalImported() + batch.size(), result.getTotalFailed()));
+        });
+        log.debug("Import {}: wrote {} reviews across {} products through line {}", importId, batch.size(),
+                starsByProduct.size(), throughLine);
+    }
+
+    private void applyStars(Long productId, int[] stars) {
+        int count = 0;
+        long ratingSum = 0;
+        for (int star = 1; star <= 5; star++) {
+            count += stars[star - 1];
+            ratingSum += (long) star * stars[star - 1];
+        }
+        productRepository.applyReviewRatings(productId, count, ratingSum,
+                stars[0], stars[1], stars[2], stars[3], stars[4]);
+    }
+
+    private void refreshProduct(Long productId) {
+        List<Object[]> rows = productRepository.findReviewStatsById(productId);
+        if (!rows.isEmpty() && rows.get(0) != null) {
+            Object[] stats = rows.get(0);
+            productCatalog.reviewStatsChanged(productId, ((Number) stats[0]).intValue(), ((Number) stats[1]).doubleValue());
+        }
+        reviewCommentIndex.invalidate(productId);
+    }
+
+    private void reject(ReviewImportResult result, long line, String message) {
+        result.setFailed(result.getFailed() + 1);
+        result.setTotalFailed(result.getTotalFailed() + 1);
+        if (result.getErrors().size() < maxReportedErrors) {
+            result.getErrors().add(new ReviewImportResult.LineError(line, message));
+        }
+    }
+}
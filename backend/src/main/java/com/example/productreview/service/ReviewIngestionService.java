@@ -0,0 +1,25 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.ReviewDTO;
+
+import java.time.Duration;
+
+public interface ReviewIngestionService {
+
+    /**
+     * True when reviews are accepted into the write-behind queue instead of being written in the request.
+     */
+    boolean isWriteBehind();
+
+    /**
+     * Validates and queues a review for the background writer. The returned review has no id yet.
+     */
+    ReviewDTO enqueue(Long productId, ReviewDTO reviewDTO);
+
+    /**
+     * Waits until every review queued so far is in the database.
+     */
+    boolean awaitFlushed(Duration timeout) throws InterruptedException;
+
+    int queuedCount();
+}
@@ -0,0 +1,386 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.exception.DuplicateReviewException;
+import com.example.productreview.exception.ResourceNotFoundException;
+import com.example.productreview.exception.ServiceUnavailableException;
+import com.example.productreview.exception.TooManyRequestsException;
+import com.example.productreview.model.Review;
+import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.search.ProductCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Write-behind review ingestion. Requests only validate and queue a review (and journal it when enabled);
+ * a single worker drains the bounded queue, inserts each batch with one JDBC batch statement and applies
+ * one counter update per product per batch. A full queue answers 429 rather than growing without bound.
+ * <p>
+ * With the journal enabled, delivery is at least once: a crash between a batch commit and its checkpoint
+ * replays that batch on the next start.
+ */
+@Service
+public class ReviewIngestionServiceImpl implements ReviewIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewIngestionServiceImpl.class);
+    private static final String INSERT_REVIEW = "INSERT INTO reviews "
+            + "(reviewer_name, comment, rating, helpful_count, helpfulness_score, created_at, product_id) "
+            + "VALUES (?, ?, ?, 0, ?, ?, ?)";
+    private static final long RETRY_BACKOFF_MS = 1000;
+
+    private final ProductRepository productRepository;
+    private final ProductCatalog productCatalog;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ReviewCommentIndex reviewCommentIndex;
+    private final ReviewDuplicateIndex reviewDuplicateIndex;
+    private final ReviewRatingRollups reviewRatingRollups;
+    private final boolean writeBehind;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final BlockingQueue<ReviewJournal.Entry> queue;
+    private final ReviewJournal journal;
+
+    private final Object submitLock = new Object();
+    private final Object flushMonitor = new Object();
+    private long lastSequence;
+    private long flushedSequence;
+    private volatile boolean accepting;
+    private volatile boolean running;
+    private Thread worker;
+
+    public ReviewIngestionServiceImpl(ProductRepository productRepository,
+                                      ProductCatalog productCatalog,
+                                      JdbcTemplate jdbcTemplate,
+                                      PlatformTransactionManager transactionManager,
+                                      ReviewCommentIndex reviewCommentIndex,
+                                      ReviewDuplicateIndex reviewDuplicateIndex,
+                                      ReviewRatingRollups reviewRatingRollups,
+                                      ObjectMapper objectMapper,
+                                      @Value("${reviews.ingestion.mode:direct}") String mode,
+                                      @Value("${reviews.ingestion.queue-capacity:10000}") int queueCapacity,
+                                      @Value("${reviews.ingestion.batch-size:500}") int batchSize,
+                                      @Value("${reviews.ingestion.flush-interval-ms:20}") long flushIntervalMs,
+                                      @Value("${reviews.ingestion.journal.enabled:false}") boolean journalEnabled,
+                                      @Value("${reviews.ingestion.journal.path:./data/review-ingestion.journal}") String journalPath,
+                                      @Value("${reviews.ingestion.journal.fsync:false}") boolean fsync) {
+        this.productRepository = productRepository;
+        this.productCatalog = productCatalog;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.reviewCommentIndex = reviewCommentIndex;
+        this.reviewDuplicateIndex = reviewDuplicateIndex;
+        this.reviewRatingRollups = reviewRatingRollups;
+        this.writeBehind = "write-behind".equalsIgnoreCase(mode);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.journal = journalEnabled ? new ReviewJournal(Path.of(journalPath), fsync, objectMapper) : null;
+    }
+
+    /**
+     * Replays the journal and, in write-behind mode, starts the worker once the schema and catalog are in
+     * place. Until then, and always in direct mode, submissions are refused with 503.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() throws IOException {
+        if (journal != null) {
+            List<ReviewJournal.Entry> recovered = journal.recover();
+            lastSequence = journal.lastSequence();
+            if (!recovered.isEmpty()) {
+                log.info("Replaying {} journaled reviews", recovered.size());
+                for (int from = 0; from < recovered.size(); from += batchSize) {
+                    flush(recovered.subList(from, Math.min(recovered.size(), from + batchSize)));
+                }
+            }
+        }
+        flushedSequence = lastSequence;
+        if (!writeBehind) {
+            // Direct mode writes inside the request; a journal left by write-behind mode is replayed above
+            return;
+        }
+
+        running = true;
+        worker = new Thread(this::drain, "review-ingestion");
+        worker.setDaemon(true);
+        worker.start();
+        accepting = true;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException, IOException {
+        accepting = false;
+        running = false;
+        if (worker != null) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    @Override
+    public boolean isWriteBehind() {
+        return writeBehind;
+    }
+
+    @Override
+    public ReviewDTO enqueue(Long productId, ReviewDTO reviewDTO) {
+        if (!accepting) {
+            throw new ServiceUnavailableException("Review ingestion is not accepting reviews right now");
+        }
+        boolean exists = productCatalog.isReady()
+                ? productCatalog.get(productId) != null
+                : productRepository.existsById(productId);
+        if (!exists) {
+            throw new ResourceNotFoundException("Product", productId);
+        }
+        if (reviewDuplicateIndex.isRejecting()) {
+            Long duplicateOf = reviewDuplicateIndex.check(productId, reviewDTO.getComment()).duplicateOf();
+            if (duplicateOf != null) {
+                throw new DuplicateReviewException(duplicateOf);
+            }
+        }
+
+        ReviewJournal.Entry entry;
+        synchronized (submitLock) {
+            if (queue.remainingCapacity() == 0) {
+                throw new TooManyRequestsException("Review queue is full. Please retry shortly.");
+            }
+            entry = new ReviewJournal.Entry(lastSequence + 1, productId, reviewDTO.getReviewerName(),
+                    reviewDTO.getComment(), reviewDTO.getRating(), LocalDateTime.now());
+            if (journal != null) {
+                try {
+                    journal.append(entry);
+                } catch (IOException e) {
+                    log.error("Could not journal review for product {}: {}", productId, e.getMessage());
+                    throw new ServiceUnavailableException("Review journal is unavailable");
+                }
+            }
+            lastSequence = entry.sequence();
+            queue.add(entry);
+        }
+        return new ReviewDTO(null, entry.reviewerName(), entry.comment(), entry.rating(), 0, entry.createdAt(), productId);
+    }
+
+    @Override
+    public boolean awaitFlushed(Duration timeout) throws InterruptedException {
+        long target;
+        synchronized (submitLock) {
+            target = lastSequence;
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (flushMonitor) {
+            while (flushedSequence < target) {
+                long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0) {
+                    return false;
+                }
+                flushMonitor.wait(remaining);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int queuedCount() {
+        return queue.size();
+    }
+
+    private void drain() {
+        List<ReviewJournal.Entry> batch = new ArrayList<>(batchSize);
+        boolean paused = false;
+        while (running || !queue.isEmpty() || !batch.isEmpty()) {
+            try {
+                if (batch.isEmpty()) {
+                    ReviewJournal.Entry first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                }
+                flushWithRetry(batch);
+                batch.clear();
+                if (paused) {
+                    paused = false;
+                    accepting = running;
+                    log.info("Review ingestion resumed");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                // Keep the batch and the worker; refuse new reviews with 503 until the batch goes through
+                log.error("Review ingestion failed on {} queued reviews, refusing new ones until it recovers: {}",
+                        batch.size(), e.getMessage(), e);
+                paused = true;
+                accepting = false;
+                try {
+                    Thread.sleep(RETRY_BACKOFF_MS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps retrying a batch while the database is unreachable, so accepted reviews are not dropped; the
+     * bounded queue turns a long outage into 429s at the edge.
+     */
+    private void flushWithRetry(List<ReviewJournal.Entry> batch) throws InterruptedException {
+        while (true) {
+            try {
+                flush(batch);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                // Typically a product deleted after its reviews were queued; isolate and drop those
+                writeEachProduct(batch);
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} queued reviews, retrying: {}", batch.size(), e.getMessage());
+                Thread.sleep(RETRY_BACKOFF_MS);
+            } catch (IOException e) {
+                // Rows are committed; a failed checkpoint only means a replay may duplicate them
+                log.error("Failed to checkpoint review journal: {}", e.getMessage());
+                markFlushed(batch.get(batch.size() - 1).sequence());
+                return;
+            }
+        }
+    }
+
+    private void flush(List<ReviewJournal.Entry> batch) throws IOException {
+        write(batch);
+        checkpoint(batch);
+    }
+
+    private void writeEachProduct(List<ReviewJournal.Entry> batch) throws InterruptedException {
+        Map<Long, List<ReviewJournal.Entry>> byProduct = new LinkedHashMap<>();
+        for (ReviewJournal.Entry entry : batch) {
+            byProduct.computeIfAbsent(entry.productId(), id -> new ArrayList<>()).add(entry);
+        }
+        for (Map.Entry<Long, List<ReviewJournal.Entry>> product : byProduct.entrySet()) {
+            writeProductWithRetry(product.getKey(), product.getValue());
+        }
+        try {
+            checkpoint(batch);
+        } catch (IOException e) {
+            log.error("Failed to checkpoint review journal: {}", e.getMessage());
+            markFlushed(batch.get(batch.size() - 1).sequence());
+        }
+    }
+
+    /**
+     * Like {@link #flushWithRetry}, but only a constraint violation drops the product's reviews.
+     */
+    private void writeProductWithRetry(long productId, List<ReviewJournal.Entry> entries) throws InterruptedException {
+        while (true) {
+            try {
+                write(entries);
+                return;
+            } catch (DataIntegrityViolationException e) {
+                log.error("Dropping {} queued reviews for product {}: {}", entries.size(), productId, e.getMessage());
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} queued reviews for product {}, retrying: {}", entries.size(), productId,
+                        e.getMessage());
+                Thread.sleep(RETRY_BACKOFF_MS);
+            }
+        }
+    }
+
+    private void write(List<ReviewJournal.Entry> batch) {
+        Map<Long, int[]> starsByProduct = new LinkedHashMap<>();
+        ReviewRatingRollups.DailyTotals dailyTotals = new ReviewRatingRollups.DailyTotals();
+        ReviewProfile.MentionTotals mentionTotals = new ReviewProfile.MentionTotals();
+        for (ReviewJournal.Entry entry : batch) {
+            starsByProduct.computeIfAbsent(entry.productId(), id -> new int[5])[entry.rating() - 1]++;
+            dailyTotals.add(entry.productId(), entry.createdAt(), entry.rating());
+            mentionTotals.add(entry.productId(), entry.rating(), entry.comment());
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_REVIEW, batch, batch.size(), (ps, entry) -> {
+                ps.setString(1, entry.reviewerName());
+                ps.setString(2, entry.comment());
+                ps.setInt(3, entry.rating());
+                ps.setDouble(4, Review.helpfulnessScore(0, entry.createdAt()));
+                ps.setTimestamp(5, Timestamp.valueOf(entry.createdAt()));
+                ps.setLong(6, entry.productId());
+            });
+            starsByProduct.forEach(this::applyStars);
+            mentionTotals.forEach(productRepository::applyThemeMentions);
+            reviewRatingRollups.addAll(dailyTotals);
+        });
+
+        // The rows are committed from here on, so a failure must not make the caller write them again
+        try {
+            // The single worker inserts in id order, so cached comment indexes can pick up just the new rows
+            starsByProduct.keySet().forEach(reviewCommentIndex::catchUp);
+            // Rows go in unsigned; sign, flag and index them now rather than on the next scheduled pass
+            reviewDuplicateIndex.catchUp();
+        } catch (RuntimeException e) {
+            log.warn("Could not index {} written reviews, leaving them to the next reload: {}", batch.size(),
+                    e.getMessage());
+            starsByProduct.keySet().forEach(reviewCommentIndex::invalidate);
+        }
+        log.debug("Wrote {} reviews across {} products", batch.size(), starsByProduct.size());
+    }
+
+    private void checkpoint(List<ReviewJournal.Entry> batch) throws IOException {
+        long last = batch.get(batch.size() - 1).sequence();
+        if (journal != null) {
+            journal.checkpoint(last);
+        }
+        markFlushed(last);
+    }
+
+    private void applyStars(Long productId, int[] stars) {
+        int count = 0;
+        long ratingSum = 0;
+        for (int star = 1; star <= 5; star++) {
+            count += stars[star - 1];
+            ratingSum += (long) star * stars[star - 1];
+        }
+        productRepository.applyReviewRatings(productId, count, ratingSum,
+                stars[0], stars[1], stars[2], stars[3], stars[4]);
+
+        List<Object[]> rows = productRepository.findReviewStatsById(productId);
+        if (!rows.isEmpty() && rows.get(0) != null) {
+            Object[] stats = rows.get(0);
+            productCatalog.reviewStatsChanged(productId, ((Number) stats[0]).intValue(), ((Number) stats[1]).doubleValue());
+        }
+    }
+
+    private void markFlushed(long sequence) {
+        synchronized (flushMonitor) {
+            flushedSequence = Math.max(flushedSequence, sequence);
+            flushMonitor.notifyAll();
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.productreview.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Append-only local journal of queued reviews, so reviews accepted by the write-behind pipeline survive a
+ * restart. Each entry is one JSON line; a {@code #checkpoint <sequence>} line marks every entry up to that
+ * sequence as written to the database. The file is truncated whenever the checkpoint catches up with the
+ * last appended entry, so it only ever holds the current backlog.
+ */
+class ReviewJournal implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewJournal.class);
+    private static final String CHECKPOINT = "#checkpoint ";
+
+    record Entry(long sequence, long productId, String reviewerName, String comment, int rating,
+                 LocalDateTime createdAt) {
+    }
+
+    private final Path path;
+    private final boolean fsync;
+    private final ObjectMapper objectMapper;
+    private FileChannel channel;
+    private long lastAppended;
+
+    ReviewJournal(Path path, boolean fsync, ObjectMapper objectMapper) {
+        this.path = path;
+        this.fsync = fsync;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Reads back the entries not yet checkpointed and opens the journal for appending.
+     * A torn last line from a crash mid-write is skipped.
+     */
+    synchronized List<Entry> recover() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        long checkpoint = 0;
+        if (Files.exists(path)) {
+            try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    if (line.startsWith(CHECKPOINT)) {
+                        checkpoint = Math.max(checkpoint, Long.parseLong(line.substring(CHECKPOINT.length()).trim()));
+                        continue;
+                    }
+                    try {
+                        entries.add(objectMapper.readValue(line, Entry.class));
+                    } catch (JsonProcessingException e) {
+                        log.warn("Skipping unreadable review journal line in {}", path);
+                    }
+                }
+            }
+        } else if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+
+        long committed = checkpoint;
+        entries.removeIf(entry -> entry.sequence() <= committed);
+        lastAppended = entries.isEmpty() ? checkpoint : entries.get(entries.size() - 1).sequence();
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.position(channel.size());
+        return entries;
+    }
+
+    synchronized void append(Entry entry) throws IOException {
+        write(objectMapper.writeValueAsString(entry));
+        lastAppended = entry.sequence();
+    }
+
+    /**
+     * Records that every entry up to {@code sequence} is in the database.
+     */
+    synchronized void checkpoint(long sequence) throws IOException {
+        if (sequence >= lastAppended) {
+            channel.truncate(0);
+            if (fsync) {
+                channel.force(false);
+            }
+            return;
+        }
+        write(CHECKPOINT + sequence);
+    }
+
+    long lastSequence() {
+        return lastAppended;
+    }
+
+    private void write(String line) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap((line + "\n").getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        if (fsync) {
+            channel.force(false);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+}
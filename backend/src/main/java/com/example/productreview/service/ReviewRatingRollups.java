@@ -0,0 +1,132 @@
+package com.example.productreview.service;
+
+import com.example.productreview.repository.ReviewDailyRatingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.DatabaseMetaData;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maintains {@code review_daily_ratings}, the per-product daily review counts and rating sums behind rating
+ * trends. Writers call {@link #add} inside their review transaction, so a day row never disagrees with the
+ * committed reviews. Each day is applied with a single upsert on the caller's connection, so the first review
+ * of a day neither needs a second connection nor races a concurrent writer creating the same row.
+ * <p>
+ * {@link #rebuild()} recomputes every row from {@code reviews}. It backfills an empty table at startup and
+ * can be scheduled to repair rows after writes that bypassed the writers, e.g. manual SQL. On PostgreSQL it
+ * locks the table against writers first, so a review committed during the rebuild is neither lost nor
+ * counted twice.
+ */
+@Component
+public class ReviewRatingRollups {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewRatingRollups.class);
+
+    private static final String POSTGRES_UPSERT_SQL =
+            "INSERT INTO review_daily_ratings (product_id, review_date, review_count, rating_sum) VALUES (?, ?, ?, ?) "
+            + "ON CONFLICT (product_id, review_date) DO UPDATE SET "
+            + "review_count = review_daily_ratings.review_count + EXCLUDED.review_count, "
+            + "rating_sum = review_daily_ratings.rating_sum + EXCLUDED.rating_sum";
+
+    // H2 (tests and local runs): its MERGE is not atomic against a concurrent first insert of the same day, but
+    // writers of one product already serialize on the product's counter row
+    private static final String MERGE_SQL =
+            "MERGE INTO review_daily_ratings d USING (VALUES (CAST(? AS BIGINT), CAST(? AS DATE), CAST(? AS BIGINT), "
+            + "CAST(? AS BIGINT))) AS v (product_id, review_date, review_count, rating_sum) "
+            + "ON d.product_id = v.product_id AND d.review_date = v.review_date "
+            + "WHEN MATCHED THEN UPDATE SET review_count = d.review_count + v.review_count, "
+            + "rating_sum = d.rating_sum + v.rating_sum "
+            + "WHEN NOT MATCHED THEN INSERT (product_id, review_date, review_count, rating_sum) "
+            + "VALUES (v.product_id, v.review_date, v.review_count, v.rating_sum)";
+
+    // Conflicts with the ROW EXCLUSIVE lock every upsert takes, but not with readers
+    private static final String POSTGRES_LOCK_SQL = "LOCK TABLE review_daily_ratings IN SHARE ROW EXCLUSIVE MODE";
+
+    /**
+     * Per product and day totals of a batch of reviews, applied as one batch of upserts.
+     */
+    public static final class DailyTotals {
+
+        private final Map<Long, Map<LocalDate, long[]>> totals = new LinkedHashMap<>();
+
+        public void add(long productId, LocalDateTime createdAt, int rating) {
+            long[] day = totals.computeIfAbsent(productId, id -> new LinkedHashMap<>())
+                    .computeIfAbsent(createdAt.toLocalDate(), d -> new long[2]);
+            day[0]++;
+            day[1] += rating;
+        }
+    }
+
+    private final ReviewDailyRatingRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean postgres;
+
+    public ReviewRatingRollups(ReviewDailyRatingRepository repository, JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.postgres = isPostgres(jdbcTemplate);
+    }
+
+    public void add(long productId, LocalDate day, long count, long ratingSum) {
+        jdbcTemplate.update(postgres ? POSTGRES_UPSERT_SQL : MERGE_SQL, productId, Date.valueOf(day), count, ratingSum);
+    }
+
+    public void addAll(DailyTotals batch) {
+        List<Object[]> rows = new ArrayList<>();
+        batch.totals.forEach((productId, days) -> days.forEach((day, sums) ->
+                rows.add(new Object[]{productId, Date.valueOf(day), sums[0], sums[1]})));
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(postgres ? POSTGRES_UPSERT_SQL : MERGE_SQL, rows);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (repository.count() == 0) {
+            rebuild();
+        }
+    }
+
+    @Scheduled(cron = "${reviews.rollups.rebuild-cron:-}")
+    public void rebuild() {
+        long started = System.nanoTime();
+        Integer rows = transactionTemplate.execute(status -> {
+            if (postgres) {
+                // Waits for in-flight writers and holds new ones until the rows are rebuilt
+                jdbcTemplate.execute(POSTGRES_LOCK_SQL);
+            }
+            repository.deleteAllRows();
+            return repository.insertFromReviews();
+        });
+        log.info("Rebuilt {} daily rating rows in {} ms", rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    private static boolean isPostgres(JdbcTemplate jdbcTemplate) {
+        try {
+            String product = JdbcUtils.extractDatabaseMetaData(jdbcTemplate.getDataSource(),
+                    DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equals(product);
+        } catch (MetaDataAccessException e) {
+            throw new IllegalStateException("Could not determine the database for rating rollups", e);
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.example.productreview.service;
+
+import com.example.productreview.model.ProductSummary;
+import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.repository.ProductSummaryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stale-while-revalidate AI review summaries. Reads never generate: they return the last summary at once
+ * and, when it is missing or outdated, queue one regeneration per product on a small worker pool with a
+ * bounded queue. A worker reads the product's rating and theme counters, which cover every review, in a short
+ * read-only transaction and returns the connection before the (slow) AI call starts.
+ * <p>
+ * Summaries are stored in {@code product_summaries} with the review count they were generated from, and
+ * cached in memory in front of that table. A summary stays current until the product has
+ * {@code ai.summary.regenerate-after-reviews} more reviews than that watermark (or, for small products,
+ * twice as many), so busy products are not regenerated on every review. Past that, it keeps being served, marked
+ * stale, until its replacement is ready.
+ * <p>
+ * Regenerating a stale summary waits {@code ai.summary.debounce-ms} first, so the reviews of a burst land in
+ * one generation, and reads in the meantime join the scheduled one. The generation is skipped, keeping the
+ * text and advancing the watermark, when the rating distribution has shifted by less than
+ * {@code ai.summary.min-rating-shift} since the text was written and the product has not doubled its reviews.
+ */
+@Component
+public class ReviewSummaryPipeline {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewSummaryPipeline.class);
+    static final String CACHE_NAME = "aiSummaries";
+    static final String GENERATIONS_METRIC = "ai.summary.generations";
+    static final String SAVED_METRIC = "ai.summary.generations.saved";
+
+    public enum Status {
+        /** The summary is current for the product's reviews. */
+        READY,
+        /** An older summary, served while a newer one is generated. */
+        STALE,
+        /** No summary yet; one is being generated. */
+        PENDING,
+        /** The product has no reviews, or the generator produced nothing. */
+        NONE
+    }
+
+    public record Snapshot(Status status, String summary, LocalDateTime generatedAt) {
+    }
+
+    private record Entry(String summary, LocalDateTime generatedAt, int reviewCount, int[] starCounts) {
+    }
+
+    private record Source(String productName, int reviewCount, int[] starCounts, ReviewProfile profile,
+                          boolean unchanged) {
+    }
+
+    /**
+     * Cached for products without a stored summary, so a miss does not go to the database on every read.
+     */
+    private static final Entry MISSING = new Entry(null, null, -1, new int[5]);
+
+    private final ProductRepository productRepository;
+    private final ProductSummaryRepository productSummaryRepository;
+    private final AISummaryService aiSummaryService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int regenerateAfterReviews;
+    private final long debounceMs;
+    private final double minRatingShift;
+    private final ThreadPoolExecutor workers;
+    private final ScheduledThreadPoolExecutor debouncer;
+    private final Counter generated;
+    private final Counter savedCoalesced;
+    private final Counter savedUnchanged;
+    private final Cache<Long, Entry> entries;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    // Per product waiting out its debounce window: the review count it was scheduled at, and 1 once a read
+    // has seen reviews arrive since, i.e. a regeneration the window absorbed
+    private final Map<Long, int[]> debouncing = new ConcurrentHashMap<>();
+
+    public ReviewSummaryPipeline(ProductRepository productRepository,
+                                 ProductSummaryRepository productSummaryRepository,
+                                 AISummaryService aiSummaryService,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${ai.summary.workers:2}") int workerCount,
+                                 @Value("${ai.summary.queue-capacity:100}") int queueCapacity,
+                                 @Value("${ai.summary.cache-size:10000}") long cacheSize,
+                                 @Value("${ai.summary.regenerate-after-reviews:5}") int regenerateAfterReviews,
+                                 @Value("${ai.summary.debounce-ms:2000}") long debounceMs,
+                                 @Value("${ai.summary.min-rating-shift:0.1}") double minRatingShift) {
+        this.productRepository = productRepository;
+        this.productSummaryRepository = productSummaryRepository;
+        this.aiSummaryService = aiSummaryService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.regenerateAfterReviews = Math.max(1, regenerateAfterReviews);
+        this.debounceMs = debounceMs;
+        this.minRatingShift = minRatingShift;
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ai-summary-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.debouncer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "ai-summary-debounce");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.generated = meterRegistry.counter(GENERATIONS_METRIC);
+        this.savedCoalesced = meterRegistry.counter(SAVED_METRIC, "reason", "coalesced");
+        this.savedUnchanged = meterRegistry.counter(SAVED_METRIC, "reason", "unchanged");
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, CACHE_NAME);
+    }
+
+    /**
+     * The product's summary for its current review count, queueing a regeneration when it is missing or the
+     * count has moved too far past the summary's watermark.
+     */
+    public Snapshot current(long productId, int reviewCount) {
+        if (reviewCount == 0) {
+            return new Snapshot(Status.NONE, null, null);
+        }
+        Entry entry = entries.get(productId, this::load);
+        if (entry != MISSING && isCurrent(entry, reviewCount)) {
+            return new Snapshot(entry.summary() != null ? Status.READY : Status.NONE, entry.summary(),
+                    entry.generatedAt());
+        }
+        // A missing summary is generated right away; a stale one waits for the burst to settle
+        refresh(productId, reviewCount, entry.summary() != null ? debounceMs : 0);
+        return entry.summary() != null
+                ? new Snapshot(Status.STALE, entry.summary(), entry.generatedAt())
+                : new Snapshot(Status.PENDING, null, null);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        debouncer.shutdownNow();
+        workers.shutdownNow();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private boolean isCurrent(Entry entry, int reviewCount) {
+        // A count below the watermark only means the caller's view lags the database
+        return reviewCount - entry.reviewCount() < Math.min(regenerateAfterReviews, Math.max(1, entry.reviewCount()));
+    }
+
+    /**
+     * Whether the text generated from {@code previous} still describes a product with these star counts.
+     */
+    private boolean isUnchanged(Entry previous, int reviewCount, int[] starCounts) {
+        int generatedFrom = Arrays.stream(previous.starCounts()).sum();
+        if (previous.summary() == null || generatedFrom == 0 || reviewCount >= 2 * generatedFrom) {
+            return false;
+        }
+        return ratingShift(previous.starCounts(), starCounts) < minRatingShift;
+    }
+
+    /**
+     * Total variation distance between two star distributions: the share of reviews that would have to
+     * change rating to turn one into the other, from 0 to 1.
+     */
+    static double ratingShift(int[] before, int[] after) {
+        double beforeTotal = Arrays.stream(before).sum();
+        double afterTotal = Arrays.stream(after).sum();
+        if (beforeTotal == 0 || afterTotal == 0) {
+            return beforeTotal == afterTotal ? 0 : 1;
+        }
+        double distance = 0;
+        for (int star = 0; star < before.length; star++) {
+            distance += Math.abs(before[star] / beforeTotal - after[star] / afterTotal);
+        }
+        return distance / 2;
+    }
+
+    private Entry load(long productId) {
+        return productSummaryRepository.findById(productId)
+                .map(stored -> new Entry(stored.getSummary(), stored.getGeneratedAt(), stored.getReviewCount(),
+                        stored.getStarCounts()))
+                .orElse(MISSING);
+    }
+
+    private void refresh(long productId, int reviewCount, long delayMs) {
+        if (!inFlight.add(productId)) {
+            debouncing.computeIfPresent(productId, (id, window) -> {
+                if (reviewCount > window[0]) {
+                    window[1] = 1;
+                }
+                return window;
+            });
+            return;
+        }
+        if (delayMs > 0) {
+            debouncing.put(productId, new int[]{reviewCount, 0});
+            debouncer.schedule(() -> {
+                int[] window = debouncing.remove(productId);
+                if (window != null && window[1] == 1) {
+                    savedCoalesced.increment();
+                }
+                submit(productId);
+            }, delayMs, TimeUnit.MILLISECONDS);
+        } else {
+            submit(productId);
+        }
+    }
+
+    private void submit(long productId) {
+        try {
+            workers.execute(() -> regenerate(productId));
+        } catch (RejectedExecutionException e) {
+            // Queue full: the next read of this product tries again
+            inFlight.remove(productId);
+            log.warn("AI summary queue is full, product {} not queued", productId);
+        }
+    }
+
+    private void regenerate(long productId) {
+        try {
+            Entry previous = entries.get(productId, this::load);
+            Source source = readOnlyTransaction.execute(status -> productRepository.findById(productId)
+                    .map(product -> {
+                        int reviewCount = product.getReviewCount() != null ? product.getReviewCount() : 0;
+                        int[] starCounts = product.getRatingBreakdown().values().stream()
+                                .mapToInt(Long::intValue).toArray();
+                        return new Source(product.getName(), reviewCount, starCounts, ReviewProfile.of(product),
+                                isUnchanged(previous, reviewCount, starCounts));
+                    })
+                    .orElse(null));
+            if (source == null) {
+                entries.invalidate(productId);
+                return;
+            }
+            Entry entry;
+            if (source.unchanged()) {
+                entry = new Entry(previous.summary(), previous.generatedAt(), source.reviewCount(),
+                        previous.starCounts());
+                savedUnchanged.increment();
+            } else {
+                String summary = aiSummaryService.generateReviewSummary(productId, source.productName(),
+                        source.profile());
+                entry = new Entry(summary, LocalDateTime.now(), source.reviewCount(), source.starCounts());
+                generated.increment();
+            }
+            save(new ProductSummary(productId, entry.summary(), entry.reviewCount(), entry.generatedAt(),
+                    entry.starCounts()));
+            entries.put(productId, entry);
+        } catch (RuntimeException e) {
+            log.error("Failed to generate AI summary for product {}: {}", productId, e.getMessage(), e);
+        } finally {
+            inFlight.remove(productId);
+        }
+    }
+
+    private void save(ProductSummary summary) {
+        try {
+            productSummaryRepository.save(summary);
+        } catch (DataAccessException e) {
+            // Another instance stored the same product's summary first; keep ours in memory only
+            log.warn("Could not store AI summary for product {}: {}", summary.getProductId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.productreview.service;
+
+import com.example.productreview.repository.ReviewVoteRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * The review ids each active user has voted helpful on, as one compressed bitmap per user, so vote state
+ * lookups never reload a user's whole history. Loaded on first use and kept current by
+ * {@link #voted(String, long, boolean)} after each committed toggle; entries are bounded by bitmap size
+ * and expire after an hour without access.
+ */
+@Component
+public class UserVoteCache {
+
+    static final String CACHE_NAME = "userVotes";
+    private static final long MAX_WEIGHT_BYTES = 64L * 1024 * 1024;
+
+    private final ReviewVoteRepository reviewVoteRepository;
+    private final Cache<String, Roaring64Bitmap> votes = Caffeine.newBuilder()
+            .maximumWeight(MAX_WEIGHT_BYTES)
+            .weigher((String userId, Roaring64Bitmap bitmap) -> (int) Math.min(Integer.MAX_VALUE, bitmap.getLongSizeInBytes()))
+            .expireAfterAccess(Duration.ofHours(1))
+            .recordStats()
+            .build();
+
+    public UserVoteCache(ReviewVoteRepository reviewVoteRepository, MeterRegistry meterRegistry) {
+        this.reviewVoteRepository = reviewVoteRepository;
+        CaffeineCacheMetrics.monitor(meterRegistry, votes, CACHE_NAME);
+    }
+
+    public List<Long> all(String userId) {
+        Roaring64Bitmap bitmap = bitmap(userId);
+        synchronized (bitmap) {
+            List<Long> ids = new ArrayList<>((int) bitmap.getLongCardinality());
+            bitmap.forEach(ids::add);
+            return ids;
+        }
+    }
+
+    /**
+     * The given review ids the user has voted on, in request order.
+     */
+    public List<Long> filter(String userId, Collection<Long> reviewIds) {
+        Roaring64Bitmap bitmap = bitmap(userId);
+        synchronized (bitmap) {
+            return reviewIds.stream().filter(id -> id != null && bitmap.contains(id)).distinct().toList();
+        }
+    }
+
+    /**
+     * Applies a committed vote or unvote. Only cached users are touched; a load racing the toggle either
+     * read the committed row already or is applied before this update, since both go through the entry.
+     */
+    public void voted(String userId, long reviewId, boolean voted) {
+        votes.asMap().computeIfPresent(userId, (key, bitmap) -> {
+            synchronized (bitmap) {
+                if (voted) {
+                    bitmap.addLong(reviewId);
+                } else {
+                    bitmap.removeLong(reviewId);
+                }
+            }
+            return bitmap;
+        });
+    }
+
+    private Roaring64Bitmap bitmap(String userId) {
+        return votes.get(userId, this::load);
+    }
+
+    private Roaring64Bitmap load(String userId) {
+        Roaring64Bitmap bitmap = new Roaring64Bitmap();
+        for (Long reviewId : reviewVoteRepository.findReviewIdsByUserId(userId)) {
+            bitmap.addLong(reviewId);
+        }
+        bitmap.runOptimize();
+        return bitmap;
+    }
+}
@@ -0,0 +1,9 @@
+-- Last AI review summary per product with the review count and newest review id it was generated from.
+-- Summaries survive restarts and are regenerated only once the product has enough reviews past that mark.
+CREATE TABLE product_summaries (
+    product_id     BIGINT PRIMARY KEY REFERENCES products(id) ON DELETE CASCADE,
+    summary        TEXT,
+    review_count   INTEGER   NOT NULL DEFAULT 0,
+    last_review_id BIGINT    NOT NULL DEFAULT 0,
+    generated_at   TIMESTAMP NOT NULL DEFAULT NOW()
+);
@@ -0,0 +1,8 @@
+-- Star counts each stored summary was generated from, so a summary whose rating distribution has barely
+-- moved is kept (with its watermark advanced) instead of being regenerated.
+ALTER TABLE product_summaries
+    ADD COLUMN one_star_count   INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN two_star_count   INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN three_star_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN four_star_count  INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN five_star_count  INTEGER NOT NULL DEFAULT 0;
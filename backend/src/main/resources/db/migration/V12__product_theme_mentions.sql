@@ -0,0 +1,30 @@
+-- Per-product theme mention counters, advanced once per review at insert time so summaries and chat
+-- answers cover every review without reading any. Praise themes count in 4-5 star reviews, complaint
+-- themes in 1-2 star reviews; keywords match as case-insensitive substrings, as in ReviewProfile.
+ALTER TABLE products
+    ADD COLUMN quality_mentions     INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN performance_mentions INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN design_mentions      INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN price_mentions       INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN battery_mentions     INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN bug_mentions         INTEGER NOT NULL DEFAULT 0;
+
+UPDATE products p SET
+    quality_mentions     = s.quality,
+    performance_mentions = s.performance,
+    design_mentions      = s.design,
+    price_mentions       = s.price,
+    battery_mentions     = s.battery,
+    bug_mentions         = s.bugs
+FROM (
+    SELECT product_id,
+           COUNT(*) FILTER (WHERE rating >= 4 AND (c LIKE '%quality%' OR c LIKE '%great%' OR c LIKE '%excellent%')) AS quality,
+           COUNT(*) FILTER (WHERE rating >= 4 AND (c LIKE '%performance%' OR c LIKE '%fast%' OR c LIKE '%speed%')) AS performance,
+           COUNT(*) FILTER (WHERE rating >= 4 AND (c LIKE '%design%' OR c LIKE '%look%' OR c LIKE '%beautiful%')) AS design,
+           COUNT(*) FILTER (WHERE rating <= 2 AND (c LIKE '%expensive%' OR c LIKE '%price%' OR c LIKE '%cost%')) AS price,
+           COUNT(*) FILTER (WHERE rating <= 2 AND c LIKE '%battery%') AS battery,
+           COUNT(*) FILTER (WHERE rating <= 2 AND (c LIKE '%bug%' OR c LIKE '%issue%' OR c LIKE '%problem%')) AS bugs
+    FROM (SELECT product_id, rating, LOWER(comment) AS c FROM reviews WHERE comment IS NOT NULL) r
+    GROUP BY product_id
+) s
+WHERE p.id = s.product_id;
@@ -0,0 +1,7 @@
+-- The Wilson bound over helpful votes alone, n / (n + 1.96²), only ever rises with helpful_count, so it
+-- ordered reviews exactly like helpful_count. The score becomes log10(1 + helpful_count) plus the creation
+-- time in 90-day units (see Review.helpfulnessScore): newer reviews can overtake old ones with a few votes,
+-- and the time term never needs rewriting. The (product_id, helpfulness_score DESC, id DESC) index from V7
+-- still serves the ordering.
+UPDATE reviews SET helpfulness_score = LOG10(helpful_count + 1.0)
+    + COALESCE(EXTRACT(EPOCH FROM created_at), 0) / 7776000;
@@ -0,0 +1,2 @@
+-- Summaries are current by review count alone; the newest review id was stored but never read.
+ALTER TABLE product_summaries DROP COLUMN last_review_id;
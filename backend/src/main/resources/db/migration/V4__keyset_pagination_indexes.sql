@@ -0,0 +1,10 @@
+-- Composite (sort key, id) indexes backing cursor pagination: each page is a range scan
+-- starting right after the previous page's last row instead of an OFFSET skip.
+CREATE INDEX idx_product_name_id ON products(LOWER(name), id);
+CREATE INDEX idx_product_price_id ON products(price, id);
+CREATE INDEX idx_product_rating_id ON products(average_rating, id);
+CREATE INDEX idx_product_review_count_id ON products(review_count, id);
+
+CREATE INDEX idx_review_product_created_id ON reviews(product_id, created_at, id);
+CREATE INDEX idx_review_product_helpful_id ON reviews(product_id, helpful_count, id);
+CREATE INDEX idx_review_product_rating_created_id ON reviews(product_id, rating, created_at, id);
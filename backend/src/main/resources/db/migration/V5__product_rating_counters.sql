@@ -0,0 +1,37 @@
+-- Per-product rating counters, advanced by one atomic delta UPDATE per new review so the average,
+-- review count and star breakdown no longer need aggregates over the reviews table.
+ALTER TABLE products
+    ADD COLUMN one_star_count   INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN two_star_count   INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN three_star_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN four_star_count  INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN five_star_count  INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN rating_sum       BIGINT  NOT NULL DEFAULT 0;
+
+UPDATE products SET review_count = 0 WHERE review_count IS NULL;
+UPDATE products SET average_rating = 0 WHERE average_rating IS NULL;
+ALTER TABLE products ALTER COLUMN review_count SET NOT NULL;
+ALTER TABLE products ALTER COLUMN average_rating SET NOT NULL;
+
+UPDATE products p SET
+    one_star_count   = s.one_star,
+    two_star_count   = s.two_star,
+    three_star_count = s.three_star,
+    four_star_count  = s.four_star,
+    five_star_count  = s.five_star,
+    rating_sum       = s.rating_sum,
+    review_count     = s.review_count,
+    average_rating   = ROUND(s.rating_sum::NUMERIC / s.review_count, 1)
+FROM (
+    SELECT product_id,
+           COUNT(*) FILTER (WHERE rating = 1) AS one_star,
+           COUNT(*) FILTER (WHERE rating = 2) AS two_star,
+           COUNT(*) FILTER (WHERE rating = 3) AS three_star,
+           COUNT(*) FILTER (WHERE rating = 4) AS four_star,
+           COUNT(*) FILTER (WHERE rating = 5) AS five_star,
+           SUM(rating)                        AS rating_sum,
+           COUNT(*)                           AS review_count
+    FROM reviews
+    GROUP BY product_id
+) s
+WHERE p.id = s.product_id;
@@ -0,0 +1,9 @@
+-- Progress of bulk NDJSON review imports. Each batch commits its rows, counter deltas and this row
+-- together, so re-sending an interrupted import skips exactly the lines already written.
+CREATE TABLE review_import_checkpoints (
+    import_id      VARCHAR(64) PRIMARY KEY,
+    committed_line BIGINT      NOT NULL DEFAULT 0,
+    imported_count BIGINT      NOT NULL DEFAULT 0,
+    failed_count   BIGINT      NOT NULL DEFAULT 0,
+    updated_at     TIMESTAMP   NOT NULL DEFAULT NOW()
+);
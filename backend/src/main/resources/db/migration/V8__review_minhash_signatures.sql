@@ -0,0 +1,7 @@
+-- Near-duplicate detection: a 64-int MinHash signature per review (empty when the comment is too short to
+-- sign) and the review it was flagged as duplicating. Existing rows stay NULL and are signed by the
+-- duplicate index catch-up; the partial index finds them without scanning signed rows.
+ALTER TABLE reviews ADD COLUMN minhash_signature BYTEA;
+ALTER TABLE reviews ADD COLUMN duplicate_of_review_id BIGINT;
+
+CREATE INDEX idx_review_unsigned ON reviews(id) WHERE minhash_signature IS NULL;
@@ -0,0 +1,17 @@
+-- Daily per-product review counts and rating sums, so rating trends read one row per day instead of
+-- scanning reviews. Review writers keep it current; the backfill below covers existing reviews.
+CREATE TABLE review_daily_ratings (
+    product_id   BIGINT NOT NULL REFERENCES products(id) ON DELETE CASCADE,
+    review_date  DATE   NOT NULL,
+    review_count BIGINT NOT NULL DEFAULT 0,
+    rating_sum   BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (product_id, review_date)
+);
+
+CREATE INDEX idx_review_daily_ratings_date ON review_daily_ratings(review_date);
+
+INSERT INTO review_daily_ratings (product_id, review_date, review_count, rating_sum)
+SELECT product_id, CAST(created_at AS DATE), COUNT(*), SUM(rating)
+FROM reviews
+WHERE created_at IS NOT NULL
+GROUP BY product_id, CAST(created_at AS DATE);
@@ -16,6 +16,8 @@ import org.springframework.test.web.servlet.MockMvc;
 @TestPropertySource(properties = "rate-limit.requests-per-minute=10000")
 public abstract class BaseIntegrationTest {
 
+    protected static final String ADMIN_USER_ID = "integration-admin";
+
     @Autowired
     protected MockMvc mockMvc;
 
@@ -23,6 +25,7 @@ public abstract class BaseIntegrationTest {
     static void registerClerkAuthProperties(DynamicPropertyRegistry registry) {
         registry.add("clerk.auth.enabled", () -> "true");
         registry.add("clerk.auth.verification-key", TestClerkJwtSupport::publicKeyPem);
+        registry.add("clerk.auth.admin-user-ids", () -> ADMIN_USER_ID);
     }
 
     protected RequestPostProcessor clerkAuth() {
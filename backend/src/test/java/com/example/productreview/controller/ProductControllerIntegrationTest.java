@@ -2,17 +2,34 @@ package com.example.productreview.controller;
 
 import com.example.productreview.BaseIntegrationTest;
 import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.service.HelpfulVoteCounter;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 public class ProductControllerIntegrationTest extends BaseIntegrationTest {
@@ -20,6 +37,12 @@ public class ProductControllerIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private HelpfulVoteCounter helpfulVoteCounter;
+
+    @Autowired
+    private ProductRepository productRepository;
+
     @Test
     void getAllProducts_ShouldReturnOk() throws Exception {
         mockMvc.perform(get("/api/v1/products").with(clerkAuth()))
@@ -49,6 +72,198 @@ public class ProductControllerIntegrationTest extends BaseIntegrationTest {
                 .andExpect(jsonPath("$.reviewerName").value("Jane Doe"));
     }
 
+    @Test
+    void addReview_WithNearDuplicateComment_ShouldFlagTheEarlierReview() throws Exception {
+        ReviewDTO original = new ReviewDTO();
+        original.setReviewerName("Farm Account");
+        original.setComment("Absolutely life changing gadget, the build quality is superb and shipping was lightning fast!");
+        original.setRating(5);
+        JsonNode first = objectMapper.readTree(mockMvc.perform(post("/api/v1/products/19/reviews")
+                        .with(clerkAuth("review-farm"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(original)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duplicateOfReviewId").doesNotExist())
+                .andReturn().getResponse().getContentAsString());
+
+        ReviewDTO copy = new ReviewDTO();
+        copy.setReviewerName("Farm Account Two");
+        copy.setComment("ABSOLUTELY life-changing gadget... the build quality is superb, and shipping was lightning fast");
+        copy.setRating(5);
+        mockMvc.perform(post("/api/v1/products/20/reviews")
+                        .with(clerkAuth("review-farm"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(copy)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duplicateOfReviewId").value(first.get("id").asLong()));
+    }
+
+    @Test
+    void addReview_ShouldAdvanceTheProductsThemeCounters() throws Exception {
+        int[] before = productRepository.findById(15L).orElseThrow().getThemeMentions();
+
+        ReviewDTO reviewDTO = new ReviewDTO();
+        reviewDTO.setReviewerName("Theme Counter");
+        reviewDTO.setComment("Stopped charging after a week, battery problem and way too expensive");
+        reviewDTO.setRating(1);
+        mockMvc.perform(post("/api/v1/products/15/reviews")
+                        .with(clerkAuth())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDTO)))
+                .andExpect(status().isOk());
+
+        int[] after = productRepository.findById(15L).orElseThrow().getThemeMentions();
+        assertArrayEquals(new int[]{before[0], before[1], before[2], before[3] + 1, before[4] + 1, before[5] + 1}, after);
+    }
+
+    @Test
+    void getProductTrend_ShouldCountTodaysReviewsFromTheRollups() throws Exception {
+        JsonNode before = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/17/trend").with(clerkAuth())
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").value(17))
+                .andExpect(jsonPath("$.points.length()").value(7))
+                .andReturn().getResponse().getContentAsString());
+        long todayBefore = before.get("points").get(6).get("reviewCount").asLong();
+        long catalogBefore = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/trend").with(clerkAuth())
+                        .param("days", "7"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("reviewCount").asLong();
+
+        ReviewDTO reviewDTO = new ReviewDTO();
+        reviewDTO.setReviewerName("Trend Watcher");
+        reviewDTO.setComment("Counted in today's rating trend.");
+        reviewDTO.setRating(1);
+        mockMvc.perform(post("/api/v1/products/17/reviews")
+                        .with(clerkAuth("trend-author"))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDTO)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/17/trend").with(clerkAuth()).param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.to").value(LocalDate.now().toString()))
+                .andExpect(jsonPath("$.points[6].date").value(LocalDate.now().toString()))
+                .andExpect(jsonPath("$.points[6].reviewCount").value(todayBefore + 1))
+                .andExpect(jsonPath("$.reviewCount").value(before.get("reviewCount").asLong() + 1));
+        mockMvc.perform(get("/api/v1/products/trend").with(clerkAuth()).param("days", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.productId").doesNotExist())
+                .andExpect(jsonPath("$.reviewCount").value(catalogBefore + 1));
+    }
+
+    @Test
+    void getProductTrend_WithInvalidDays_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/17/trend").with(clerkAuth()).param("days", "0"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/products/99999/trend").with(clerkAuth()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getReviewSummary_ShouldBecomeReadyAndSupportConditionalPolling() throws Exception {
+        mockMvc.perform(get("/api/v1/products/16").with(clerkAuth()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.aiSummaryStatus").isString());
+
+        String etag = null;
+        String status = null;
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!"READY".equals(status) && System.currentTimeMillis() < deadline) {
+            MvcResult result = mockMvc.perform(get("/api/v1/products/16/summary").with(clerkAuth()))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists("ETag"))
+                    .andReturn();
+            etag = result.getResponse().getHeader("ETag");
+            status = objectMapper.readTree(result.getResponse().getContentAsString()).get("status").asText();
+            if (!"READY".equals(status)) {
+                Thread.sleep(20);
+            }
+        }
+
+        assertEquals("READY", status);
+        mockMvc.perform(get("/api/v1/products/16/summary").with(clerkAuth()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/v1/products/16").with(clerkAuth()))
+                .andExpect(jsonPath("$.aiSummaryStatus").value("READY"))
+                .andExpect(jsonPath("$.aiSummary").isString());
+        mockMvc.perform(get("/api/v1/products/99999/summary").with(clerkAuth()))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void getAllProducts_WithSearch_ShouldRankByRelevance() throws Exception {
+        mockMvc.perform(get("/api/v1/products").with(clerkAuth()).param("search", "galaxy s24"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].name").value("Samsung Galaxy S24 Ultra"));
+    }
+
+    @Test
+    void suggestProducts_ShouldReturnNamesMatchingWordPrefix() throws Exception {
+        mockMvc.perform(get("/api/v1/products/suggest").with(clerkAuth()).param("q", "iph"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("iPhone 15 Pro"))
+                .andExpect(jsonPath("$[0].id").isNumber());
+    }
+
+    @Test
+    void suggestProducts_ShouldHonorLimit() throws Exception {
+        mockMvc.perform(get("/api/v1/products/suggest").with(clerkAuth()).param("q", "samsung").param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    void suggestProducts_WithInvalidLimit_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/suggest").with(clerkAuth()).param("q", "i").param("limit", "50"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getAllProducts_WithMisspelledSearch_ShouldMatchFuzzily() throws Exception {
+        mockMvc.perform(get("/api/v1/products").with(clerkAuth()).param("search", "iphnoe"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("iPhone 15 Pro"));
+
+        mockMvc.perform(get("/api/v1/products/stats").with(clerkAuth()).param("search", "galxy"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProducts").value(3));
+    }
+
+    @Test
+    void getAllProducts_WithPartialSearchTerm_ShouldMatchPrefix() throws Exception {
+        mockMvc.perform(get("/api/v1/products").with(clerkAuth()).param("search", "macb"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].name").value("MacBook Air M2"));
+    }
+
+    @Test
+    void getAllProducts_WithCategory_ShouldOnlyReturnCategoryMembers() throws Exception {
+        mockMvc.perform(get("/api/v1/products").with(clerkAuth()).param("category", "Wearables"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.content[0].name").value("Apple Watch Series 9"))
+                .andExpect(jsonPath("$.content[1].name").value("Samsung Galaxy Watch 6"));
+    }
+
+    @Test
+    void getCategoryFacets_ShouldCountProductsPerCategory() throws Exception {
+        mockMvc.perform(get("/api/v1/products/facets").with(clerkAuth()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProducts").value(24))
+                .andExpect(jsonPath("$.categories.Wearables").value(2));
+    }
+
+    @Test
+    void getCategoryFacets_WithSearch_ShouldCountMatchesOnly() throws Exception {
+        mockMvc.perform(get("/api/v1/products/facets").with(clerkAuth()).param("search", "watch"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProducts").value(2))
+                .andExpect(jsonPath("$.categories.Wearables").value(2))
+                .andExpect(jsonPath("$.categories.Laptops").doesNotExist());
+    }
+
     // --- Stats Endpoint Tests (#105) ---
 
     @Test
@@ -351,4 +566,367 @@ public class ProductControllerIntegrationTest extends BaseIntegrationTest {
 
         assertEquals(firstCount - 1, secondCount);
     }
+
+    @Test
+    void getReviews_ByDefault_ShouldRankMostHelpfulFirst() throws Exception {
+        JsonNode oldest = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/18/reviews").with(clerkAuth())
+                        .param("sort", "createdAt,asc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("content").get(0);
+        long reviewId = oldest.get("id").asLong();
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(put("/api/v1/products/reviews/" + reviewId + "/helpful").with(clerkAuth("helpfulness-user-" + i)))
+                    .andExpect(status().isOk());
+        }
+        helpfulVoteCounter.flush();
+
+        mockMvc.perform(get("/api/v1/products/18/reviews").with(clerkAuth()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(reviewId))
+                .andExpect(jsonPath("$.content[0].helpfulCount").value(oldest.get("helpfulCount").asInt() + 3));
+
+        String scrolled = mockMvc.perform(get("/api/v1/products/18/reviews/scroll").with(clerkAuth())
+                        .param("sort", "helpfulness,desc")
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(reviewId))
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(scrolled).get("nextCursor").asText();
+        mockMvc.perform(get("/api/v1/products/18/reviews/scroll").with(clerkAuth())
+                        .param("sort", "helpfulness,desc")
+                        .param("size", "1")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(not((int) reviewId)));
+    }
+
+    @Test
+    void lookupUserVotes_ShouldReturnOnlyVotesWithinScope() throws Exception {
+        mockMvc.perform(get("/api/v1/products/reviews/votes")
+                        .with(clerkAuth("vote-lookup-user"))
+                        .param("reviewIds", "1", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isEmpty());
+
+        String voted = mockMvc.perform(put("/api/v1/products/reviews/2/helpful")
+                        .with(clerkAuth("vote-lookup-user")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long productId = objectMapper.readTree(voted).get("productId").asLong();
+
+        mockMvc.perform(get("/api/v1/products/reviews/votes")
+                        .with(clerkAuth("vote-lookup-user"))
+                        .param("reviewIds", "1", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0]").value(2));
+        mockMvc.perform(get("/api/v1/products/reviews/votes")
+                        .with(clerkAuth("vote-lookup-user"))
+                        .param("productId", String.valueOf(productId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0]").value(2));
+        mockMvc.perform(get("/api/v1/products/reviews/voted")
+                        .with(clerkAuth("vote-lookup-user")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    void lookupUserVotes_WithoutScope_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/reviews/votes")
+                        .with(clerkAuth("vote-lookup-user")))
+                .andExpect(status().isBadRequest());
+    }
+
+    // --- Export Endpoint Tests ---
+
+    @Test
+    void exportReviews_ShouldStreamNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/products/reviews/export").with(clerkAuth(ADMIN_USER_ID))
+                        .param("productId", "1")
+                        .param("from", "2000-01-01T00:00:00"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertTrue(lines.length > 0);
+        for (String line : lines) {
+            assertEquals(1, objectMapper.readTree(line).get("productId").asInt());
+        }
+    }
+
+    @Test
+    void exportReviews_WithProductAndCategory_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/reviews/export").with(clerkAuth(ADMIN_USER_ID))
+                        .param("productId", "1")
+                        .param("category", "Electronics"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportReviews_ForMissingProduct_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/products/reviews/export").with(clerkAuth(ADMIN_USER_ID))
+                        .param("productId", "99999"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void exportReviews_ForNonAdmin_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/products/reviews/export").with(clerkAuth())
+                        .param("productId", "1"))
+                .andExpect(status().isForbidden());
+    }
+
+    // --- Review Search Tests ---
+
+    @Test
+    void getReviews_WithQuery_ShouldReturnMatchingReviewsWithHighlights() throws Exception {
+        ReviewDTO reviewDTO = new ReviewDTO();
+        reviewDTO.setReviewerName("Searcher");
+        reviewDTO.setComment("The hinge squeaks a little when folding.");
+        reviewDTO.setRating(3);
+        mockMvc.perform(post("/api/v1/products/1/reviews").with(clerkAuth())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDTO)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/1/reviews").with(clerkAuth()).param("q", "hinge squeaks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(1))
+                .andExpect(jsonPath("$.content[0].reviewerName").value("Searcher"))
+                .andExpect(jsonPath("$.content[0].highlights[0][0]").value(4))
+                .andExpect(jsonPath("$.content[0].highlights[0][1]").value(9));
+
+        mockMvc.perform(get("/api/v1/products/1/reviews").with(clerkAuth()).param("q", "test revi").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(greaterThan(5)))
+                .andExpect(jsonPath("$.content.length()").value(5));
+    }
+
+    // --- Import Endpoint Tests ---
+
+    @Test
+    void importReviews_ShouldRunInBackgroundAndReportImportedAndRejectedLines() throws Exception {
+        String body = "{\"productId\":21,\"reviewerName\":\"Importer\",\"comment\":\"Imported through the endpoint\",\"rating\":4}\n"
+                + "{\"productId\":21,\"reviewerName\":\"I\",\"comment\":\"short\",\"rating\":4}\n";
+
+        String location = mockMvc.perform(post("/api/v1/products/reviews/import").with(clerkAuth(ADMIN_USER_ID))
+                        .param("importId", "endpoint-import")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(body))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.importId").value("endpoint-import"))
+                .andExpect(jsonPath("$.state").value("QUEUED"))
+                .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+        assertEquals("/api/v1/products/reviews/import/endpoint-import", location);
+
+        JsonNode status = null;
+        for (int attempt = 0; attempt < 100; attempt++) {
+            status = objectMapper.readTree(mockMvc.perform(get(location).with(clerkAuth(ADMIN_USER_ID)))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            if (status.get("state").asText().equals("SUCCEEDED")) {
+                break;
+            }
+            Thread.sleep(50);
+        }
+        assertEquals("SUCCEEDED", status.get("state").asText());
+        assertEquals(1, status.get("result").get("imported").asInt());
+        assertEquals(1, status.get("result").get("failed").asInt());
+        assertEquals(2, status.get("result").get("errors").get(0).get("line").asInt());
+    }
+
+    @Test
+    void importReviews_ForNonAdmin_ShouldReturnForbidden() throws Exception {
+        mockMvc.perform(post("/api/v1/products/reviews/import").with(clerkAuth())
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content("{\"productId\":21,\"reviewerName\":\"Importer\",\"comment\":\"Not allowed\",\"rating\":4}\n"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/products/reviews/import/endpoint-import").with(clerkAuth()))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void importReviews_WithInvalidImportId_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(post("/api/v1/products/reviews/import").with(clerkAuth(ADMIN_USER_ID))
+                        .param("importId", "../etc/passwd")
+                        .contentType(MediaType.APPLICATION_NDJSON)
+                        .content(""))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getImportStatus_ForUnknownImport_ShouldReturnNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/products/reviews/import/never-submitted").with(clerkAuth(ADMIN_USER_ID)))
+                .andExpect(status().isNotFound());
+    }
+
+    // --- Cursor Pagination Tests ---
+
+    @Test
+    void scrollReviews_ShouldVisitEveryReviewExactlyOnce() throws Exception {
+        String pagedResponse = mockMvc.perform(get("/api/v1/products/1/reviews").with(clerkAuth()).param("size", "1"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        long total = objectMapper.readTree(pagedResponse).get("totalElements").asLong();
+
+        Set<Long> seen = new HashSet<>();
+        String cursor = null;
+        LocalDateTime previousCreatedAt = null;
+        do {
+            var request = get("/api/v1/products/1/reviews/scroll").with(clerkAuth()).param("size", "7");
+            if (cursor != null) {
+                request = request.param("cursor", cursor);
+            }
+            JsonNode page = objectMapper.readTree(mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            for (JsonNode review : page.get("content")) {
+                assertTrue(seen.add(review.get("id").asLong()), "review returned twice: " + review.get("id"));
+                LocalDateTime createdAt = LocalDateTime.parse(review.get("createdAt").asText());
+                if (previousCreatedAt != null) {
+                    assertTrue(!createdAt.isAfter(previousCreatedAt), "reviews out of order");
+                }
+                previousCreatedAt = createdAt;
+            }
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+
+        assertEquals(total, seen.size());
+    }
+
+    @Test
+    void scrollProducts_ByPrice_ShouldReturnAscendingPagesWithoutGaps() throws Exception {
+        JsonNode first = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/scroll").with(clerkAuth())
+                        .param("sort", "price,asc").param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.size").value(5))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andReturn().getResponse().getContentAsString());
+
+        JsonNode second = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/scroll").with(clerkAuth())
+                        .param("sort", "price,asc").param("size", "5")
+                        .param("cursor", first.get("nextCursor").asText()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        JsonNode paged = objectMapper.readTree(mockMvc.perform(get("/api/v1/products").with(clerkAuth())
+                        .param("sort", "price,asc").param("size", "10"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(paged.get("content").get(i).get("id"), first.get("content").get(i).get("id"));
+            assertEquals(paged.get("content").get(i + 5).get("id"), second.get("content").get(i).get("id"));
+        }
+    }
+
+    @Test
+    void scrollProducts_WithInvalidCursor_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/scroll").with(clerkAuth()).param("cursor", "not-a-cursor!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void scrollProducts_WithCursorFromOtherSort_ShouldReturnBadRequest() throws Exception {
+        String response = mockMvc.perform(get("/api/v1/products/scroll").with(clerkAuth())
+                        .param("sort", "price,asc").param("size", "2"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        String cursor = objectMapper.readTree(response).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/v1/products/scroll").with(clerkAuth())
+                        .param("sort", "name,asc").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void scrollProducts_WithSearch_ShouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/products/scroll").with(clerkAuth()).param("search", "phone"))
+                .andExpect(status().isBadRequest());
+    }
+
+    // --- Slice Listing Tests ---
+
+    @Test
+    void getProductSlice_ShouldReturnCompactEnvelopeWithTotal() throws Exception {
+        mockMvc.perform(get("/api/v1/products/slice").with(clerkAuth()).param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(5))
+                .andExpect(jsonPath("$.totalElements").value(24))
+                .andExpect(jsonPath("$.totalPages").value(5))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.pageable").doesNotExist());
+    }
+
+    @Test
+    void getProductSlice_WithCategory_ShouldMatchPagedTotal() throws Exception {
+        mockMvc.perform(get("/api/v1/products/slice").with(clerkAuth()).param("category", "Wearables"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(2))
+                .andExpect(jsonPath("$.hasNext").value(false));
+    }
+
+    @Test
+    void getReviewSlice_ShouldMatchPagedTotalsAndFollowNewReviews() throws Exception {
+        long pagedTotal = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/2/reviews")
+                        .with(clerkAuth()).param("rating", "5"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString()).get("totalElements").asLong();
+
+        mockMvc.perform(get("/api/v1/products/2/reviews/slice").with(clerkAuth()).param("rating", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(pagedTotal));
+
+        ReviewDTO reviewDTO = new ReviewDTO();
+        reviewDTO.setReviewerName("Slice Tester");
+        reviewDTO.setComment("Counting this one right away");
+        reviewDTO.setRating(5);
+        mockMvc.perform(post("/api/v1/products/2/reviews")
+                        .with(clerkAuth())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDTO)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/2/reviews/slice").with(clerkAuth()).param("rating", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalElements").value(pagedTotal + 1));
+    }
+
+    @Test
+    void getGlobalStats_ShouldReflectNewReviewImmediately() throws Exception {
+        JsonNode before = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/stats")
+                        .with(clerkAuth()).param("category", "Audio"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        long globalBefore = objectMapper.readTree(mockMvc.perform(get("/api/v1/products/stats").with(clerkAuth()))
+                .andReturn().getResponse().getContentAsString()).get("totalReviews").asLong();
+
+        String audioProduct = objectMapper.readTree(mockMvc.perform(get("/api/v1/products")
+                        .with(clerkAuth()).param("category", "Audio").param("size", "1"))
+                .andReturn().getResponse().getContentAsString()).get("content").get(0).get("id").asText();
+
+        ReviewDTO reviewDTO = new ReviewDTO();
+        reviewDTO.setReviewerName("Stats Tester");
+        reviewDTO.setComment("Totals should move with this review");
+        reviewDTO.setRating(4);
+        mockMvc.perform(post("/api/v1/products/" + audioProduct + "/reviews")
+                        .with(clerkAuth())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(reviewDTO)))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/api/v1/products/stats").with(clerkAuth()).param("category", "Audio"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.totalProducts").value(before.get("totalProducts").asLong()))
+                .andExpect(jsonPath("$.totalReviews").value(before.get("totalReviews").asLong() + 1));
+        mockMvc.perform(get("/api/v1/products/stats").with(clerkAuth()))
+                .andExpect(jsonPath("$.totalReviews").value(globalBefore + 1));
+    }
 }
@@ -27,6 +27,27 @@ class ModelUnitTest {
         assertEquals(0, review.getHelpfulCount());
     }
 
+    @Test
+    void review_OnCreate_ShouldScoreUnvotedReviewByCreationTime() {
+        Review review = new Review();
+        review.onCreate();
+
+        assertEquals(Review.helpfulnessScore(0, review.getCreatedAt()), review.getHelpfulnessScore());
+    }
+
+    @Test
+    void helpfulnessScore_ShouldLetNewerReviewsOvertakeOldVotes() {
+        LocalDateTime old = LocalDateTime.of(2025, 1, 1, 12, 0);
+        LocalDateTime year = old.plusYears(1);
+
+        // Same age: more votes rank higher
+        assertTrue(Review.helpfulnessScore(5, old) > Review.helpfulnessScore(4, old));
+        // A year later, one vote outranks the old review's five
+        assertTrue(Review.helpfulnessScore(1, year) > Review.helpfulnessScore(5, old));
+        // but not ten times its votes
+        assertTrue(Review.helpfulnessScore(1, old.plusDays(90)) < Review.helpfulnessScore(20, old));
+    }
+
     @Test
     void review_AllArgsConstructor_ShouldSetAllFields() {
         Product product = new Product();
@@ -0,0 +1,35 @@
+package com.example.productreview.search;
+
+import com.example.productreview.BaseIntegrationTest;
+import com.example.productreview.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CatalogStatisticsReconcilerIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private CatalogStatistics statistics;
+
+    @Autowired
+    private CatalogStatisticsReconciler reconciler;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void reconcile_ShouldRestoreDriftedTotalsFromDatabase() {
+        statistics.replaceIfUnchanged(statistics.version(),
+                new CatalogStatistics.Totals(1, 1, 1.0), Map.of("Audio", new CatalogStatistics.Totals(1, 1, 1.0)));
+
+        reconciler.reconcile();
+
+        Object[] row = productRepository.sumCatalogTotals().get(0);
+        assertEquals(((Number) row[0]).longValue(), statistics.global().products());
+        assertEquals(((Number) row[1]).longValue(), statistics.global().reviews());
+        assertEquals(productRepository.countInCategory("Electronics"), statistics.category("Electronics").products());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.productreview.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogStatisticsTest {
+
+    private CatalogStatistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = new CatalogStatistics();
+        statistics.rebuild(List.of(
+                document(1L, 4.0, 10, "Electronics", "Smartphones"),
+                document(2L, 5.0, 2, "Electronics"),
+                document(3L, 3.0, 6, "Audio")
+        ));
+    }
+
+    @Test
+    void rebuild_ShouldAggregateGlobalAndPerCategory() {
+        assertEquals(new CatalogStatistics.Totals(3, 18, 12.0), statistics.global());
+        assertEquals(new CatalogStatistics.Totals(2, 12, 9.0), statistics.category("Electronics"));
+        assertEquals(4.5, statistics.category("Electronics").averageRating(), 1e-9);
+        assertEquals(CatalogStatistics.Totals.EMPTY, statistics.category("Unknown"));
+    }
+
+    @Test
+    void upsert_ShouldApplyReviewDelta() {
+        statistics.upsert(document(2L, 5.0, 2, "Electronics"), document(2L, 4.0, 3, "Electronics"));
+
+        assertEquals(new CatalogStatistics.Totals(3, 19, 11.0), statistics.global());
+        assertEquals(new CatalogStatistics.Totals(2, 13, 8.0), statistics.category("Electronics"));
+    }
+
+    @Test
+    void upsert_ShouldMoveTotalsBetweenCategories() {
+        statistics.upsert(document(3L, 3.0, 6, "Audio"), document(3L, 3.0, 6, "Wearables"));
+
+        assertEquals(CatalogStatistics.Totals.EMPTY, statistics.category("Audio"));
+        assertEquals(new CatalogStatistics.Totals(1, 6, 3.0), statistics.category("Wearables"));
+    }
+
+    @Test
+    void remove_ShouldSubtractProduct() {
+        statistics.remove(document(1L, 4.0, 10, "Electronics", "Smartphones"));
+
+        assertEquals(new CatalogStatistics.Totals(2, 8, 8.0), statistics.global());
+        assertEquals(CatalogStatistics.Totals.EMPTY, statistics.category("Smartphones"));
+    }
+
+    @Test
+    void replaceIfUnchanged_ShouldRejectWhenWritesRacedTheRead() {
+        long version = statistics.version();
+        statistics.upsert(null, document(4L, 2.0, 1, "Audio"));
+
+        assertFalse(statistics.replaceIfUnchanged(version, CatalogStatistics.Totals.EMPTY, Map.of()));
+        assertTrue(statistics.replaceIfUnchanged(statistics.version(),
+                new CatalogStatistics.Totals(1, 1, 2.0), Map.of("Audio", new CatalogStatistics.Totals(1, 1, 2.0))));
+        assertEquals(new CatalogStatistics.Totals(1, 1, 2.0), statistics.global());
+    }
+
+    private static ProductDocument document(long id, double rating, int reviews, String... categories) {
+        return new ProductDocument(id, "Product " + id, "Description", Set.of(categories), 10.0, rating, reviews);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.productreview.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CategoryIndexTest {
+
+    private CategoryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CategoryIndex();
+        index.rebuild(List.of(
+                document(1L, "Electronics", "Smartphones"),
+                document(2L, "Electronics", "Smartphones"),
+                document(3L, "Laptops", "Electronics"),
+                document(4L, "Accessories")
+        ));
+    }
+
+    @Test
+    void members_ShouldReturnCategoryProducts() {
+        assertEquals(RoaringBitmap.bitmapOf(1, 2), index.members("Smartphones"));
+        assertEquals(3, index.count("Electronics"));
+        assertEquals(0, index.count("Unknown"));
+        assertTrue(index.contains("Laptops", 3L));
+        assertFalse(index.contains("Laptops", 1L));
+    }
+
+    @Test
+    void members_ShouldReturnDefensiveCopy() {
+        index.members("Smartphones").add(99);
+
+        assertEquals(2, index.count("Smartphones"));
+    }
+
+    @Test
+    void facetCounts_ShouldIntersectWithCandidates() {
+        Map<String, Long> counts = index.facetCounts(RoaringBitmap.bitmapOf(2, 3));
+
+        assertEquals(Map.of("Electronics", 2L, "Smartphones", 1L, "Laptops", 1L), counts);
+    }
+
+    @Test
+    void upsert_ShouldMoveProductBetweenCategories() {
+        index.upsert(document(4L, "Accessories"), document(4L, "Audio"));
+
+        assertEquals(0, index.count("Accessories"));
+        assertTrue(index.contains("Audio", 4L));
+        assertEquals(4, index.allProducts().getCardinality());
+    }
+
+    @Test
+    void remove_ShouldDropProductEverywhere() {
+        index.remove(document(3L, "Laptops", "Electronics"));
+
+        assertEquals(0, index.count("Laptops"));
+        assertEquals(2, index.count("Electronics"));
+        assertEquals(3, index.allProducts().getCardinality());
+    }
+
+    private static ProductDocument document(long id, String... categories) {
+        return new ProductDocument(id, "Product " + id, "Description", Set.of(categories), 10.0, 4.0, 1);
+    }
+}
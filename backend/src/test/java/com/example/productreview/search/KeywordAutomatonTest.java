@@ -0,0 +1,55 @@
+package com.example.productreview.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeywordAutomatonTest {
+
+    @Test
+    void match_ShouldFindOverlappingAndNestedKeywordsIgnoringCase() {
+        KeywordAutomaton automaton = new KeywordAutomaton(
+                new String[]{"he"}, new String[]{"she"}, new String[]{"hers"}, new String[]{"his"});
+
+        assertEquals(0b0111, automaton.match("uSHErs"));
+        assertEquals(0b1000, automaton.match("this"));
+        assertEquals(0, automaton.match("no match? h-e s.h.e"));
+        assertEquals(0, automaton.match(null));
+    }
+
+    @Test
+    void match_ShouldAgreeWithLowerCaseContains() {
+        String[][] groups = {{"bug", "issue", "problem"}, {"battery"}, {"expensive", "price", "cost"}, {"great", "eat"}};
+        KeywordAutomaton automaton = new KeywordAutomaton(groups);
+        String[] words = {"Great", "BATTERY", "bugs", "isSue", "cost", "costly", "prices", "eat", "gr", "bat", "tery",
+                "probl", "em", "ñ", "!", " "};
+        Random random = new Random(7);
+
+        for (int sample = 0; sample < 2000; sample++) {
+            StringBuilder text = new StringBuilder();
+            for (int i = random.nextInt(12); i > 0; i--) {
+                text.append(words[random.nextInt(words.length)]);
+                if (random.nextBoolean()) {
+                    text.append(' ');
+                }
+            }
+            String lower = text.toString().toLowerCase();
+            long expected = 0;
+            for (int group = 0; group < groups.length; group++) {
+                for (String keyword : groups[group]) {
+                    if (lower.contains(keyword)) {
+                        expected |= 1L << group;
+                    }
+                }
+            }
+            assertEquals(expected, automaton.match(text.toString()), text.toString());
+        }
+    }
+
+    @Test
+    void constructor_WithUpperCaseKeyword_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new KeywordAutomaton(new String[]{"Battery"}));
+    }
+}
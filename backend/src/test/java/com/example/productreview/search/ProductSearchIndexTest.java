@@ -0,0 +1,159 @@
+package com.example.productreview.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSearchIndex();
+        index.rebuild(List.of(
+                document(1L, "iPhone 15 Pro", "The latest iPhone with A17 Pro chip.", "Smartphones"),
+                document(2L, "Google Pixel 8 Pro", "The best of Google AI and camera.", "Smartphones"),
+                document(3L, "iPad Pro 12.9", "The ultimate iPad experience with M2 chip.", "Tablets"),
+                document(4L, "Bellroy Tech Kit", "Organize your cables and accessories.", "Accessories")
+        ));
+    }
+
+    @Test
+    void search_ShouldRankNameMatchesAboveDescriptionMatches() {
+        SearchHits hits = index.search("iphone ", null);
+
+        assertEquals(1, hits.size());
+        assertArrayEquals(new long[]{1L}, hits.rankedPage(0, 10));
+    }
+
+    @Test
+    void search_ShouldRequireEveryToken() {
+        SearchHits hits = index.search("pro chip ", null);
+
+        assertEquals(2, hits.size());
+        assertEquals(Set.of(1L, 3L), Set.of(hits.idAt(0), hits.idAt(1)));
+    }
+
+    @Test
+    void search_WithPartialLastToken_ShouldExpandPrefix() {
+        SearchHits hits = index.search("pix", null);
+
+        assertArrayEquals(new long[]{2L}, hits.rankedPage(0, 10));
+    }
+
+    @Test
+    void search_WithCompletedToken_ShouldRankWholeWordAboveLongerWords() {
+        index.upsert(null, document(5L, "Pix Tripod", "Compact tripod for phones.", "Accessories"));
+
+        assertArrayEquals(new long[]{5L, 2L}, index.search("pix ", null).rankedPage(0, 10));
+    }
+
+    @Test
+    void search_ShouldMatchWordsContainingToken() {
+        assertArrayEquals(new long[]{1L}, index.search("phone ", null).rankedPage(0, 10));
+        assertArrayEquals(new long[]{4L}, index.search("roy", null).rankedPage(0, 10));
+    }
+
+    @Test
+    void search_ShouldRankInfixMatchesBelowWholeWords() {
+        index.upsert(null, document(5L, "Phone Stand", "Aluminium stand.", "Accessories"));
+
+        assertArrayEquals(new long[]{5L, 1L}, index.search("phone ", null).rankedPage(0, 10));
+    }
+
+    @Test
+    void search_WithShortToken_ShouldNotMatchInsideWords() {
+        assertEquals(0, index.search("ad ", null).size());
+    }
+
+    @Test
+    void search_ShouldApplyFilter() {
+        SearchHits hits = index.search("pro", id -> id == 3L);
+
+        assertArrayEquals(new long[]{3L}, hits.rankedPage(0, 10));
+    }
+
+    @Test
+    void rankedPage_ShouldPageThroughRankedHits() {
+        SearchHits hits = index.search("pro", null);
+
+        long[] all = hits.rankedPage(0, 10);
+        assertEquals(3, all.length);
+        assertArrayEquals(new long[]{all[1]}, hits.rankedPage(1, 1));
+        assertEquals(0, hits.rankedPage(5, 10).length);
+    }
+
+    @Test
+    void upsert_ShouldReplaceChangedText() {
+        ProductDocument previous = document(4L, "Bellroy Tech Kit", "Organize your cables and accessories.", "Accessories");
+        ProductDocument renamed = document(4L, "Bellroy Cable Pouch", "Organize your cables and accessories.", "Accessories");
+
+        index.upsert(previous, renamed);
+
+        assertEquals(0, index.search("tech ", null).size());
+        assertArrayEquals(new long[]{4L}, index.search("pouch", null).rankedPage(0, 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_ShouldDropDocument() {
+        index.remove(document(2L, "Google Pixel 8 Pro", "The best of Google AI and camera.", "Smartphones"));
+
+        assertEquals(0, index.search("google", null).size());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_WithBlankQuery_ShouldReturnNoHits() {
+        assertEquals(0, index.search("  ", null).size());
+    }
+
+    @Test
+    void search_Fuzzy_ShouldMatchTranspositionsAndDeletions() {
+        assertEquals(0, index.search("iphnoe ", null).size());
+
+        assertArrayEquals(new long[]{1L}, index.search("iphnoe ", null, true).rankedPage(0, 10));
+        assertArrayEquals(new long[]{2L}, index.search("googel pixl ", null, true).rankedPage(0, 10));
+    }
+
+    @Test
+    void search_Fuzzy_WithPartialLastToken_ShouldMatchTermPrefixes() {
+        assertArrayEquals(new long[]{4L}, index.search("belr", null, true).rankedPage(0, 10));
+    }
+
+    @Test
+    void search_Fuzzy_ShouldRankExactMatchesAboveTypos() {
+        index.upsert(null, document(5L, "iPod Touch", "Pocket music player.", "Audio"));
+
+        assertArrayEquals(new long[]{3L, 5L}, index.search("ipad ", null, true).rankedPage(0, 10));
+    }
+
+    @Test
+    void search_Fuzzy_ShouldNotLoosenShortTokens() {
+        assertEquals(0, index.search("m3 ", null, true).size());
+    }
+
+    @Test
+    void search_Fuzzy_ShouldForgetRemovedTerms() {
+        index.remove(document(4L, "Bellroy Tech Kit", "Organize your cables and accessories.", "Accessories"));
+
+        assertEquals(0, index.search("belroy ", null, true).size());
+    }
+
+    @Test
+    void boundedDistance_ShouldCountTranspositionsAsOneEdit() {
+        assertEquals(1, ProductSearchIndex.boundedDistance("iphnoe", "iphone", 2, false));
+        assertEquals(1, ProductSearchIndex.boundedDistance("galxy", "galaxy", 1, false));
+        assertEquals(3, ProductSearchIndex.boundedDistance("abcdef", "uvwxyz", 2, false));
+        assertEquals(1, ProductSearchIndex.boundedDistance("galx", "galaxy", 1, true));
+    }
+
+    private static ProductDocument document(long id, String name, String description, String category) {
+        return new ProductDocument(id, name, description, Set.of(category), 100.0, 4.0, 10);
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.productreview.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProductSuggestIndexTest {
+
+    private ProductSuggestIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductSuggestIndex();
+        index.rebuild(List.of(
+                document(1L, "iPhone 15 Pro", 120),
+                document(2L, "Samsung Galaxy S24 Ultra", 40),
+                document(3L, "Samsung Galaxy Watch 6", 75),
+                document(4L, "iPad Pro", 10),
+                document(5L, "Sony WH-1000XM5 Headphones", 60)
+        ));
+    }
+
+    @Test
+    void suggest_ShouldMatchWordStartsByReviewCount() {
+        assertArrayEquals(new long[]{3L, 2L}, index.suggest("gal", 10));
+        assertArrayEquals(new long[]{1L, 4L}, index.suggest("pro", 10));
+        assertArrayEquals(new long[]{1L}, index.suggest("IPH", 10));
+        assertArrayEquals(new long[0], index.suggest("alaxy", 10));
+    }
+
+    @Test
+    void suggest_ShouldMatchAcrossWords() {
+        assertArrayEquals(new long[]{3L}, index.suggest("galaxy wa", 10));
+        assertArrayEquals(new long[]{2L}, index.suggest("samsung galaxy s", 10));
+    }
+
+    @Test
+    void suggest_ShouldRespectLimit() {
+        assertArrayEquals(new long[]{3L}, index.suggest("samsung", 1));
+        assertArrayEquals(new long[0], index.suggest("samsung", 0));
+        assertArrayEquals(new long[0], index.suggest("  ", 5));
+    }
+
+    @Test
+    void suggest_WithTrailingSpace_ShouldTreatLastWordAsComplete() {
+        assertArrayEquals(new long[]{1L, 4L}, index.suggest("pro ", 10));
+        assertArrayEquals(new long[0], index.suggest("ipho ", 10));
+        assertArrayEquals(new long[]{5L}, index.suggest("headphones ", 10));
+    }
+
+    @Test
+    void upsert_ShouldReorderOnReviewCountChange() {
+        index.upsert(document(2L, "Samsung Galaxy S24 Ultra", 40), document(2L, "Samsung Galaxy S24 Ultra", 200));
+
+        assertArrayEquals(new long[]{2L, 3L}, index.suggest("galaxy", 10));
+    }
+
+    @Test
+    void upsert_ShouldIndexRenamedAndNewProducts() {
+        index.upsert(document(4L, "iPad Pro", 10), document(4L, "iPad Air", 10));
+        index.upsert(null, document(6L, "Pixel 8 Pro", 500));
+
+        assertArrayEquals(new long[]{6L, 1L}, index.suggest("pro", 10));
+        assertArrayEquals(new long[]{4L}, index.suggest("air", 10));
+        assertArrayEquals(new long[]{6L}, index.suggest("pix", 10));
+    }
+
+    @Test
+    void remove_ShouldDropProduct() {
+        index.remove(document(1L, "iPhone 15 Pro", 120));
+        index.upsert(null, document(6L, "Pixel 8 Pro", 500));
+        index.remove(document(6L, "Pixel 8 Pro", 500));
+
+        assertArrayEquals(new long[]{4L}, index.suggest("pro", 10));
+    }
+
+    @Test
+    void upsert_PastPendingLimit_ShouldCompactWithoutLosingProducts() {
+        for (long id = 100; id < 100 + ProductSuggestIndex.MAX_PENDING + 10; id++) {
+            index.upsert(null, document(id, "Widget " + id, (int) id));
+        }
+        index.upsert(document(1L, "iPhone 15 Pro", 120), document(1L, "iPhone 15 Pro", 5000));
+
+        assertEquals(100 + ProductSuggestIndex.MAX_PENDING + 9, index.suggest("widget", 1)[0]);
+        assertArrayEquals(new long[]{1L, 4L}, index.suggest("pro", 10));
+        assertArrayEquals(new long[]{150L}, index.suggest("widget 150", 10));
+    }
+
+    @Test
+    void rebuild_OnLargerCatalog_ShouldStayUnderSixtyFourBytesPerEntry() {
+        String[] words = {"pro", "max", "ultra", "mini", "air", "lite", "plus", "wireless", "smart", "classic"};
+        Random random = new Random(7);
+        List<ProductDocument> documents = new ArrayList<>();
+        for (long id = 1; id <= 20_000; id++) {
+            String name = "Brand" + random.nextInt(2000) + " " + words[random.nextInt(words.length)]
+                    + " " + words[random.nextInt(words.length)] + " " + id;
+            documents.add(document(id, name, random.nextInt(10_000)));
+        }
+        index.rebuild(documents);
+
+        assertTrue(index.bytesPerEntry() < 64, "bytes per entry: " + index.bytesPerEntry());
+        assertArrayEquals(new long[]{12_345L}, index.suggest("12345", 10));
+    }
+
+    private static ProductDocument document(long id, String name, int reviews) {
+        return new ProductDocument(id, name, "Description", Set.of("Electronics"), 10.0, 4.0, reviews);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.productreview.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SortedOrderIndexTest {
+
+    private SortedOrderIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SortedOrderIndex();
+        index.rebuild(List.of(
+                document(1L, "iPhone 15 Pro", 999.0, 4.5, 10, "Electronics", "Smartphones"),
+                document(2L, "AirPods Pro", 249.0, 4.8, 30, "Electronics", "Audio"),
+                document(3L, "bose QC45", 329.0, 4.5, 5, "Audio"),
+                document(4L, "Kindle", 139.0, 4.2, 8, "Electronics")
+        ));
+    }
+
+    @Test
+    void supports_ShouldAcceptSingleListingSortField() {
+        assertTrue(SortedOrderIndex.supports(Sort.by(Sort.Order.desc("averageRating"))));
+        assertTrue(SortedOrderIndex.supports(Sort.by(Sort.Order.asc("name").ignoreCase())));
+        assertFalse(SortedOrderIndex.supports(Sort.unsorted()));
+        assertFalse(SortedOrderIndex.supports(Sort.by("createdAt")));
+        assertFalse(SortedOrderIndex.supports(Sort.by("price", "name")));
+    }
+
+    @Test
+    void page_ShouldFollowSortWithIdTieBreakInSortDirection() {
+        assertArrayEquals(new long[]{2L, 3L, 1L, 4L}, index.page(null, Sort.by(Sort.Direction.DESC, "averageRating"), 0, 10));
+        assertArrayEquals(new long[]{4L, 1L, 3L, 2L}, index.page(null, Sort.by("averageRating"), 0, 10));
+        assertArrayEquals(new long[]{2L, 3L, 1L, 4L}, index.page(null, Sort.by("name"), 0, 10));
+    }
+
+    @Test
+    void page_ShouldSliceOffsetAndLimit() {
+        assertArrayEquals(new long[]{3L, 1L}, index.page(null, Sort.by("price"), 2, 2));
+        assertArrayEquals(new long[]{1L}, index.page(null, Sort.by("price"), 3, 5));
+        assertArrayEquals(new long[0], index.page(null, Sort.by("price"), 4, 5));
+    }
+
+    @Test
+    void page_WithCategory_ShouldOnlyReturnMembers() {
+        assertArrayEquals(new long[]{2L, 1L, 4L}, index.page("Electronics", Sort.by(Sort.Direction.DESC, "reviewCount"), 0, 10));
+        assertEquals(3, index.count("Electronics"));
+        assertEquals(4, index.count(null));
+        assertArrayEquals(new long[0], index.page("Unknown", Sort.by("price"), 0, 10));
+    }
+
+    @Test
+    void upsert_ShouldMoveProductWhenRatingChanges() {
+        index.upsert(null, document(4L, "Kindle", 139.0, 4.9, 9, "Electronics"));
+
+        assertArrayEquals(new long[]{4L, 2L, 3L, 1L}, index.page(null, Sort.by(Sort.Direction.DESC, "averageRating"), 0, 10));
+        assertArrayEquals(new long[]{4L, 2L, 1L}, index.page("Electronics", Sort.by(Sort.Direction.DESC, "averageRating"), 0, 10));
+        assertArrayEquals(new long[]{2L, 1L, 4L}, index.page("Electronics", Sort.by(Sort.Direction.DESC, "reviewCount"), 0, 10));
+    }
+
+    @Test
+    void upsert_ShouldMoveProductBetweenCategories() {
+        index.upsert(null, document(3L, "bose QC45", 329.0, 4.5, 5, "Electronics"));
+        index.upsert(null, document(5L, "Pixel 8", 699.0, 4.4, 0, "Smartphones"));
+
+        assertEquals(1, index.count("Audio"));
+        assertArrayEquals(new long[]{4L, 2L, 3L, 1L}, index.page("Electronics", Sort.by("price"), 0, 10));
+        assertArrayEquals(new long[]{5L, 1L}, index.page("Smartphones", Sort.by("price"), 0, 10));
+        assertEquals(5, index.count(null));
+    }
+
+    @Test
+    void remove_ShouldDropProductAndEmptyCategories() {
+        index.remove(document(1L, "iPhone 15 Pro", 999.0, 4.5, 10, "Electronics", "Smartphones"));
+
+        assertEquals(0, index.count("Smartphones"));
+        assertArrayEquals(new long[]{4L, 2L, 3L}, index.page(null, Sort.by("price"), 0, 10));
+    }
+
+    @Test
+    void randomUpdates_ShouldMatchFullSort() {
+        Random random = new Random(11);
+        Map<Long, ProductDocument> expected = new HashMap<>();
+        for (long id = 1; id <= 300; id++) {
+            expected.put(id, randomDocument(random, id));
+        }
+        index.rebuild(new ArrayList<>(expected.values()));
+
+        for (int step = 0; step < 2_000; step++) {
+            long id = 1 + random.nextInt(350);
+            if (random.nextInt(10) == 0) {
+                ProductDocument removed = expected.remove(id);
+                if (removed != null) {
+                    index.remove(removed);
+                }
+            } else {
+                ProductDocument updated = randomDocument(random, id);
+                index.upsert(expected.put(id, updated), updated);
+            }
+        }
+
+        for (String field : List.of("name", "price", "averageRating", "reviewCount")) {
+            for (Sort.Direction direction : Sort.Direction.values()) {
+                Sort sort = Sort.by(direction, field);
+                long[] all = expected.values().stream()
+                        .sorted(ProductOrdering.comparator(sort))
+                        .mapToLong(ProductDocument::id)
+                        .toArray();
+                assertArrayEquals(all, index.page(null, sort, 0, expected.size()), field + " " + direction);
+
+                long[] even = expected.values().stream()
+                        .filter(document -> document.categories().contains("Even"))
+                        .sorted(ProductOrdering.comparator(sort))
+                        .mapToLong(ProductDocument::id)
+                        .toArray();
+                assertArrayEquals(even, index.page("Even", sort, 0, expected.size()), field + " " + direction);
+            }
+        }
+    }
+
+    private static ProductDocument randomDocument(Random random, long id) {
+        String category = random.nextBoolean() ? "Even" : "Odd";
+        return document(id, "Product " + (char) ('a' + random.nextInt(26)), random.nextInt(50),
+                random.nextInt(11) / 2.0, random.nextInt(20), category);
+    }
+
+    private static ProductDocument document(long id, String name, double price, double rating, int reviews,
+                                            String... categories) {
+        return new ProductDocument(id, name, "Description", Set.of(categories), price, rating, reviews);
+    }
+}
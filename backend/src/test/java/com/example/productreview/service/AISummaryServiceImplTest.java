@@ -49,7 +49,7 @@ public class AISummaryServiceImplTest {
 
     @Test
     void generateReviewSummary_WithNullReviews_ShouldReturnNull() {
-        assertNull(service.generateReviewSummary(1L, "Product", null));
+        assertNull(service.generateReviewSummary(1L, "Product", (List<Review>) null));
     }
 
     @Test
@@ -103,7 +103,7 @@ public class AISummaryServiceImplTest {
 
     @Test
     void chatWithReviews_WithNullReviews_ShouldReturnNoReviewsMessage() {
-        String result = service.chatWithReviews(1L, "How is quality?", null);
+        String result = service.chatWithReviews(1L, "How is quality?", (List<Review>) null);
         assertTrue(result.contains("couldn't find any reviews"));
     }
 
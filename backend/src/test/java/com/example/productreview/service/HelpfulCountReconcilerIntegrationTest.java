@@ -0,0 +1,56 @@
+package com.example.productreview.service;
+
+import com.example.productreview.BaseIntegrationTest;
+import com.example.productreview.model.Review;
+import com.example.productreview.repository.ReviewRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class HelpfulCountReconcilerIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private HelpfulCountReconciler reconciler;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void reconcile_ShouldRepairCountsThatStayOutOfStepWithVotes() {
+        Review review = reviewRepository.findByProductId(6L, PageRequest.of(0, 1)).getContent().get(0);
+        Long reviewId = review.getId();
+        productService.markReviewAsHelpful(reviewId, "reconcile-voter-1");
+        productService.markReviewAsHelpful(reviewId, "reconcile-voter-2");
+        reconciler.reconcile();
+        int votes = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM review_votes WHERE review_id = ?",
+                Integer.class, reviewId);
+        assertEquals(votes, storedCount(reviewId));
+
+        // A crash that lost pending deltas: the votes are stored, the count and score never moved
+        jdbcTemplate.update("UPDATE reviews SET helpful_count = 0, helpfulness_score = ? WHERE id = ?",
+                Review.helpfulnessScore(0, review.getCreatedAt()), reviewId);
+
+        // The first run only observes the drift; the second repairs it
+        reconciler.reconcile();
+        assertEquals(0, storedCount(reviewId));
+        reconciler.reconcile();
+
+        Review repaired = reviewRepository.findById(reviewId).orElseThrow();
+        assertEquals(votes, repaired.getHelpfulCount());
+        assertEquals(Review.helpfulnessScore(votes, repaired.getCreatedAt()), repaired.getHelpfulnessScore(), 1e-9);
+        assertEquals(0, reconciler.reconcile());
+    }
+
+    private int storedCount(Long reviewId) {
+        return jdbcTemplate.queryForObject("SELECT helpful_count FROM reviews WHERE id = ?", Integer.class, reviewId);
+    }
+}
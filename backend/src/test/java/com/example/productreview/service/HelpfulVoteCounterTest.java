@@ -0,0 +1,155 @@
+package com.example.productreview.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class HelpfulVoteCounterTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void flush_ShouldWriteNetDeltasAndSkipCancelledOnes() {
+        HelpfulVoteCounter counter = new HelpfulVoteCounter(jdbcTemplate, transactionManager);
+        counter.add(1L, 1);
+        counter.add(1L, 1);
+        counter.add(2L, 1);
+        counter.add(2L, -1);
+        counter.add(3L, -1);
+
+        assertEquals(2, counter.pending(1L));
+        assertEquals(2, counter.flush());
+
+        verify(jdbcTemplate).batchUpdate(eq(HelpfulVoteCounter.FLUSH_SQL), argThat((List<Object[]> rows) ->
+                rows.size() == 2 && rows.stream().anyMatch(r -> r[0].equals(2L) && r[2].equals(1L))
+                        && rows.stream().anyMatch(r -> r[0].equals(-1L) && r[2].equals(3L))));
+        verify(transactionManager).commit(any());
+        assertEquals(0, counter.pending(1L));
+        assertEquals(0, counter.flush());
+    }
+
+    @Test
+    void flush_WhenDatabaseFails_ShouldKeepDeltasForNextRun() {
+        HelpfulVoteCounter counter = new HelpfulVoteCounter(jdbcTemplate, transactionManager);
+        when(jdbcTemplate.batchUpdate(eq(HelpfulVoteCounter.FLUSH_SQL), anyList()))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(new int[]{1});
+        counter.add(7L, 1);
+
+        assertEquals(0, counter.flush());
+        assertEquals(1, counter.pending(7L));
+        verify(transactionManager).rollback(any());
+        counter.add(7L, 1);
+
+        assertEquals(1, counter.flush());
+        verify(jdbcTemplate).batchUpdate(eq(HelpfulVoteCounter.FLUSH_SQL),
+                argThat((List<Object[]> rows) -> rows.size() == 1 && rows.get(0)[0].equals(2L)));
+    }
+
+    @Test
+    void flush_ShouldStopReportingDeltasAsPendingWithinTheCommit() {
+        HelpfulVoteCounter counter = new HelpfulVoteCounter(jdbcTemplate, transactionManager);
+        counter.add(5L, 1);
+        long[] pendingAfterCommit = {-1};
+        doAnswer(invocation -> {
+            TransactionSynchronizationUtils.triggerBeforeCommit(false);
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            // The stored count now includes the delta; before flush() returns it must not be pending too
+            pendingAfterCommit[0] = counter.pending(5L);
+            return null;
+        }).when(transactionManager).commit(any());
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            assertEquals(1, counter.flush());
+        } finally {
+            TransactionSynchronizationManager.clear();
+        }
+
+        assertEquals(0, pendingAfterCommit[0]);
+        assertEquals(0, counter.pending(5L));
+    }
+
+    @Test
+    void concurrentVotesAndFlushes_ShouldAccountForEveryDelta() throws Exception {
+        HelpfulVoteCounter counter = new HelpfulVoteCounter(jdbcTemplate, transactionManager);
+        ConcurrentHashMap<Long, Long> stored = new ConcurrentHashMap<>();
+        when(jdbcTemplate.batchUpdate(eq(HelpfulVoteCounter.FLUSH_SQL), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            rows.forEach(r -> stored.merge((Long) r[2], (Long) r[0], Long::sum));
+            return new int[rows.size()];
+        });
+
+        int threads = 8;
+        int votesPerThread = 20_000;
+        long[] reviews = {1L, 2L, 3L};
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean voting = new AtomicBoolean(true);
+        List<Future<?>> voters = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            voters.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < votesPerThread; i++) {
+                    // Mostly the hot review, with every third vote taken back
+                    long review = i % 10 == 0 ? reviews[1 + (i / 10) % 2] : reviews[0];
+                    counter.add(review, i % 3 == 2 ? -1 : 1);
+                }
+                return null;
+            }));
+        }
+        Future<?> flusher = executor.submit(() -> {
+            start.await();
+            while (voting.get()) {
+                counter.flush();
+            }
+            return null;
+        });
+
+        start.countDown();
+        for (Future<?> voter : voters) {
+            voter.get();
+        }
+        voting.set(false);
+        flusher.get();
+        counter.flush();
+        executor.shutdown();
+
+        long[] expected = new long[4];
+        for (int i = 0; i < votesPerThread; i++) {
+            long review = i % 10 == 0 ? reviews[1 + (i / 10) % 2] : reviews[0];
+            expected[(int) review] += threads * (i % 3 == 2 ? -1 : 1);
+        }
+        for (long review : reviews) {
+            assertEquals(expected[(int) review], stored.getOrDefault(review, 0L), "review " + review);
+            assertEquals(0, counter.pending(review));
+        }
+    }
+}
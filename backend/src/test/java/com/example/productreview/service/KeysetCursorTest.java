@@ -0,0 +1,46 @@
+package com.example.productreview.service;
+
+import com.example.productreview.exception.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void encodeDecode_ShouldRoundTripTypedValues() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 3, 1, 12, 30, 15, 123456000);
+        KeysetCursor cursor = new KeysetCursor("createdAt", Sort.Direction.DESC, createdAt, 42L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode(), "createdAt", Sort.Direction.DESC);
+
+        assertEquals(createdAt, decoded.value());
+        assertEquals(42L, decoded.id());
+    }
+
+    @Test
+    void decode_ShouldKeepSeparatorsInsideNames() {
+        KeysetCursor cursor = new KeysetCursor("name", Sort.Direction.ASC, "Cable | USB-C", 7L);
+
+        KeysetCursor decoded = KeysetCursor.decode(cursor.encode(), "name", Sort.Direction.ASC);
+
+        assertEquals("Cable | USB-C", decoded.value());
+    }
+
+    @Test
+    void decode_WithDifferentSort_ShouldThrow() {
+        String token = new KeysetCursor("price", Sort.Direction.ASC, 19.99, 3L).encode();
+
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(token, "price", Sort.Direction.DESC));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode(token, "name", Sort.Direction.ASC));
+    }
+
+    @Test
+    void decode_WithGarbage_ShouldThrow() {
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("%%%", "price", Sort.Direction.ASC));
+        assertThrows(ValidationException.class, () -> KeysetCursor.decode("cHJpY2U", "price", Sort.Direction.ASC));
+    }
+}
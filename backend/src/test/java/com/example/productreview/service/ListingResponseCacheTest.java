@@ -0,0 +1,88 @@
+package com.example.productreview.service;
+
+import com.example.productreview.search.ProductDocument;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ListingResponseCacheTest {
+
+    private SimpleMeterRegistry registry;
+    private ListingResponseCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        cache = new ListingResponseCache(registry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void stats_ShouldServeRepeatedRequestsFromCache() {
+        stats("Audio", null);
+        stats("Audio", null);
+        stats(null, " Phone ");
+        stats(null, "phone");
+
+        assertEquals(2, loads.get());
+        assertEquals(2.0, gets("hit"));
+        assertEquals(2.0, gets("miss"));
+    }
+
+    @Test
+    void upsert_ShouldOnlyInvalidateAffectedCategory() {
+        stats("Audio", null);
+        stats("Laptops", null);
+
+        cache.upsert(document(1L, "Audio", 10), document(1L, "Audio", 11));
+
+        stats("Audio", null);
+        stats("Laptops", null);
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void upsert_ShouldInvalidateUnfilteredAndSearchResponses() {
+        stats(null, null);
+        stats(null, "phone");
+
+        cache.upsert(document(1L, "Audio", 10), document(1L, "Audio", 11));
+
+        stats(null, null);
+        stats(null, "phone");
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void upsert_ShouldInvalidateCategoryProductLeft() {
+        stats("Audio", null);
+
+        cache.upsert(document(1L, "Audio", 10), document(1L, "Wearables", 10));
+
+        stats("Audio", null);
+        assertEquals(2, loads.get());
+    }
+
+    private Map<String, Object> stats(String category, String search) {
+        return cache.stats(category, search, () -> {
+            loads.incrementAndGet();
+            return Map.of("totalProducts", 1L);
+        });
+    }
+
+    private double gets(String result) {
+        return registry.get("cache.gets").tag("cache", ListingResponseCache.CACHE_NAME).tag("result", result)
+                .functionCounter().count();
+    }
+
+    private static ProductDocument document(long id, String category, int reviewCount) {
+        return new ProductDocument(id, "Product " + id, "Description", Set.of(category), 10.0, 4.0, reviewCount);
+    }
+}
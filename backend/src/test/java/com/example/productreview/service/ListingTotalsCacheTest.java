@@ -0,0 +1,81 @@
+package com.example.productreview.service;
+
+import com.example.productreview.search.ProductDocument;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ListingTotalsCacheTest {
+
+    private ListingTotalsCache cache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        cache = new ListingTotalsCache();
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void get_ShouldLoadOncePerKey() {
+        assertEquals(5, total(ListingTotalsCache.TotalsKey.products("Audio", null), 5));
+        assertEquals(5, total(ListingTotalsCache.TotalsKey.products("Audio", null), 9));
+        assertEquals(9, total(ListingTotalsCache.TotalsKey.products("Laptops", null), 9));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void productsKey_ShouldNormalizeSearch() {
+        assertEquals(ListingTotalsCache.TotalsKey.products(null, " Phone "),
+                ListingTotalsCache.TotalsKey.products(null, "phone"));
+    }
+
+    @Test
+    void upsert_WithChangedReviewCount_ShouldOnlyInvalidateThatProductsReviews() {
+        total(ListingTotalsCache.TotalsKey.products("Audio", null), 5);
+        total(ListingTotalsCache.TotalsKey.reviews(1L, 5), 3);
+        total(ListingTotalsCache.TotalsKey.reviews(2L, 5), 3);
+
+        cache.upsert(document(1L, "Audio", 10), document(1L, "Audio", 11));
+
+        total(ListingTotalsCache.TotalsKey.products("Audio", null), 5);
+        total(ListingTotalsCache.TotalsKey.reviews(1L, 5), 4);
+        total(ListingTotalsCache.TotalsKey.reviews(2L, 5), 3);
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void upsert_WithNewProduct_ShouldInvalidateProductTotals() {
+        total(ListingTotalsCache.TotalsKey.products("Audio", null), 5);
+
+        cache.upsert(null, document(3L, "Audio", 0));
+
+        assertEquals(6, total(ListingTotalsCache.TotalsKey.products("Audio", null), 6));
+    }
+
+    @Test
+    void rebuild_ShouldClearEverything() {
+        total(ListingTotalsCache.TotalsKey.products(null, "phone"), 5);
+
+        cache.rebuild(List.of());
+
+        assertEquals(7, total(ListingTotalsCache.TotalsKey.products(null, "phone"), 7));
+    }
+
+    private long total(ListingTotalsCache.TotalsKey key, long value) {
+        return cache.get(key, () -> {
+            loads.incrementAndGet();
+            return value;
+        });
+    }
+
+    private static ProductDocument document(long id, String category, int reviewCount) {
+        return new ProductDocument(id, "Product " + id, "Description", Set.of(category), 10.0, 4.0, reviewCount);
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.productreview.service;
+
+import com.example.productreview.BaseIntegrationTest;
+import com.example.productreview.dto.CursorPage;
+import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.search.ProductCatalog;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Listing pages must cost a fixed number of SQL statements regardless of page size:
+ * one projection query for the rows and one batched query for their categories.
+ */
+public class ProductListingQueryBudgetIntegrationTest extends BaseIntegrationTest {
+
+    private static final long STATEMENT_BUDGET = 2;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ListingResponseCache responseCache;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        // Enabled at runtime rather than through a property so the test shares the common context
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        // Start from a cold response cache so the budget covers the database path
+        responseCache.rebuild(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        statistics.setStatisticsEnabled(false);
+    }
+
+    @Test
+    void listAllProducts_ShouldStayWithinStatementBudget() {
+        Page<ProductDTO> page = withinBudget(() -> productService.getAllProducts(
+                null, null, PageRequest.of(0, 20, Sort.by(Sort.Order.asc("name").ignoreCase()))));
+
+        assertEquals(20, page.getContent().size());
+        assertEquals(24, page.getTotalElements());
+        assertTrue(page.getContent().stream().noneMatch(p -> p.getCategories().isEmpty()));
+    }
+
+    @Test
+    void listCategory_ShouldStayWithinStatementBudget() {
+        Page<ProductDTO> page = withinBudget(() -> productService.getAllProducts(
+                "Electronics", null, PageRequest.of(0, 10, Sort.by("price"))));
+
+        assertFalse(page.getContent().isEmpty());
+        assertTrue(page.getContent().stream().allMatch(p -> p.getCategories().contains("Electronics")));
+    }
+
+    @Test
+    void searchProducts_ShouldStayWithinStatementBudget() {
+        Page<ProductDTO> page = withinBudget(() -> productService.getAllProducts(
+                null, "pro", PageRequest.of(0, 10)));
+
+        assertFalse(page.getContent().isEmpty());
+    }
+
+    @Test
+    void productSlice_ShouldStayWithinStatementBudget() {
+        withinBudget(() -> productService.getProductSlice(null, null, PageRequest.of(1, 10, Sort.by("price"))));
+    }
+
+    @Test
+    void scrollProducts_ShouldStayWithinStatementBudget() {
+        CursorPage<ProductDTO> first = withinBudget(() -> productService.scrollProducts(
+                "Electronics", "price", Sort.Direction.ASC, null, 5));
+        CursorPage<ProductDTO> second = withinBudget(() -> productService.scrollProducts(
+                "Electronics", "price", Sort.Direction.ASC, first.getNextCursor(), 5));
+
+        assertEquals(5, first.getContent().size());
+        assertFalse(second.getContent().isEmpty());
+        assertTrue(second.getContent().get(0).getPrice() >= first.getContent().get(4).getPrice());
+        assertTrue(second.getContent().stream().allMatch(p -> p.getCategories().contains("Electronics")));
+    }
+
+    @Test
+    void repeatedListing_ShouldBeServedWithoutSql() {
+        PageRequest firstPage = PageRequest.of(0, 10, Sort.by("price"));
+        withinBudget(() -> productService.getAllProducts("Audio", null, firstPage));
+
+        statistics.clear();
+        productService.getAllProducts("Audio", null, firstPage);
+        productService.getGlobalStats("Audio", null);
+        productService.getGlobalStats("Audio", null);
+
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void catalogRebuild_ShouldLoadEachBatchWithinStatementBudget() {
+        withinBudget(() -> {
+            productCatalog.rebuild();
+            return null;
+        });
+
+        assertEquals(24, productCatalog.size());
+        assertTrue(productCatalog.documents().stream().noneMatch(d -> d.categories().isEmpty()));
+    }
+
+    private <T> T withinBudget(Supplier<T> listing) {
+        statistics.clear();
+        T result = listing.get();
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements > 0, "Statement statistics were not collected");
+        assertTrue(statements <= STATEMENT_BUDGET,
+                "Listing issued " + statements + " SQL statements, budget is " + STATEMENT_BUDGET);
+        assertEquals(0, statistics.getEntityLoadCount(), "Listing should not materialize entities");
+        return result;
+    }
+}
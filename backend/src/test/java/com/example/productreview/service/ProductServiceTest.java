@@ -1,22 +1,36 @@
 package com.example.productreview.service;
 
 import com.example.productreview.dto.ProductDTO;
+import com.example.productreview.dto.ProductSuggestionDTO;
 import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.dto.SlicePage;
 import com.example.productreview.model.Product;
 import com.example.productreview.model.Review;
 import com.example.productreview.repository.ProductRepository;
 import com.example.productreview.repository.ReviewRepository;
 import com.example.productreview.repository.ReviewVoteRepository;
+import com.example.productreview.search.CatalogStatistics;
+import com.example.productreview.search.CategoryIndex;
+import com.example.productreview.search.ProductCatalog;
+import com.example.productreview.search.ProductDocument;
+import com.example.productreview.search.ProductSearchIndex;
+import com.example.productreview.search.ProductSuggestIndex;
+import com.example.productreview.search.SortedOrderIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -25,11 +39,14 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import com.example.productreview.model.ReviewVote;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
 import com.example.productreview.exception.ResourceNotFoundException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
@@ -48,6 +65,48 @@ public class ProductServiceTest {
     @Mock
     private AISummaryService aiSummaryService;
 
+    @Mock
+    private ProductCatalog productCatalog;
+
+    @Mock
+    private ProductSearchIndex productSearchIndex;
+
+    @Mock
+    private CategoryIndex categoryIndex;
+
+    @Mock
+    private ListingTotalsCache listingTotals;
+
+    @Mock
+    private CatalogStatistics catalogStatistics;
+
+    @Mock
+    private ListingResponseCache responseCache;
+
+    @Mock
+    private ProductSuggestIndex productSuggestIndex;
+
+    @Mock
+    private SortedOrderIndex sortedOrderIndex;
+
+    @Mock
+    private HelpfulVoteCounter helpfulVoteCounter;
+
+    @Mock
+    private UserVoteCache userVoteCache;
+
+    @Mock
+    private ReviewCommentIndex reviewCommentIndex;
+
+    @Mock
+    private ReviewDuplicateIndex reviewDuplicateIndex;
+
+    @Mock
+    private ReviewRatingRollups reviewRatingRollups;
+
+    @Mock
+    private ReviewSummaryPipeline reviewSummaryPipeline;
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -56,6 +115,13 @@ public class ProductServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(responseCache.listing(any(), any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(3).get());
+        lenient().when(responseCache.stats(any(), any(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(2).get());
+        lenient().when(reviewDuplicateIndex.check(anyLong(), any()))
+                .thenReturn(new ReviewDuplicateIndex.Check(null, null));
+
         Set<String> categories = new HashSet<>(Arrays.asList("Category"));
         product = new Product();
         product.setId(1L);
@@ -73,27 +139,42 @@ public class ProductServiceTest {
     @Test
     void getAllProducts_ShouldReturnPageOfDTOs() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findAll(pageable)).thenReturn(productPage);
+        Slice<ProductDTO> productPage = new SliceImpl<>(Arrays.asList(productDTO));
+        when(productRepository.findListingBy(pageable)).thenReturn(productPage);
 
         Page<ProductDTO> result = productService.getAllProducts(null, null, pageable);
 
         assertNotNull(result);
         assertEquals(1, result.getContent().size());
         assertEquals(product.getName(), result.getContent().get(0).getName());
-        verify(productRepository, times(1)).findAll(pageable);
+        verify(productRepository, times(1)).findListingBy(pageable);
     }
 
     @Test
     void getProductDTOById_ShouldReturnDTO() {
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(reviewRepository.findRatingCountsByProductId(1L)).thenReturn(new ArrayList<>());
-        when(reviewRepository.findByProductId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(new ArrayList<>()));
+        when(reviewSummaryPipeline.current(1L, 0))
+                .thenReturn(new ReviewSummaryPipeline.Snapshot(ReviewSummaryPipeline.Status.NONE, null, null));
 
         ProductDTO result = productService.getProductDTOById(1L);
 
         assertNotNull(result);
         assertEquals(product.getName(), result.getName());
+        assertEquals("NONE", result.getAiSummaryStatus());
+    }
+
+    @Test
+    void getProductDTOById_ShouldReturnLastKnownSummaryWithoutLoadingReviews() {
+        product.setReviewCount(3);
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+        when(reviewSummaryPipeline.current(1L, 3)).thenReturn(new ReviewSummaryPipeline.Snapshot(
+                ReviewSummaryPipeline.Status.STALE, "Older summary", LocalDateTime.now()));
+
+        ProductDTO result = productService.getProductDTOById(1L);
+
+        assertEquals("Older summary", result.getAiSummary());
+        assertEquals("STALE", result.getAiSummaryStatus());
+        verifyNoInteractions(reviewRepository, aiSummaryService);
     }
 
     @Test
@@ -108,17 +189,43 @@ public class ProductServiceTest {
         review.setReviewerName("User");
         review.setRating(5);
         review.setProduct(product);
+        review.setCreatedAt(LocalDateTime.now());
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(productRepository.applyReviewRating(1L, 5)).thenReturn(1);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
         when(reviewRepository.save(any(Review.class))).thenReturn(review);
-        when(reviewRepository.getReviewStats(1L)).thenReturn(Collections.singletonList(new Object[]{1L, 5.0}));
+        when(productRepository.findReviewStatsById(1L)).thenReturn(Collections.singletonList(new Object[]{1, 5.0}));
 
         ReviewDTO result = productService.addReview(1L, reviewDTO);
 
         assertNotNull(result);
-        assertEquals(1, product.getReviewCount());
-        assertEquals(5.0, product.getAverageRating());
-        verify(productRepository, times(1)).save(product);
+        verify(productCatalog).reviewStatsChanged(1L, 1, 5.0);
+        verify(productRepository, never()).findById(any());
+        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).applyThemeMentions(eq(1L), any(int[].class));
+    }
+
+    @Test
+    void addReview_ShouldCountTheThemesItsCommentMentions() {
+        ReviewDTO reviewDTO = new ReviewDTO();
+        reviewDTO.setReviewerName("User");
+        reviewDTO.setComment("Battery is awful and the price is a joke");
+        reviewDTO.setRating(1);
+
+        Review review = new Review();
+        review.setId(1L);
+        review.setRating(1);
+        review.setProduct(product);
+        review.setCreatedAt(LocalDateTime.now());
+
+        when(productRepository.applyReviewRating(1L, 1)).thenReturn(1);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
+        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+        when(productRepository.findReviewStatsById(1L)).thenReturn(Collections.singletonList(new Object[]{1, 1.0}));
+
+        productService.addReview(1L, reviewDTO);
+
+        verify(productRepository).applyThemeMentions(1L, new int[]{0, 0, 0, 1, 1, 0});
     }
 
     // --- Error Case Tests (U24) ---
@@ -137,12 +244,13 @@ public class ProductServiceTest {
 
     @Test
     void addReview_WhenProductNotFound_ShouldThrowResourceNotFoundException() {
-        when(productRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
+        when(productRepository.applyReviewRating(999L, 5)).thenReturn(0);
         ReviewDTO reviewDTO = new ReviewDTO();
         reviewDTO.setReviewerName("User");
         reviewDTO.setComment("Good product indeed");
         reviewDTO.setRating(5);
         assertThrows(ResourceNotFoundException.class, () -> productService.addReview(999L, reviewDTO));
+        verify(reviewRepository, never()).save(any());
     }
 
     // --- markReviewAsHelpful Tests ---
@@ -154,14 +262,16 @@ public class ProductServiceTest {
         review.setHelpfulCount(0);
         review.setProduct(product);
 
-        when(reviewRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(review));
-        when(reviewVoteRepository.findByUserIdAndReview_Id("user1", 1L)).thenReturn(Optional.empty());
-        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
+        when(reviewVoteRepository.deleteVote("user1", 1L)).thenReturn(0);
+        when(helpfulVoteCounter.pending(1L)).thenReturn(1L);
 
-        productService.markReviewAsHelpful(1L, "user1");
+        ReviewDTO result = productService.markReviewAsHelpful(1L, "user1");
 
-        assertEquals(1, review.getHelpfulCount());
-        verify(reviewVoteRepository).save(any(ReviewVote.class));
+        assertEquals(1, result.getHelpfulCount());
+        verify(reviewVoteRepository).insertVote("user1", 1L);
+        verify(helpfulVoteCounter).add(1L, 1);
+        verify(reviewRepository, never()).save(any());
     }
 
     @Test
@@ -170,22 +280,40 @@ public class ProductServiceTest {
         review.setId(1L);
         review.setHelpfulCount(1);
         review.setProduct(product);
-        ReviewVote existingVote = new ReviewVote("user1", review);
 
-        when(reviewRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(review));
-        when(reviewVoteRepository.findByUserIdAndReview_Id("user1", 1L)).thenReturn(Optional.of(existingVote));
-        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
+        when(reviewVoteRepository.deleteVote("user1", 1L)).thenReturn(1);
+        when(helpfulVoteCounter.pending(1L)).thenReturn(-1L);
+
+        ReviewDTO result = productService.markReviewAsHelpful(1L, "user1");
+
+        assertEquals(0, result.getHelpfulCount());
+        verify(reviewVoteRepository, never()).insertVote(any(), any());
+        verify(helpfulVoteCounter).add(1L, -1);
+    }
+
+    @Test
+    void markReviewAsHelpful_WhenSameUserInsertsConcurrently_ShouldTakeVoteBack() {
+        Review review = new Review();
+        review.setId(1L);
+        review.setHelpfulCount(0);
+        review.setProduct(product);
+
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
+        when(reviewVoteRepository.deleteVote("user1", 1L)).thenReturn(0, 1);
+        when(reviewVoteRepository.insertVote("user1", 1L)).thenThrow(new DataIntegrityViolationException("duplicate"));
 
         productService.markReviewAsHelpful(1L, "user1");
 
-        assertEquals(0, review.getHelpfulCount());
-        verify(reviewVoteRepository).delete(existingVote);
+        verify(reviewVoteRepository, times(2)).deleteVote("user1", 1L);
+        verify(helpfulVoteCounter).add(1L, -1);
     }
 
     @Test
     void markReviewAsHelpful_WhenReviewNotFound_ShouldThrowException() {
-        when(reviewRepository.findByIdForUpdate(999L)).thenReturn(Optional.empty());
+        when(reviewRepository.findById(999L)).thenReturn(Optional.empty());
         assertThrows(ResourceNotFoundException.class, () -> productService.markReviewAsHelpful(999L, "user1"));
+        verifyNoInteractions(reviewVoteRepository, helpfulVoteCounter, userVoteCache, reviewCommentIndex);
     }
 
     @Test
@@ -195,35 +323,53 @@ public class ProductServiceTest {
         review.setHelpfulCount(0);
         review.setProduct(product);
 
-        when(reviewRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(review));
-        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
 
         productService.markReviewAsHelpful(1L, null);
 
-        assertEquals(1, review.getHelpfulCount());
+        verify(helpfulVoteCounter).add(1L, 1);
         verifyNoInteractions(reviewVoteRepository);
     }
 
     // --- getUserVotedReviewIds Tests ---
 
     @Test
-    void getUserVotedReviewIds_ShouldReturnVotedIds() {
-        when(reviewVoteRepository.findReviewIdsByUserId("user1")).thenReturn(Arrays.asList(10L, 20L));
+    void getUserVotedReviewIds_ShouldReturnVotedIdsFromCache() {
+        when(userVoteCache.all("user1")).thenReturn(Arrays.asList(10L, 20L));
 
         List<Long> result = productService.getUserVotedReviewIds("user1");
 
-        assertEquals(2, result.size());
-        assertTrue(result.contains(10L));
-        assertTrue(result.contains(20L));
+        assertEquals(List.of(10L, 20L), result);
+        verifyNoInteractions(reviewVoteRepository);
     }
 
     @Test
-    void getUserVotedReviewIds_WhenNoVotes_ShouldReturnEmpty() {
-        when(reviewVoteRepository.findReviewIdsByUserId("user1")).thenReturn(new ArrayList<>());
+    void getUserVotedReviewIds_ForReviewIds_ShouldFilterThroughCache() {
+        when(userVoteCache.filter("user1", List.of(1L, 2L, 3L))).thenReturn(List.of(2L));
 
-        List<Long> result = productService.getUserVotedReviewIds("user1");
+        assertEquals(List.of(2L), productService.getUserVotedReviewIds("user1", null, List.of(1L, 2L, 3L)));
+    }
+
+    @Test
+    void getUserVotedReviewIds_ForProduct_ShouldQueryOnlyThatProduct() {
+        when(reviewVoteRepository.findReviewIdsByUserIdAndProductId("user1", 1L)).thenReturn(List.of(5L));
+
+        assertEquals(List.of(5L), productService.getUserVotedReviewIds("user1", 1L, null));
+        verifyNoInteractions(userVoteCache);
+    }
+
+    @Test
+    void markReviewAsHelpful_ShouldUpdateUserVoteCache() {
+        Review review = new Review();
+        review.setId(1L);
+        review.setHelpfulCount(0);
+        review.setProduct(product);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
+        when(reviewVoteRepository.deleteVote("user1", 1L)).thenReturn(1);
+
+        productService.markReviewAsHelpful(1L, "user1");
 
-        assertTrue(result.isEmpty());
+        verify(userVoteCache).voted("user1", 1L, false);
     }
 
     // --- getGlobalStats Tests ---
@@ -267,38 +413,148 @@ public class ProductServiceTest {
     @Test
     void getAllProducts_WithCategory_ShouldFilterByCategory() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findByCategory("Electronics", pageable)).thenReturn(productPage);
+        Slice<ProductDTO> productPage = new SliceImpl<>(Arrays.asList(productDTO));
+        when(productRepository.findListingByCategory("Electronics", pageable)).thenReturn(productPage);
 
         Page<ProductDTO> result = productService.getAllProducts("Electronics", null, pageable);
 
         assertNotNull(result);
-        verify(productRepository).findByCategory("Electronics", pageable);
+        verify(productRepository).findListingByCategory("Electronics", pageable);
     }
 
     @Test
     void getAllProducts_WithSearch_ShouldFilterByName() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findByNameContainingIgnoreCase("Test", pageable)).thenReturn(productPage);
+        Slice<ProductDTO> productPage = new SliceImpl<>(Arrays.asList(productDTO));
+        when(productRepository.findListingByNameContainingIgnoreCase("Test", pageable)).thenReturn(productPage);
 
         Page<ProductDTO> result = productService.getAllProducts(null, "Test", pageable);
 
         assertNotNull(result);
-        verify(productRepository).findByNameContainingIgnoreCase("Test", pageable);
+        verify(productRepository).findListingByNameContainingIgnoreCase("Test", pageable);
+    }
+
+    @Test
+    void getAllProducts_WithSearch_WhenCatalogReady_ShouldRankFromIndex() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        ProductDocument document = ProductDocument.from(product);
+        index.rebuild(List.of(document));
+        ProductServiceImpl indexedService = new ProductServiceImpl(productRepository, reviewRepository,
+                reviewVoteRepository, aiSummaryService, productCatalog, index, categoryIndex, listingTotals, catalogStatistics, responseCache, productSuggestIndex, sortedOrderIndex, helpfulVoteCounter, userVoteCache, reviewCommentIndex, reviewDuplicateIndex, reviewRatingRollups, reviewSummaryPipeline);
+
+        Pageable pageable = PageRequest.of(0, 10);
+        when(productCatalog.isReady()).thenReturn(true);
+        when(productRepository.findListingByIdIn(List.of(1L))).thenReturn(List.of(productDTO));
+
+        Page<ProductDTO> result = indexedService.getAllProducts(null, "test prod", pageable);
+
+        assertEquals(1, result.getTotalElements());
+        assertEquals("Test Product", result.getContent().get(0).getName());
+        verify(productRepository, never()).findListingByNameContainingIgnoreCase(any(), any());
+    }
+
+    @Test
+    void getAllProducts_WithCategory_WhenCatalogReady_ShouldUseCategoryBitmap() {
+        CategoryIndex bitmapIndex = new CategoryIndex();
+        bitmapIndex.rebuild(List.of(ProductDocument.from(product)));
+        ProductServiceImpl indexedService = new ProductServiceImpl(productRepository, reviewRepository,
+                reviewVoteRepository, aiSummaryService, productCatalog, productSearchIndex, bitmapIndex, listingTotals, catalogStatistics, responseCache, productSuggestIndex, sortedOrderIndex, helpfulVoteCounter, userVoteCache, reviewCommentIndex, reviewDuplicateIndex, reviewRatingRollups, reviewSummaryPipeline);
+
+        Pageable pageable = PageRequest.of(0, 10);
+        when(productCatalog.isReady()).thenReturn(true);
+        when(productCatalog.get(1L)).thenReturn(ProductDocument.from(product));
+        when(productRepository.findListingByIdIn(List.of(1L))).thenReturn(List.of(productDTO));
+
+        Page<ProductDTO> result = indexedService.getAllProducts("Category", null, pageable);
+
+        assertEquals(1, result.getTotalElements());
+        verify(productRepository, never()).findListingByCategory(any(), any());
+    }
+
+    @Test
+    void getAllProducts_WithSupportedSort_WhenCatalogReady_ShouldUsePresortedOrdering() {
+        Product cheaper = new Product();
+        cheaper.setId(2L);
+        cheaper.setName("Cheaper Product");
+        cheaper.setPrice(5.0);
+        cheaper.setCategories(new HashSet<>(Set.of("Category")));
+        SortedOrderIndex orderIndex = new SortedOrderIndex();
+        orderIndex.rebuild(List.of(ProductDocument.from(product), ProductDocument.from(cheaper)));
+        ProductServiceImpl indexedService = new ProductServiceImpl(productRepository, reviewRepository,
+                reviewVoteRepository, aiSummaryService, productCatalog, productSearchIndex, categoryIndex, listingTotals, catalogStatistics, responseCache, productSuggestIndex, orderIndex, helpfulVoteCounter, userVoteCache, reviewCommentIndex, reviewDuplicateIndex, reviewRatingRollups, reviewSummaryPipeline);
+
+        ProductDTO cheaperDTO = new ProductDTO(2L, "Cheaper Product", "Description", 5.0, null, 0.0, 0);
+        when(productCatalog.isReady()).thenReturn(true);
+        when(productRepository.findListingByIdIn(List.of(1L, 2L))).thenReturn(List.of(productDTO, cheaperDTO));
+
+        Page<ProductDTO> result = indexedService.getAllProducts(null, null,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "price")));
+
+        assertEquals(2, result.getTotalElements());
+        assertEquals(List.of(1L, 2L), result.getContent().stream().map(ProductDTO::getId).toList());
+        verify(productRepository, never()).findListingBy(any());
+        verify(categoryIndex, never()).members(any());
+    }
+
+    @Test
+    void getGlobalStats_WithCategoryAndSearch_WhenCatalogReady_ShouldAggregateIndexMatches() {
+        product.setReviewCount(4);
+        product.setAverageRating(4.5);
+        CategoryIndex bitmapIndex = new CategoryIndex();
+        bitmapIndex.rebuild(List.of(ProductDocument.from(product)));
+        ProductSearchIndex searchIndex = new ProductSearchIndex();
+        searchIndex.rebuild(List.of(ProductDocument.from(product)));
+        ProductServiceImpl indexedService = new ProductServiceImpl(productRepository, reviewRepository,
+                reviewVoteRepository, aiSummaryService, productCatalog, searchIndex, bitmapIndex, listingTotals, catalogStatistics, responseCache, productSuggestIndex, sortedOrderIndex, helpfulVoteCounter, userVoteCache, reviewCommentIndex, reviewDuplicateIndex, reviewRatingRollups, reviewSummaryPipeline);
+
+        when(productCatalog.isReady()).thenReturn(true);
+        when(productCatalog.get(1L)).thenReturn(ProductDocument.from(product));
+
+        Map<String, Object> stats = indexedService.getGlobalStats("Category", "test");
+
+        assertEquals(1L, stats.get("totalProducts"));
+        assertEquals(4L, stats.get("totalReviews"));
+        assertEquals(4.5, stats.get("averageRating"));
+        verify(productRepository, never()).getCategoryAndSearchStats(any(), any());
+    }
+
+    @Test
+    void getGlobalStats_WithCategory_WhenCatalogReady_ShouldReadRunningTotals() {
+        when(productCatalog.isReady()).thenReturn(true);
+        when(catalogStatistics.category("Category")).thenReturn(new CatalogStatistics.Totals(2, 9, 8.5));
+
+        Map<String, Object> stats = productService.getGlobalStats("Category", null);
+
+        assertEquals(2L, stats.get("totalProducts"));
+        assertEquals(9L, stats.get("totalReviews"));
+        assertEquals(4.3, stats.get("averageRating"));
+        verifyNoInteractions(productRepository);
+    }
+
+    @Test
+    void getGlobalStats_WhenCatalogReady_ShouldReadGlobalRunningTotals() {
+        when(productCatalog.isReady()).thenReturn(true);
+        when(catalogStatistics.global()).thenReturn(new CatalogStatistics.Totals(24, 120, 100.8));
+
+        Map<String, Object> stats = productService.getGlobalStats(null, null);
+
+        assertEquals(24L, stats.get("totalProducts"));
+        assertEquals(120L, stats.get("totalReviews"));
+        assertEquals(4.2, stats.get("averageRating"));
+        verifyNoInteractions(productRepository);
     }
 
     @Test
     void getAllProducts_WithCategoryAndSearch_ShouldFilterByBoth() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findByCategoryAndNameContainingIgnoreCase("Electronics", "Test", pageable))
+        Slice<ProductDTO> productPage = new SliceImpl<>(Arrays.asList(productDTO));
+        when(productRepository.findListingByCategoryAndNameContainingIgnoreCase("Electronics", "Test", pageable))
                 .thenReturn(productPage);
 
         Page<ProductDTO> result = productService.getAllProducts("Electronics", "Test", pageable);
 
         assertNotNull(result);
-        verify(productRepository).findByCategoryAndNameContainingIgnoreCase("Electronics", "Test", pageable);
+        verify(productRepository).findListingByCategoryAndNameContainingIgnoreCase("Electronics", "Test", pageable);
     }
 
     // --- Additional Tests for Criteria Compliance ---
@@ -315,16 +571,17 @@ public class ProductServiceTest {
         review.setReviewerName("User");
         review.setRating(1);
         review.setProduct(product);
+        review.setCreatedAt(LocalDateTime.now());
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(productRepository.applyReviewRating(1L, 1)).thenReturn(1);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
         when(reviewRepository.save(any(Review.class))).thenReturn(review);
-        when(reviewRepository.getReviewStats(1L)).thenReturn(Collections.singletonList(new Object[]{1L, 1.0}));
+        when(productRepository.findReviewStatsById(1L)).thenReturn(Collections.singletonList(new Object[]{1, 1.0}));
 
         ReviewDTO result = productService.addReview(1L, reviewDTO);
 
         assertNotNull(result);
-        assertEquals(1, product.getReviewCount());
-        assertEquals(1.0, product.getAverageRating());
+        verify(productCatalog).reviewStatsChanged(1L, 1, 1.0);
     }
 
     @Test
@@ -339,15 +596,17 @@ public class ProductServiceTest {
         review.setReviewerName("FanUser");
         review.setRating(5);
         review.setProduct(product);
+        review.setCreatedAt(LocalDateTime.now());
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(productRepository.applyReviewRating(1L, 5)).thenReturn(1);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
         when(reviewRepository.save(any(Review.class))).thenReturn(review);
-        when(reviewRepository.getReviewStats(1L)).thenReturn(Collections.singletonList(new Object[]{1L, 5.0}));
+        when(productRepository.findReviewStatsById(1L)).thenReturn(Collections.singletonList(new Object[]{3, 4.3}));
 
         ReviewDTO result = productService.addReview(1L, reviewDTO);
 
         assertNotNull(result);
-        assertEquals(5.0, product.getAverageRating());
+        verify(productCatalog).reviewStatsChanged(1L, 3, 4.3);
     }
 
     @Test
@@ -392,14 +651,14 @@ public class ProductServiceTest {
     @Test
     void chatAboutProduct_ShouldDelegateToAIService() {
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        when(reviewRepository.findByProductId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(new ArrayList<>()));
-        when(aiSummaryService.chatWithReviews(eq(1L), eq("How is quality?"), any()))
+        when(aiSummaryService.chatWithReviews(eq(1L), eq("How is quality?"), any(ReviewProfile.class)))
                 .thenReturn("AI response");
 
         String result = productService.chatAboutProduct(1L, "How is quality?");
 
         assertEquals("AI response", result);
-        verify(aiSummaryService).chatWithReviews(eq(1L), eq("How is quality?"), any());
+        verify(aiSummaryService).chatWithReviews(eq(1L), eq("How is quality?"), any(ReviewProfile.class));
+        verifyNoInteractions(reviewRepository);
     }
 
     @Test
@@ -410,13 +669,10 @@ public class ProductServiceTest {
 
     @Test
     void getProductDTOById_ShouldIncludeRatingBreakdown() {
+        List.of(5, 5, 5, 4, 4).forEach(product::recordRating);
         when(productRepository.findById(1L)).thenReturn(Optional.of(product));
-        List<Object[]> ratingCounts = Arrays.asList(
-                new Object[]{5, 3L},
-                new Object[]{4, 2L}
-        );
-        when(reviewRepository.findRatingCountsByProductId(1L)).thenReturn(ratingCounts);
-        when(reviewRepository.findByProductId(eq(1L), any(Pageable.class))).thenReturn(new PageImpl<>(new ArrayList<>()));
+        when(reviewSummaryPipeline.current(eq(1L), anyInt()))
+                .thenReturn(new ReviewSummaryPipeline.Snapshot(ReviewSummaryPipeline.Status.PENDING, null, null));
 
         ProductDTO result = productService.getProductDTOById(1L);
 
@@ -424,6 +680,8 @@ public class ProductServiceTest {
         assertEquals(3L, result.getRatingBreakdown().get(5));
         assertEquals(2L, result.getRatingBreakdown().get(4));
         assertEquals(0L, result.getRatingBreakdown().get(1));
+        assertEquals(4.6, result.getAverageRating());
+        assertEquals(5, result.getReviewCount());
     }
 
     @Test
@@ -441,24 +699,24 @@ public class ProductServiceTest {
     @Test
     void getAllProducts_WithCategoryAll_ShouldReturnAll() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findAll(pageable)).thenReturn(productPage);
+        Slice<ProductDTO> productPage = new SliceImpl<>(Arrays.asList(productDTO));
+        when(productRepository.findListingBy(pageable)).thenReturn(productPage);
 
         Page<ProductDTO> result = productService.getAllProducts("All", null, pageable);
 
-        verify(productRepository).findAll(pageable);
+        verify(productRepository).findListingBy(pageable);
         assertEquals(1, result.getContent().size());
     }
 
     @Test
     void getAllProducts_WithEmptySearch_ShouldReturnAll() {
         Pageable pageable = PageRequest.of(0, 10);
-        Page<Product> productPage = new PageImpl<>(Arrays.asList(product));
-        when(productRepository.findAll(pageable)).thenReturn(productPage);
+        Slice<ProductDTO> productPage = new SliceImpl<>(Arrays.asList(productDTO));
+        when(productRepository.findListingBy(pageable)).thenReturn(productPage);
 
         Page<ProductDTO> result = productService.getAllProducts(null, "  ", pageable);
 
-        verify(productRepository).findAll(pageable);
+        verify(productRepository).findListingBy(pageable);
     }
 
     @Test
@@ -467,15 +725,14 @@ public class ProductServiceTest {
         review.setId(1L);
         review.setHelpfulCount(0);
         review.setProduct(product);
-        ReviewVote existingVote = new ReviewVote("user1", review);
 
-        when(reviewRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(review));
-        when(reviewVoteRepository.findByUserIdAndReview_Id("user1", 1L)).thenReturn(Optional.of(existingVote));
-        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
+        when(reviewVoteRepository.deleteVote("user1", 1L)).thenReturn(1);
+        when(helpfulVoteCounter.pending(1L)).thenReturn(-1L);
 
-        productService.markReviewAsHelpful(1L, "user1");
+        ReviewDTO result = productService.markReviewAsHelpful(1L, "user1");
 
-        assertEquals(0, review.getHelpfulCount());
+        assertEquals(0, result.getHelpfulCount());
     }
 
     // --- Empty Database / Zero-State Tests (#105) ---
@@ -564,7 +821,7 @@ public class ProductServiceTest {
     // --- updateProductStats edge cases (#105) ---
 
     @Test
-    void addReview_WhenReviewStatsEmpty_ShouldDefaultToZero() {
+    void addReview_WhenReviewStatsEmpty_ShouldNotNotifyCatalog() {
         ReviewDTO reviewDTO = new ReviewDTO();
         reviewDTO.setReviewerName("TestUser");
         reviewDTO.setComment("Good product indeed");
@@ -575,20 +832,21 @@ public class ProductServiceTest {
         review.setReviewerName("TestUser");
         review.setRating(5);
         review.setProduct(product);
+        review.setCreatedAt(LocalDateTime.now());
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(productRepository.applyReviewRating(1L, 5)).thenReturn(1);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
         when(reviewRepository.save(any(Review.class))).thenReturn(review);
-        when(reviewRepository.getReviewStats(1L)).thenReturn(Collections.emptyList());
+        when(productRepository.findReviewStatsById(1L)).thenReturn(Collections.emptyList());
 
         ReviewDTO result = productService.addReview(1L, reviewDTO);
 
         assertNotNull(result);
-        assertEquals(0, product.getReviewCount());
-        assertEquals(0.0, product.getAverageRating());
+        verify(productCatalog, never()).reviewStatsChanged(anyLong(), anyInt(), anyDouble());
     }
 
     @Test
-    void addReview_WhenReviewStatsRowIsNull_ShouldDefaultToZero() {
+    void addReview_WhenReviewStatsRowIsNull_ShouldNotNotifyCatalog() {
         ReviewDTO reviewDTO = new ReviewDTO();
         reviewDTO.setReviewerName("TestUser");
         reviewDTO.setComment("Good product indeed");
@@ -599,19 +857,20 @@ public class ProductServiceTest {
         review.setReviewerName("TestUser");
         review.setRating(5);
         review.setProduct(product);
+        review.setCreatedAt(LocalDateTime.now());
 
         List<Object[]> nullRowList = new ArrayList<>();
         nullRowList.add(null);
 
-        when(productRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(product));
+        when(productRepository.applyReviewRating(1L, 5)).thenReturn(1);
+        when(productRepository.getReferenceById(1L)).thenReturn(product);
         when(reviewRepository.save(any(Review.class))).thenReturn(review);
-        when(reviewRepository.getReviewStats(1L)).thenReturn(nullRowList);
+        when(productRepository.findReviewStatsById(1L)).thenReturn(nullRowList);
 
         ReviewDTO result = productService.addReview(1L, reviewDTO);
 
         assertNotNull(result);
-        assertEquals(0, product.getReviewCount());
-        assertEquals(0.0, product.getAverageRating());
+        verify(productCatalog, never()).reviewStatsChanged(anyLong(), anyInt(), anyDouble());
     }
 
     @Test
@@ -621,12 +880,109 @@ public class ProductServiceTest {
         review.setHelpfulCount(null);
         review.setProduct(product);
 
-        when(reviewRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(review));
-        when(reviewVoteRepository.findByUserIdAndReview_Id("user1", 1L)).thenReturn(Optional.empty());
-        when(reviewRepository.save(any(Review.class))).thenReturn(review);
+        when(reviewRepository.findById(1L)).thenReturn(Optional.of(review));
+        when(reviewVoteRepository.deleteVote("user1", 1L)).thenReturn(0);
+        when(helpfulVoteCounter.pending(1L)).thenReturn(1L);
 
-        productService.markReviewAsHelpful(1L, "user1");
+        ReviewDTO result = productService.markReviewAsHelpful(1L, "user1");
+
+        assertEquals(1, result.getHelpfulCount());
+    }
+
+    @Test
+    void getReviewSlice_ShouldTakeTotalFromCatalogReviewCount() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(reviewRepository.findSliceByProductIdAndRating(1L, null, pageable))
+                .thenReturn(new SliceImpl<>(new ArrayList<>(), pageable, false));
+        when(productCatalog.isReady()).thenReturn(true);
+        when(productCatalog.get(1L))
+                .thenReturn(new ProductDocument(1L, "Test Product", "Description", Set.of("Category"), 100.0, 4.5, 37));
+
+        SlicePage<ReviewDTO> result = productService.getReviewSlice(1L, null, pageable);
+
+        assertEquals(37, result.getTotalElements());
+        assertEquals(4, result.getTotalPages());
+        verifyNoInteractions(listingTotals);
+    }
+
+    @Test
+    void getReviewSlice_WithRating_ShouldTakeTotalFromRatingBreakdown() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(reviewRepository.findSliceByProductIdAndRating(1L, 4, pageable))
+                .thenReturn(new SliceImpl<>(new ArrayList<>(), pageable, false));
+        when(listingTotals.get(eq(ListingTotalsCache.TotalsKey.reviews(1L, 4)), any()))
+                .thenAnswer(invocation -> invocation.<LongSupplier>getArgument(1).getAsLong());
+        for (int i = 0; i < 12; i++) {
+            product.recordRating(5);
+        }
+        for (int i = 0; i < 7; i++) {
+            product.recordRating(4);
+        }
+        when(productRepository.findById(1L)).thenReturn(Optional.of(product));
+
+        SlicePage<ReviewDTO> result = productService.getReviewSlice(1L, 4, pageable);
+
+        assertEquals(7, result.getTotalElements());
+        verify(reviewRepository, never()).findByProductIdAndRating(any(), any(), any());
+    }
+
+    @Test
+    void getProductSlice_WhenCatalogNotReady_ShouldUseCachedCount() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(productRepository.findListingByCategory("Category", pageable))
+                .thenReturn(new SliceImpl<>(List.of(productDTO), pageable, false));
+        when(listingTotals.get(eq(ListingTotalsCache.TotalsKey.products("Category", null)), any())).thenReturn(1L);
+
+        SlicePage<ProductDTO> result = productService.getProductSlice("Category", null, pageable);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(1, result.getTotalElements());
+        assertFalse(result.isHasNext());
+        verify(productRepository, never()).countInCategory(any());
+    }
+
+    @Test
+    void getAllProducts_ShouldAttachCategoriesFromOneBatchedQuery() {
+        Pageable pageable = PageRequest.of(0, 10);
+        ProductDTO first = new ProductDTO(1L, "First", "Description", 10.0, null, 4.0, 2);
+        ProductDTO second = new ProductDTO(2L, "Second", "Description", 20.0, null, 3.0, 1);
+        when(productRepository.findListingBy(pageable)).thenReturn(new SliceImpl<>(List.of(first, second), pageable, false));
+        when(productRepository.findCategoriesByProductIdIn(any())).thenReturn(List.of(
+                new Object[]{1L, "Audio"}, new Object[]{1L, "Electronics"}, new Object[]{2L, "Audio"}));
+        when(listingTotals.get(any(), any())).thenReturn(2L);
+
+        Page<ProductDTO> result = productService.getAllProducts(null, null, pageable);
+
+        assertEquals(Set.of("Audio", "Electronics"), result.getContent().get(0).getCategories());
+        assertEquals(Set.of("Audio"), result.getContent().get(1).getCategories());
+        assertEquals(2, result.getTotalElements());
+        verify(productRepository, times(1)).findCategoriesByProductIdIn(any());
+        verify(productRepository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void suggestProducts_WhenCatalogReady_ShouldResolveNamesFromCatalog() {
+        when(productCatalog.isReady()).thenReturn(true);
+        when(productSuggestIndex.suggest("test", 5)).thenReturn(new long[]{1L});
+        when(productCatalog.get(1L)).thenReturn(ProductDocument.from(product));
+
+        List<ProductSuggestionDTO> result = productService.suggestProducts("test", 5);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(product.getName(), result.get(0).getName());
+        verify(productRepository, never()).findSuggestions(any(), any());
+    }
+
+    @Test
+    void suggestProducts_WhenCatalogNotReady_ShouldQueryDatabase() {
+        when(productCatalog.isReady()).thenReturn(false);
+        when(productRepository.findSuggestions("tes", PageRequest.of(0, 5)))
+                .thenReturn(List.of(new ProductSuggestionDTO(1L, "Test Product")));
+
+        List<ProductSuggestionDTO> result = productService.suggestProducts(" tes ", 5);
 
-        assertEquals(1, review.getHelpfulCount());
+        assertEquals(1, result.size());
+        verify(productSuggestIndex, never()).suggest(any(), anyInt());
     }
 }
@@ -0,0 +1,102 @@
+package com.example.productreview.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewCommentIndexTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void search_ShouldRequireEveryTokenAndReturnNewestFirst() throws Exception {
+        ReviewCommentIndex index = new ReviewCommentIndex(jdbcTemplate, new SimpleMeterRegistry(), 2);
+        stubReviews(7L,
+                new Object[]{1L, 5, "Battery lasts all day, great screen"},
+                new Object[]{2L, 2, "The battery died after a week"},
+                new Object[]{3L, 4, "Screen is bright, battery is fine"},
+                new Object[]{4L, 1, "Screen cracked on arrival"});
+
+        ReviewCommentIndex.Matches matches = index.search(7L, 4, "battery screen", null, 0, 10);
+
+        assertArrayEquals(new long[]{3L, 1L}, matches.reviewIds());
+        assertEquals(2, matches.total());
+        assertArrayEquals(new long[]{1L}, index.search(7L, 4, "screen", null, 2, 10).reviewIds());
+        assertArrayEquals(new long[]{2L}, index.search(7L, 4, "battery", 2, 0, 10).reviewIds());
+        assertEquals(0, index.search(7L, 4, "keyboard", null, 0, 10).total());
+    }
+
+    @Test
+    void search_WithPartialLastWord_ShouldMatchByPrefix() throws Exception {
+        ReviewCommentIndex index = new ReviewCommentIndex(jdbcTemplate, new SimpleMeterRegistry(), 1);
+        stubReviews(7L,
+                new Object[]{1L, 5, "Battery lasts all day"},
+                new Object[]{2L, 3, "Batteries are not included"});
+
+        assertEquals(2, index.search(7L, 2, "batt", null, 0, 10).total());
+        assertEquals(0, index.search(7L, 2, "batt ", null, 0, 10).total());
+    }
+
+    @Test
+    void reviewAdded_ShouldUpdateCachedIndexWithoutReloading() throws Exception {
+        ReviewCommentIndex index = new ReviewCommentIndex(jdbcTemplate, new SimpleMeterRegistry(), 1);
+        stubReviews(7L, new Object[]{1L, 5, "Battery lasts all day"});
+        index.search(7L, 1, "battery", null, 0, 10);
+
+        index.reviewAdded(7L, 2L, 4, "Battery is better than my old phone");
+        index.reviewAdded(7L, 2L, 4, "Battery is better than my old phone");
+
+        assertArrayEquals(new long[]{2L, 1L}, index.search(7L, 2, "battery", null, 0, 10).reviewIds());
+        verify(jdbcTemplate, times(1)).query(anyString(), any(RowCallbackHandler.class), eq(7L));
+    }
+
+    @Test
+    void search_BelowThreshold_ShouldNotCacheTheIndex() throws Exception {
+        ReviewCommentIndex index = new ReviewCommentIndex(jdbcTemplate, new SimpleMeterRegistry(), 50);
+        stubReviews(7L, new Object[]{1L, 5, "Battery lasts all day"});
+
+        index.search(7L, 1, "battery", null, 0, 10);
+        index.search(7L, 1, "battery", null, 0, 10);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowCallbackHandler.class), eq(7L));
+    }
+
+    @Test
+    void highlights_ShouldMarkMatchingWords() {
+        List<int[]> ranges = ReviewCommentIndex.highlights("Great battery, OK screen. Battery!", "battery scr");
+
+        assertEquals(3, ranges.size());
+        assertArrayEquals(new int[]{6, 13}, ranges.get(0));
+        assertArrayEquals(new int[]{18, 24}, ranges.get(1));
+        assertArrayEquals(new int[]{26, 33}, ranges.get(2));
+    }
+
+    private void stubReviews(long productId, Object[]... rows) throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (Object[] row : rows) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getLong(1)).thenReturn((Long) row[0]);
+                when(rs.getInt(2)).thenReturn((Integer) row[1]);
+                when(rs.getString(3)).thenReturn((String) row[2]);
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), eq(productId));
+    }
+}
@@ -3,20 +3,31 @@ package com.example.productreview.service;
 import com.example.productreview.BaseIntegrationTest;
 import com.example.productreview.dto.ReviewDTO;
 import com.example.productreview.model.Product;
+import com.example.productreview.model.Review;
 import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.repository.ReviewRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -28,6 +39,24 @@ public class ReviewConcurrencyIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private ProductRepository productRepository;
 
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ReviewRatingRollups reviewRatingRollups;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private HelpfulVoteCounter helpfulVoteCounter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     @Test
     void concurrentReviewSubmissions_ShouldProduceCorrectReviewCount() throws Exception {
         Long productId = 1L;
@@ -35,6 +64,8 @@ public class ReviewConcurrencyIntegrationTest extends BaseIntegrationTest {
 
         Product before = productRepository.findById(productId).orElseThrow();
         int initialCount = before.getReviewCount();
+        long initialRatingSum = before.getRatingSum();
+        Map<Integer, Long> initialBreakdown = before.getRatingBreakdown();
 
         CountDownLatch readyLatch = new CountDownLatch(threadCount);
         CountDownLatch startLatch = new CountDownLatch(1);
@@ -72,5 +103,90 @@ public class ReviewConcurrencyIntegrationTest extends BaseIntegrationTest {
         Product after = productRepository.findById(productId).orElseThrow();
         assertEquals(initialCount + threadCount, after.getReviewCount(),
                 "Review count should equal initial + " + threadCount + " concurrent submissions");
+        // Ratings 1..5 twice over: every star counter gains two and the sum gains 30
+        assertEquals(initialRatingSum + 30, after.getRatingSum());
+        for (int star = 1; star <= 5; star++) {
+            assertEquals(initialBreakdown.get(star) + 2, after.getRatingBreakdown().get(star), "star " + star);
+        }
+        assertEquals(Math.round(after.getRatingSum() * 10.0 / after.getReviewCount()) / 10.0, after.getAverageRating());
+    }
+
+    @Test
+    void concurrentHelpfulVotesOnOneReview_ShouldProduceExactCount() throws Exception {
+        Review review = reviewRepository.findByProductId(4L, PageRequest.of(0, 1)).getContent().get(0);
+        Long reviewId = review.getId();
+        int users = 200;
+
+        helpfulVoteCounter.flush();
+        int initialCount = reviewRepository.findById(reviewId).orElseThrow().getHelpfulCount();
+
+        // Every fourth user double-clicks: two concurrent toggles that must cancel out
+        List<String> voters = new ArrayList<>();
+        for (int user = 0; user < users; user++) {
+            voters.add("stress-voter-" + user);
+            if (user % 4 == 0) {
+                voters.add("stress-voter-" + user);
+            }
+        }
+        Collections.shuffle(voters, new Random(42));
+
+        CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(16);
+        List<Future<?>> futures = new ArrayList<>();
+        for (String voter : voters) {
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                productService.markReviewAsHelpful(reviewId, voter);
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        int expectedVotes = users - users / 4;
+        Integer storedVotes = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM review_votes WHERE review_id = ? AND user_id LIKE 'stress-voter-%'",
+                Integer.class, reviewId);
+        assertEquals(expectedVotes, storedVotes);
+
+        helpfulVoteCounter.flush();
+
+        assertEquals(initialCount + expectedVotes, reviewRepository.findById(reviewId).orElseThrow().getHelpfulCount());
+        assertEquals(0, helpfulVoteCounter.pending(reviewId));
+    }
+
+    @Test
+    void rollupAdds_ShouldCreateAndSumTheDayRowInsideTheCallersTransaction() {
+        long productId = 2L;
+        LocalDate day = LocalDate.of(1999, 12, 31);
+        String sumsSql = "SELECT review_count, rating_sum FROM review_daily_ratings WHERE product_id = ? AND review_date = ?";
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                reviewRatingRollups.add(productId, day, 1, 4);
+                status.setRollbackOnly();
+            });
+            // Nothing survives the rollback, not even an empty day row
+            assertTrue(jdbcTemplate.queryForList(sumsSql, productId, day).isEmpty());
+
+            ReviewRatingRollups.DailyTotals batch = new ReviewRatingRollups.DailyTotals();
+            batch.add(productId, day.atTime(9, 0), 2);
+            batch.add(productId, day.atTime(18, 0), 5);
+            transactionTemplate.executeWithoutResult(status -> {
+                reviewRatingRollups.add(productId, day, 1, 4);
+                reviewRatingRollups.addAll(batch);
+            });
+
+            Map<String, Object> row = jdbcTemplate.queryForMap(sumsSql, productId, day);
+            assertEquals(3L, ((Number) row.get("review_count")).longValue());
+            assertEquals(11L, ((Number) row.get("rating_sum")).longValue());
+        } finally {
+            jdbcTemplate.update("DELETE FROM review_daily_ratings WHERE product_id = ? AND review_date = ?",
+                    productId, day);
+        }
     }
 }
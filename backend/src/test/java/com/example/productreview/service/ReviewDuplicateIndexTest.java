@@ -0,0 +1,99 @@
+package com.example.productreview.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewDuplicateIndexTest {
+
+    private static final String ORIGINAL =
+            "This blender crushes ice in seconds, is whisper quiet and cleans up in no time at all. Five stars!";
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void check_ShouldFindNearDuplicatesAcrossTheCatalog() {
+        ReviewDuplicateIndex index = new ReviewDuplicateIndex(jdbcTemplate, "flag", "catalog", 0.8, 40);
+        index.reviewAdded(7L, 1L, index.check(7L, ORIGINAL).signature());
+
+        ReviewDuplicateIndex.Check copy = index.check(8L,
+                "this BLENDER crushes ice in seconds -- is whisper quiet & cleans up in no time at all. Five stars");
+        ReviewDuplicateIndex.Check reworded = index.check(8L,
+                "This blender crushes ice in seconds, is whisper quiet and cleans up in no time at all. Four stars!");
+        ReviewDuplicateIndex.Check unrelated = index.check(8L,
+                "The strap broke after two weeks and customer support never answered my emails about it.");
+
+        assertEquals(1L, copy.duplicateOf());
+        assertEquals(1L, reworded.duplicateOf());
+        assertNull(unrelated.duplicateOf());
+        assertEquals(256, copy.signature().length);
+    }
+
+    @Test
+    void check_WithProductScope_ShouldIgnoreOtherProducts() {
+        ReviewDuplicateIndex index = new ReviewDuplicateIndex(jdbcTemplate, "reject", "product", 0.8, 40);
+        index.reviewAdded(7L, 1L, index.check(7L, ORIGINAL).signature());
+
+        assertTrue(index.isRejecting());
+        assertNull(index.check(8L, ORIGINAL).duplicateOf());
+        assertEquals(1L, index.check(7L, ORIGINAL).duplicateOf());
+    }
+
+    @Test
+    void check_WithShortComment_ShouldNeverReportADuplicate() {
+        ReviewDuplicateIndex index = new ReviewDuplicateIndex(jdbcTemplate, "flag", "catalog", 0.8, 40);
+        ReviewDuplicateIndex.Check first = index.check(7L, "Great product, works well!");
+        index.reviewAdded(7L, 1L, first.signature());
+
+        assertEquals(0, first.signature().length);
+        assertNull(index.check(7L, "Great product, works well!").duplicateOf());
+        assertEquals(0, index.indexedCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rebuild_ShouldSignAndFlagReviewsInsertedWithoutSignature() throws Exception {
+        ReviewDuplicateIndex index = new ReviewDuplicateIndex(jdbcTemplate, "flag", "catalog", 0.8, 40);
+        Object[][] rows = {{10L, 7L, ORIGINAL}, {11L, 8L, ORIGINAL + " "}, {12L, 8L, "Too short to sign"}};
+        lenient().when(jdbcTemplate.query(startsWith("SELECT id, product_id, comment"), any(RowMapper.class), eq(1000)))
+                .thenAnswer(invocation -> {
+                    RowMapper<Object> mapper = invocation.getArgument(1);
+                    List<Object> mapped = new ArrayList<>();
+                    for (Object[] row : rows) {
+                        ResultSet rs = mock(ResultSet.class);
+                        when(rs.getLong(1)).thenReturn((Long) row[0]);
+                        when(rs.getLong(2)).thenReturn((Long) row[1]);
+                        when(rs.getString(3)).thenReturn((String) row[2]);
+                        mapped.add(mapper.mapRow(rs, mapped.size()));
+                    }
+                    return mapped;
+                });
+
+        index.rebuild();
+
+        ArgumentCaptor<List<Object[]>> updates = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), updates.capture());
+        List<Object[]> written = updates.getValue();
+        assertNull(written.get(0)[1]);
+        assertEquals(10L, written.get(1)[1]);
+        assertEquals(0, ((byte[]) written.get(2)[0]).length);
+        assertEquals(2, index.indexedCount());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.productreview.service;
+
+import com.example.productreview.BaseIntegrationTest;
+import com.example.productreview.model.Review;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReviewExportIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ReviewExportService reviewExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void exportReviews_ForProduct_ShouldWriteOneJsonObjectPerLineInIdOrder() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = reviewExportService.exportReviews(1L, null, null, null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(rows, lines.length);
+        assertTrue(rows > 0);
+        long previousId = 0;
+        for (String line : lines) {
+            JsonNode review = objectMapper.readTree(line);
+            assertEquals(1L, review.get("productId").asLong());
+            assertTrue(review.get("id").asLong() > previousId);
+            previousId = review.get("id").asLong();
+        }
+    }
+
+    @Test
+    void exportReviews_ForCategory_ShouldOnlyIncludeProductsInIt() throws Exception {
+        Integer expected = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews r JOIN product_categories c "
+                + "ON c.product_id = r.product_id WHERE c.category = 'Electronics'", Integer.class);
+
+        long rows = reviewExportService.exportReviews(null, "Electronics", null, null, OutputStream.nullOutputStream());
+
+        assertEquals(expected.longValue(), rows);
+    }
+
+    /**
+     * Streams a synthetic date range larger than one buffer. The rows are dated in 2001 and inserted in a
+     * transaction the export joins and that is rolled back, so no other test or scheduled job ever sees them.
+     */
+    @Test
+    void exportReviews_ForDateRange_ShouldStreamEveryRowInIt() {
+        int total = 500;
+        LocalDateTime from = LocalDateTime.of(2001, 1, 1, 0, 0);
+        LocalDateTime to = from.plusYears(1);
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            LocalDateTime createdAt = from.plusMinutes(i);
+            batch.add(new Object[]{"Exporter " + i, "Synthetic review body number " + i, i % 5 + 1,
+                    Review.helpfulnessScore(0, createdAt), Timestamp.valueOf(createdAt)});
+        }
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            jdbcTemplate.batchUpdate("INSERT INTO reviews (reviewer_name, comment, rating, helpful_count, "
+                    + "helpfulness_score, created_at, product_id) VALUES (?, ?, ?, 0, ?, ?, 24)", batch);
+
+            CountingOutputStream out = new CountingOutputStream();
+            long rows;
+            try {
+                rows = reviewExportService.exportReviews(24L, null, from, to, out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            assertEquals(total, rows);
+            assertEquals(total, out.lines);
+            assertTrue(out.bytes > 64 * 1024);
+        });
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+        long bytes;
+        long lines;
+
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
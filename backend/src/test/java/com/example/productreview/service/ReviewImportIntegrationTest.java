@@ -0,0 +1,96 @@
+package com.example.productreview.service;
+
+import com.example.productreview.BaseIntegrationTest;
+import com.example.productreview.dto.ReviewImportResult;
+import com.example.productreview.repository.ReviewImportCheckpointRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReviewImportIntegrationTest extends BaseIntegrationTest {
+
+    private static final String IMPORTER = "Bulk Importer";
+
+    @Autowired
+    private ReviewImportService reviewImportService;
+
+    @Autowired
+    private ReviewImportCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeCheckpoints() {
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void importReviews_ShouldWriteValidLinesAndReportRejectedOnes() throws Exception {
+        int before = reviewCount(23L);
+        int beforeRows = countReviews(23L);
+        String body = String.join("\n",
+                line(23, 5, "Imported from the partner store"),
+                "{not json",
+                line(23, 9, "Rating far out of range here"),
+                line(99999, 4, "Product does not exist at all"),
+                "",
+                line(23, 3, "Second imported review text")) + "\n";
+
+        ReviewImportResult result = reviewImportService.importReviews("import-valid-and-invalid", stream(body));
+
+        assertEquals(6, result.getLinesRead());
+        assertEquals(2, result.getImported());
+        assertEquals(3, result.getFailed());
+        assertEquals(1, result.getProductsUpdated());
+        assertEquals(2L, result.getErrors().get(0).getLine());
+        assertEquals("Rating must be at most 5", result.getErrors().get(1).getMessage());
+        assertTrue(result.getErrors().get(2).getMessage().contains("99999"));
+        assertEquals(before + 2, reviewCount(23L));
+        assertEquals(beforeRows + 2, countReviews(23L));
+    }
+
+    @Test
+    void importReviews_WithSameImportId_ShouldResumeAfterCommittedLines() throws Exception {
+        int before = reviewCount(22L);
+        int beforeRows = countReviews(22L);
+        String firstHalf = line(22, 4, "First half review number one") + "\n"
+                + line(22, 2, "First half review number two") + "\n";
+        String full = firstHalf
+                + line(22, 5, "Second half review number one") + "\n"
+                + line(22, 1, "Second half review number two") + "\n";
+
+        reviewImportService.importReviews("import-resume", stream(firstHalf));
+        ReviewImportResult resumed = reviewImportService.importReviews("import-resume", stream(full));
+
+        assertEquals(2, resumed.getLinesSkipped());
+        assertEquals(2, resumed.getImported());
+        assertEquals(4, resumed.getTotalImported());
+        assertEquals(before + 4, reviewCount(22L));
+        assertEquals(beforeRows + 4, countReviews(22L));
+    }
+
+    private static String line(long productId, int rating, String comment) {
+        return "{\"productId\":" + productId + ",\"reviewerName\":\"" + IMPORTER + "\",\"comment\":\"" + comment
+                + "\",\"rating\":" + rating + "}";
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private int reviewCount(long productId) {
+        return jdbcTemplate.queryForObject("SELECT review_count FROM products WHERE id = ?", Integer.class, productId);
+    }
+
+    private int countReviews(long productId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reviews WHERE product_id = ?", Integer.class, productId);
+    }
+}
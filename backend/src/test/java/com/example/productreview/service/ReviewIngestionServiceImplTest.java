@@ -0,0 +1,204 @@
+package com.example.productreview.service;
+
+import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.exception.ResourceNotFoundException;
+import com.example.productreview.exception.ServiceUnavailableException;
+import com.example.productreview.exception.TooManyRequestsException;
+import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.search.ProductCatalog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewIngestionServiceImplTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductCatalog productCatalog;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private ReviewCommentIndex reviewCommentIndex;
+
+    @Mock
+    private ReviewDuplicateIndex reviewDuplicateIndex;
+
+    @Mock
+    private ReviewRatingRollups reviewRatingRollups;
+
+    @TempDir
+    Path directory;
+
+    private ReviewIngestionServiceImpl service;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void enqueue_BeforeStart_ShouldBeUnavailable() {
+        service = service(10, false);
+
+        assertThrows(ServiceUnavailableException.class, () -> service.enqueue(1L, review(5)));
+    }
+
+    @Test
+    void start_InDirectMode_ShouldNotStartWorker() throws Exception {
+        service = service("direct", 10, false);
+        service.start();
+
+        assertFalse(service.isWriteBehind());
+        assertThrows(ServiceUnavailableException.class, () -> service.enqueue(1L, review(5)));
+        assertTrue(Thread.getAllStackTraces().keySet().stream()
+                .noneMatch(thread -> thread.getName().equals("review-ingestion")));
+    }
+
+    @Test
+    void enqueue_ForUnknownProduct_ShouldThrowNotFound() throws Exception {
+        service = service(10, false);
+        service.start();
+        when(productCatalog.isReady()).thenReturn(false);
+        when(productRepository.existsById(99L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class, () -> service.enqueue(99L, review(5)));
+    }
+
+    @Test
+    void enqueue_WhenQueueIsFull_ShouldApplyBackpressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    release.await(5, TimeUnit.SECONDS);
+                    return new int[0][];
+                });
+        when(productRepository.existsById(1L)).thenReturn(true);
+        service = service(1, false);
+        service.start();
+
+        assertThrows(TooManyRequestsException.class, () -> {
+            for (int i = 0; i < 5; i++) {
+                service.enqueue(1L, review(4));
+            }
+        });
+
+        release.countDown();
+        assertTrue(service.awaitFlushed(Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void drain_WhenAProductFailsTransientlyDuringIsolation_ShouldRetryItAndDropOnlyTheViolatingProduct() throws Exception {
+        AtomicInteger transientFailures = new AtomicInteger(1);
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    Collection<ReviewJournal.Entry> rows = invocation.getArgument(1);
+                    if (rows.stream().anyMatch(entry -> entry.productId() == 2L)) {
+                        throw new DataIntegrityViolationException("product 2 was deleted");
+                    }
+                    if (transientFailures.getAndDecrement() > 0) {
+                        throw new QueryTimeoutException("lock timeout");
+                    }
+                    return new int[0][];
+                });
+        when(productRepository.existsById(any())).thenReturn(true);
+        service = service(10, false);
+        service.start();
+
+        service.enqueue(1L, review(5));
+        service.enqueue(2L, review(3));
+
+        assertTrue(service.awaitFlushed(Duration.ofSeconds(10)));
+        verify(productRepository).applyReviewRatings(1L, 1, 5L, 0, 0, 0, 0, 1);
+        verify(productRepository, never()).applyReviewRatings(eq(2L), anyInt(), anyLong(), anyInt(), anyInt(),
+                anyInt(), anyInt(), anyInt());
+        // The worker survived and still takes reviews
+        assertNotNull(service.enqueue(1L, review(4)));
+    }
+
+    @Test
+    void start_ShouldReplayJournalWithOneCounterUpdatePerProduct() throws Exception {
+        Path path = directory.resolve("journal.log");
+        try (ReviewJournal journal = new ReviewJournal(path, false, objectMapper)) {
+            journal.recover();
+            journal.append(entry(1, 1L, 5));
+            journal.append(entry(2, 2L, 2));
+            journal.append(entry(3, 1L, 5));
+            journal.append(entry(4, 1L, 3));
+        }
+        when(productRepository.findReviewStatsById(any())).thenReturn(new ArrayList<>());
+        service = new ReviewIngestionServiceImpl(productRepository, productCatalog, jdbcTemplate, transactionManager,
+                reviewCommentIndex, reviewDuplicateIndex, reviewRatingRollups, objectMapper, "write-behind", 10, 500, 20, true, path.toString(), false);
+
+        service.start();
+
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), argThat((Collection<?> rows) -> rows.size() == 4),
+                eq(4), any(ParameterizedPreparedStatementSetter.class));
+        verify(productRepository).applyReviewRatings(1L, 3, 13L, 0, 0, 1, 0, 2);
+        verify(productRepository).applyReviewRatings(2L, 1, 2L, 0, 1, 0, 0, 0);
+        assertEquals(0, Files.size(path));
+        assertTrue(service.isWriteBehind());
+    }
+
+    private ReviewIngestionServiceImpl service(int capacity, boolean journal) {
+        return service("write-behind", capacity, journal);
+    }
+
+    private ReviewIngestionServiceImpl service(String mode, int capacity, boolean journal) {
+        return new ReviewIngestionServiceImpl(productRepository, productCatalog, jdbcTemplate, transactionManager,
+                reviewCommentIndex, reviewDuplicateIndex, reviewRatingRollups, objectMapper, mode, capacity, 500, 20, journal,
+                directory.resolve("journal.log").toString(), false);
+    }
+
+    private static ReviewJournal.Entry entry(long sequence, long productId, int rating) {
+        return new ReviewJournal.Entry(sequence, productId, "Reviewer", "Queued before a restart", rating,
+                LocalDateTime.of(2026, 1, 1, 12, 0));
+    }
+
+    private static ReviewDTO review(int rating) {
+        ReviewDTO dto = new ReviewDTO();
+        dto.setReviewerName("Reviewer");
+        dto.setComment("Arrived quickly and works well");
+        dto.setRating(rating);
+        return dto;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.productreview.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewJournalTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recover_ShouldReturnEntriesAfterLastCheckpoint() throws Exception {
+        Path path = directory.resolve("journal.log");
+        try (ReviewJournal journal = new ReviewJournal(path, false, objectMapper)) {
+            assertTrue(journal.recover().isEmpty());
+            journal.append(entry(1));
+            journal.append(entry(2));
+            journal.checkpoint(1);
+            journal.append(entry(3));
+        }
+
+        try (ReviewJournal reopened = new ReviewJournal(path, false, objectMapper)) {
+            List<ReviewJournal.Entry> pending = reopened.recover();
+
+            assertEquals(List.of(2L, 3L), pending.stream().map(ReviewJournal.Entry::sequence).toList());
+            assertEquals("Reviewer 3", pending.get(1).reviewerName());
+            assertEquals(3, reopened.lastSequence());
+        }
+    }
+
+    @Test
+    void checkpoint_WhenCaughtUp_ShouldTruncateJournal() throws Exception {
+        Path path = directory.resolve("journal.log");
+        try (ReviewJournal journal = new ReviewJournal(path, true, objectMapper)) {
+            journal.recover();
+            journal.append(entry(1));
+            journal.append(entry(2));
+            journal.checkpoint(2);
+        }
+
+        assertEquals(0, Files.size(path));
+    }
+
+    @Test
+    void recover_ShouldSkipTornLastLine() throws Exception {
+        Path path = directory.resolve("journal.log");
+        try (ReviewJournal journal = new ReviewJournal(path, false, objectMapper)) {
+            journal.recover();
+            journal.append(entry(1));
+        }
+        Files.writeString(path, "{\"sequence\":2,\"produ", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        try (ReviewJournal reopened = new ReviewJournal(path, false, objectMapper)) {
+            assertEquals(1, reopened.recover().size());
+            assertEquals(1, reopened.lastSequence());
+        }
+    }
+
+    private static ReviewJournal.Entry entry(long sequence) {
+        return new ReviewJournal.Entry(sequence, 7L, "Reviewer " + sequence, "Solid product overall", 4,
+                LocalDateTime.of(2026, 1, 1, 12, 0));
+    }
+}
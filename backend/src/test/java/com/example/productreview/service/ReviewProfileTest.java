@@ -0,0 +1,93 @@
+package com.example.productreview.service;
+
+import com.example.productreview.model.Product;
+import com.example.productreview.model.Review;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewProfileTest {
+
+    private static final String[] COMMENTS = {
+            "Excellent quality, feels premium and the screen looks beautiful",
+            "Fast and snappy, performance is top notch for the price",
+            "Battery drains overnight and there is a bug with bluetooth",
+            "Too EXPENSIVE for what you get, the cost is hard to justify",
+            "Arrived on time, does what it says",
+            "Had a problem with setup; support fixed the issue quickly",
+            null
+    };
+
+    @Test
+    void of_ShouldCountRatingsAndThemesByPolarity() {
+        ReviewProfile profile = ReviewProfile.of(List.of(
+                review(5, "Great QUALITY and fast"),
+                review(4, null),
+                review(3, "The battery is fine"),
+                review(1, "Battery died, too expensive")));
+
+        assertEquals(4, profile.count());
+        assertEquals(3.25, profile.averageRating(), 1e-9);
+        assertEquals(2, profile.positiveCount());
+        assertEquals(1, profile.negativeCount());
+        assertEquals(1, profile.mentions(ReviewProfile.Theme.QUALITY));
+        assertEquals(1, profile.mentions(ReviewProfile.Theme.PERFORMANCE));
+        // The 3-star battery mention is neither praise nor complaint
+        assertEquals(1, profile.mentions(ReviewProfile.Theme.BATTERY));
+        assertEquals(1, profile.mentions(ReviewProfile.Theme.PRICE));
+        assertEquals(0, profile.mentions(ReviewProfile.Theme.BUGS));
+    }
+
+    @Test
+    void of_Product_ShouldMatchTheProfileOfItsReviews() {
+        List<Review> reviews = reviews(200);
+        Product product = new Product();
+        ReviewProfile.MentionTotals totals = new ReviewProfile.MentionTotals();
+        for (Review review : reviews) {
+            product.recordRating(review.getRating());
+            totals.add(7L, review.getRating(), review.getComment());
+        }
+        totals.forEach((productId, mentions) -> product.recordThemeMentions(mentions));
+
+        ReviewProfile fromCounters = ReviewProfile.of(product);
+        ReviewProfile fromReviews = ReviewProfile.of(reviews);
+
+        assertEquals(fromReviews.count(), fromCounters.count());
+        assertEquals(fromReviews.averageRating(), fromCounters.averageRating(), 1e-9);
+        assertEquals(fromReviews.negativeCount(), fromCounters.negativeCount());
+        for (ReviewProfile.Theme theme : ReviewProfile.Theme.values()) {
+            assertEquals(fromReviews.mentions(theme), fromCounters.mentions(theme), theme.name());
+        }
+    }
+
+    @Test
+    void countedThemes_ShouldKeepOnlyThemesOfTheReviewsPolarity() {
+        String comment = "Great design but the battery has issues";
+
+        assertArrayEquals(new int[]{1, 0, 1, 0, 0, 0},
+                ReviewProfile.mentionCounts(ReviewProfile.countedThemes(5, comment)));
+        assertArrayEquals(new int[]{0, 0, 0, 0, 1, 1},
+                ReviewProfile.mentionCounts(ReviewProfile.countedThemes(1, comment)));
+        assertEquals(0, ReviewProfile.countedThemes(3, comment));
+    }
+
+    private static List<Review> reviews(int size) {
+        Random random = new Random(size);
+        List<Review> reviews = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            reviews.add(review(1 + random.nextInt(5), COMMENTS[random.nextInt(COMMENTS.length)]));
+        }
+        return reviews;
+    }
+
+    private static Review review(int rating, String comment) {
+        Review review = new Review();
+        review.setRating(rating);
+        review.setComment(comment);
+        return review;
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.productreview.service;
+
+import com.example.productreview.model.Product;
+import com.example.productreview.model.ProductSummary;
+import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.repository.ProductSummaryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReviewSummaryPipelineTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductSummaryRepository productSummaryRepository;
+
+    @Mock
+    private AISummaryService aiSummaryService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ReviewSummaryPipeline pipeline;
+
+    @AfterEach
+    void stop() throws InterruptedException {
+        if (pipeline != null) {
+            pipeline.stop();
+        }
+    }
+
+    @Test
+    void current_WithoutSummary_ShouldReturnPendingAndStoreTheGeneratedOne() throws Exception {
+        pipeline = newPipeline(5);
+        stubProduct(7L, 3);
+        when(aiSummaryService.generateReviewSummary(eq(7L), eq("Blender"), any(ReviewProfile.class))).thenReturn("Loved by most");
+
+        assertEquals(ReviewSummaryPipeline.Status.PENDING, pipeline.current(7L, 3).status());
+
+        ReviewSummaryPipeline.Snapshot ready = awaitStatus(7L, 3, ReviewSummaryPipeline.Status.READY);
+        assertEquals("Loved by most", ready.summary());
+        assertNotNull(ready.generatedAt());
+        ArgumentCaptor<ProductSummary> stored = ArgumentCaptor.forClass(ProductSummary.class);
+        verify(productSummaryRepository).save(stored.capture());
+        assertEquals("Loved by most", stored.getValue().getSummary());
+        assertEquals(3, stored.getValue().getReviewCount());
+    }
+
+    @Test
+    void current_WithStoredSummary_ShouldServeItWithoutGenerating() {
+        pipeline = newPipeline(5);
+        when(productSummaryRepository.findById(7L)).thenReturn(Optional.of(new ProductSummary(7L, "Stored summary",
+                10, LocalDateTime.now().minusDays(1), new int[]{0, 0, 0, 0, 10})));
+
+        ReviewSummaryPipeline.Snapshot snapshot = pipeline.current(7L, 14);
+        pipeline.current(7L, 14);
+
+        assertEquals(ReviewSummaryPipeline.Status.READY, snapshot.status());
+        assertEquals("Stored summary", snapshot.summary());
+        verify(productSummaryRepository, times(1)).findById(7L);
+        verifyNoInteractions(productRepository, aiSummaryService);
+    }
+
+    @Test
+    void current_PastTheWatermarkDelta_ShouldServeTheStaleSummaryUntilTheNewOneIsReady() throws Exception {
+        pipeline = newPipeline(2);
+        Product product = stubProduct(7L, 3);
+        when(aiSummaryService.generateReviewSummary(eq(7L), eq("Blender"), any(ReviewProfile.class)))
+                .thenReturn("First summary", "Second summary");
+        pipeline.current(7L, 3);
+        awaitStatus(7L, 3, ReviewSummaryPipeline.Status.READY);
+
+        assertEquals(ReviewSummaryPipeline.Status.READY, pipeline.current(7L, 4).status());
+        product.setReviewCount(5);
+        ReviewSummaryPipeline.Snapshot stale = pipeline.current(7L, 5);
+
+        assertEquals(ReviewSummaryPipeline.Status.STALE, stale.status());
+        assertEquals("First summary", stale.summary());
+        assertEquals("Second summary", awaitStatus(7L, 5, ReviewSummaryPipeline.Status.READY).summary());
+        verify(aiSummaryService, times(2)).generateReviewSummary(eq(7L), eq("Blender"), any(ReviewProfile.class));
+    }
+
+    @Test
+    void current_WhileGenerating_ShouldQueueOneGenerationPerProduct() throws Exception {
+        pipeline = newPipeline(5);
+        stubProduct(7L, 3);
+        CountDownLatch release = new CountDownLatch(1);
+        when(aiSummaryService.generateReviewSummary(eq(7L), eq("Blender"), any(ReviewProfile.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "Summary";
+        });
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(ReviewSummaryPipeline.Status.PENDING, pipeline.current(7L, 3).status());
+        }
+        release.countDown();
+
+        awaitStatus(7L, 3, ReviewSummaryPipeline.Status.READY);
+        verify(aiSummaryService, times(1)).generateReviewSummary(eq(7L), eq("Blender"), any(ReviewProfile.class));
+        // Reads waiting on a generation already under way save nothing
+        assertEquals(0, meterRegistry.get(ReviewSummaryPipeline.SAVED_METRIC).tag("reason", "coalesced").counter().count());
+    }
+
+    @Test
+    void current_WhenStaleDuringABurst_ShouldGenerateOnceAfterTheDebounceWindow() throws Exception {
+        pipeline = newPipeline(5, 200);
+        when(productSummaryRepository.findById(7L)).thenReturn(Optional.of(new ProductSummary(7L, "Stored summary",
+                10, LocalDateTime.now().minusDays(1), new int[]{0, 0, 0, 0, 10})));
+        stubProduct(7L, 10, 0, 0, 0, 10);
+        when(aiSummaryService.generateReviewSummary(eq(7L), eq("Blender"), any(ReviewProfile.class))).thenReturn("Mixed reviews");
+
+        // Reviews keep arriving during the window and land in its one generation
+        for (int reviewCount = 15; reviewCount <= 20; reviewCount++) {
+            assertEquals(ReviewSummaryPipeline.Status.STALE, pipeline.current(7L, reviewCount).status());
+        }
+
+        assertEquals("Mixed reviews", awaitStatus(7L, 20, ReviewSummaryPipeline.Status.READY).summary());
+        verify(aiSummaryService, times(1)).generateReviewSummary(eq(7L), eq("Blender"), any(ReviewProfile.class));
+        assertEquals(1, meterRegistry.get(ReviewSummaryPipeline.SAVED_METRIC).tag("reason", "coalesced").counter().count());
+        assertEquals(1, meterRegistry.get(ReviewSummaryPipeline.GENERATIONS_METRIC).counter().count());
+    }
+
+    @Test
+    void current_WithUnchangedRatingDistribution_ShouldKeepTheTextAndAdvanceTheWatermark() throws Exception {
+        pipeline = newPipeline(5);
+        LocalDateTime generatedAt = LocalDateTime.now().minusDays(1);
+        when(productSummaryRepository.findById(7L)).thenReturn(Optional.of(new ProductSummary(7L, "Stored summary",
+                10, generatedAt, new int[]{1, 1, 2, 3, 3})));
+        stubProduct(7L, 1, 2, 3, 4, 5);
+
+        assertEquals(ReviewSummaryPipeline.Status.STALE, pipeline.current(7L, 15).status());
+
+        ReviewSummaryPipeline.Snapshot kept = awaitStatus(7L, 15, ReviewSummaryPipeline.Status.READY);
+        assertEquals("Stored summary", kept.summary());
+        assertEquals(generatedAt, kept.generatedAt());
+        verifyNoInteractions(aiSummaryService);
+        ArgumentCaptor<ProductSummary> stored = ArgumentCaptor.forClass(ProductSummary.class);
+        verify(productSummaryRepository).save(stored.capture());
+        assertEquals(15, stored.getValue().getReviewCount());
+        assertArrayEquals(new int[]{1, 1, 2, 3, 3}, stored.getValue().getStarCounts());
+        assertEquals(1, meterRegistry.get(ReviewSummaryPipeline.SAVED_METRIC).tag("reason", "unchanged").counter().count());
+    }
+
+    @Test
+    void ratingShift_ShouldMeasureTheShareOfReviewsThatMoved() {
+        assertEquals(0.0, ReviewSummaryPipeline.ratingShift(new int[]{0, 0, 0, 1, 1}, new int[]{0, 0, 0, 5, 5}), 1e-9);
+        assertEquals(0.5, ReviewSummaryPipeline.ratingShift(new int[]{0, 0, 0, 0, 10}, new int[]{5, 0, 0, 0, 5}), 1e-9);
+        assertEquals(1.0, ReviewSummaryPipeline.ratingShift(new int[5], new int[]{0, 0, 0, 0, 1}), 1e-9);
+    }
+
+    @Test
+    void current_WithoutReviews_ShouldNotGenerate() {
+        pipeline = newPipeline(5);
+
+        assertEquals(ReviewSummaryPipeline.Status.NONE, pipeline.current(7L, 0).status());
+        verifyNoInteractions(productRepository, productSummaryRepository, aiSummaryService);
+    }
+
+    private ReviewSummaryPipeline newPipeline(int regenerateAfterReviews) {
+        return newPipeline(regenerateAfterReviews, 0);
+    }
+
+    private ReviewSummaryPipeline newPipeline(int regenerateAfterReviews, long debounceMs) {
+        return new ReviewSummaryPipeline(productRepository, productSummaryRepository, aiSummaryService,
+                transactionManager, meterRegistry, 1, 10, 100, regenerateAfterReviews, debounceMs, 0.1);
+    }
+
+    private Product stubProduct(long productId, int reviewCount) {
+        Product product = stubProduct(productId);
+        product.setReviewCount(reviewCount);
+        return product;
+    }
+
+    private Product stubProduct(long productId, int... starCounts) {
+        Product product = new Product();
+        product.setId(productId);
+        product.setName("Blender");
+        for (int star = 1; star <= starCounts.length; star++) {
+            for (int i = 0; i < starCounts[star - 1]; i++) {
+                product.recordRating(star);
+            }
+        }
+        when(productRepository.findById(productId)).thenReturn(Optional.of(product));
+        return product;
+    }
+
+    private ReviewSummaryPipeline.Snapshot awaitStatus(long productId, int reviewCount,
+                                                       ReviewSummaryPipeline.Status status) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        ReviewSummaryPipeline.Snapshot snapshot = pipeline.current(productId, reviewCount);
+        while (snapshot.status() != status && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            snapshot = pipeline.current(productId, reviewCount);
+        }
+        assertEquals(status, snapshot.status());
+        return snapshot;
+    }
+}
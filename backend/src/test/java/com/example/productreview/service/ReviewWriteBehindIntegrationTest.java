@@ -0,0 +1,102 @@
+package com.example.productreview.service;
+
+import com.example.productreview.BaseIntegrationTest;
+import com.example.productreview.dto.ReviewDTO;
+import com.example.productreview.model.Product;
+import com.example.productreview.repository.ProductRepository;
+import com.example.productreview.search.ProductCatalog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs against a write-behind context of its own, on its own in-memory database so the shared context's
+ * data and caches are left alone. The context is closed afterwards, which also stops its worker.
+ */
+@TestPropertySource(properties = {
+        "reviews.ingestion.mode=write-behind",
+        "spring.datasource.url=jdbc:h2:mem:writebehind;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE"
+})
+@DirtiesContext
+class ReviewWriteBehindIntegrationTest extends BaseIntegrationTest {
+
+    @Autowired
+    private ReviewIngestionService reviewIngestionService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Test
+    void writeBehindIngestion_ShouldApplyEveryQueuedReviewOnce() throws Exception {
+        Long directProductId = 2L;
+        Long queuedProductId = 3L;
+        int threadCount = 16;
+        int reviewsPerThread = 25;
+        int total = threadCount * reviewsPerThread;
+        assertTrue(reviewIngestionService.isWriteBehind());
+
+        Product directBefore = productRepository.findById(directProductId).orElseThrow();
+        Product queuedBefore = productRepository.findById(queuedProductId).orElseThrow();
+
+        submitConcurrently(threadCount, reviewsPerThread, dto -> productService.addReview(directProductId, dto));
+        submitConcurrently(threadCount, reviewsPerThread, dto -> reviewIngestionService.enqueue(queuedProductId, dto));
+        assertTrue(reviewIngestionService.awaitFlushed(Duration.ofSeconds(30)));
+
+        Product directAfter = productRepository.findById(directProductId).orElseThrow();
+        Product queuedAfter = productRepository.findById(queuedProductId).orElseThrow();
+        assertEquals(directBefore.getReviewCount() + total, directAfter.getReviewCount());
+        assertEquals(queuedBefore.getReviewCount() + total, queuedAfter.getReviewCount());
+        assertEquals(directAfter.getRatingSum() - directBefore.getRatingSum(),
+                queuedAfter.getRatingSum() - queuedBefore.getRatingSum());
+        for (int star = 1; star <= 5; star++) {
+            assertEquals(queuedBefore.getRatingBreakdown().get(star) + total / 5,
+                    queuedAfter.getRatingBreakdown().get(star), "star " + star);
+        }
+        assertEquals(queuedAfter.getReviewCount(), productCatalog.get(queuedProductId).reviewCount());
+        assertEquals(0, reviewIngestionService.queuedCount());
+    }
+
+    private void submitConcurrently(int threadCount, int reviewsPerThread, Consumer<ReviewDTO> submit) throws Exception {
+        CountDownLatch startLatch = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final int thread = t;
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                for (int i = 0; i < reviewsPerThread; i++) {
+                    ReviewDTO dto = new ReviewDTO();
+                    dto.setReviewerName("LoadUser" + thread);
+                    dto.setComment("Write-behind review " + i + " from thread " + thread);
+                    dto.setRating((i % 5) + 1);
+                    submit.accept(dto);
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+}
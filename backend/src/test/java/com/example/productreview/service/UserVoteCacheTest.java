@@ -0,0 +1,46 @@
+package com.example.productreview.service;
+
+import com.example.productreview.repository.ReviewVoteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserVoteCacheTest {
+
+    @Mock
+    private ReviewVoteRepository reviewVoteRepository;
+
+    @Test
+    void filter_ShouldLoadUserOnceAndAnswerFromBitmap() {
+        UserVoteCache cache = new UserVoteCache(reviewVoteRepository, new SimpleMeterRegistry());
+        when(reviewVoteRepository.findReviewIdsByUserId("user1"))
+                .thenReturn(LongStream.rangeClosed(1, 50_000).filter(id -> id % 2 == 0).boxed().toList());
+
+        assertEquals(List.of(4L, 40_000L), cache.filter("user1", List.of(3L, 4L, 40_000L, 60_000L)));
+        assertEquals(25_000, cache.all("user1").size());
+        verify(reviewVoteRepository, times(1)).findReviewIdsByUserId("user1");
+    }
+
+    @Test
+    void voted_ShouldUpdateCachedUsersOnly() {
+        UserVoteCache cache = new UserVoteCache(reviewVoteRepository, new SimpleMeterRegistry());
+        when(reviewVoteRepository.findReviewIdsByUserId("user1")).thenReturn(List.of(7L));
+        cache.all("user1");
+
+        cache.voted("user1", 8L, true);
+        cache.voted("user1", 7L, false);
+        cache.voted("user2", 9L, true);
+
+        assertEquals(List.of(8L), cache.all("user1"));
+        verify(reviewVoteRepository, never()).findReviewIdsByUserId("user2");
+    }
+}